@@ -0,0 +1,121 @@
+package com.grouplead.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// MetricsCalculator before and after the move onto StatsKernel, and the kernel's unrolled reductions
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsKernelBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Double> list;
+    private double[] array;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        list = new ArrayList<>(size);
+        array = new double[size];
+        for (int i = 0; i < size; i++) {
+            // Latency-like: log-normal over several orders of magnitude
+            array[i] = Math.exp(4 + 1.5 * random.nextGaussian());
+            list.add(array[i]);
+        }
+    }
+
+    @Benchmark
+    public double legacyPercentile() {
+        return Legacy.calculatePercentile(list, 95);
+    }
+
+    @Benchmark
+    public double calculatorPercentile() {
+        return MetricsCalculator.calculatePercentile(list, 95);
+    }
+
+    // p50, p95 and p99 from one copy, as MetricsProcessorService does
+    @Benchmark
+    public double[] legacyThreePercentiles() {
+        return new double[]{
+                Legacy.calculatePercentile(list, 50),
+                Legacy.calculatePercentile(list, 95),
+                Legacy.calculatePercentile(list, 99)};
+    }
+
+    @Benchmark
+    public double[] kernelThreePercentiles() {
+        return StatsKernel.selectRanks(array.clone(),
+                StatsKernel.nearestRank(size, 50), StatsKernel.nearestRank(size, 95), StatsKernel.nearestRank(size, 99));
+    }
+
+    @Benchmark
+    public double legacyStandardDeviation() {
+        return Legacy.calculateStandardDeviation(list);
+    }
+
+    @Benchmark
+    public double calculatorStandardDeviation() {
+        return MetricsCalculator.calculateStandardDeviation(list);
+    }
+
+    @Benchmark
+    public double legacyMax() {
+        return Collections.max(list);
+    }
+
+    @Benchmark
+    public double kernelMax() {
+        return StatsKernel.max(array);
+    }
+
+    @Benchmark
+    public double legacySum() {
+        return list.stream().mapToDouble(Double::doubleValue).sum();
+    }
+
+    @Benchmark
+    public double kernelSum() {
+        return StatsKernel.sum(array);
+    }
+
+    // MetricsCalculator as it was before StatsKernel
+    private static final class Legacy {
+
+        static double calculatePercentile(List<Double> values, int percentile) {
+            List<Double> sorted = values.stream().sorted().toList();
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+            index = Math.max(0, Math.min(index, sorted.size() - 1));
+            return sorted.get(index);
+        }
+
+        static double calculateStandardDeviation(List<Double> values) {
+            double mean = values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+            double sumSquaredDiff = values.stream()
+                    .mapToDouble(v -> Math.pow(v - mean, 2))
+                    .sum();
+            return Math.sqrt(sumSquaredDiff / (values.size() - 1));
+        }
+    }
+}
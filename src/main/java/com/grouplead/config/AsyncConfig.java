@@ -0,0 +1,35 @@
+package com.grouplead.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String WEBHOOK_EXECUTOR = "webhookExecutor";
+    public static final String DASHBOARD_EXECUTOR = "dashboardExecutor";
+
+    // Bounded so a burst of deliveries is rejected (and reconciled later) instead of piling up
+    @Bean(name = WEBHOOK_EXECUTOR)
+    public TaskExecutor webhookExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("grouplead-webhook-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Dashboard widgets mostly wait on the database, so one virtual thread each costs next to nothing
+    @Bean(name = DASHBOARD_EXECUTOR)
+    public TaskExecutor dashboardExecutor() {
+        return new VirtualThreadTaskExecutor("grouplead-dashboard-");
+    }
+}
@@ -4,10 +4,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
-import software.amazon.awssdk.services.costexplorer.CostExplorerClient;
+import software.amazon.awssdk.services.cloudwatch.CloudWatchAsyncClient;
+import software.amazon.awssdk.services.costexplorer.CostExplorerAsyncClient;
 
 @Configuration
 public class AwsConfig {
@@ -21,35 +26,46 @@ public class AwsConfig {
     @Value("${aws.region:us-east-1}")
     private String region;
 
-    @Bean
-    public CloudWatchClient cloudWatchClient() {
-        if (accessKeyId.isEmpty() || secretAccessKey.isEmpty()) {
-            // Use default credential provider chain (IAM roles, environment variables, etc.)
-            return CloudWatchClient.builder()
-                    .region(Region.of(region))
-                    .build();
-        }
+    @Value("${aws.async.event-loop-threads:4}")
+    private int eventLoopThreads;
+
+    @Value("${aws.async.max-concurrency:100}")
+    private int maxConcurrency;
 
-        return CloudWatchClient.builder()
+    // One Netty event loop and connection pool shared by every async AWS client
+    @Bean(destroyMethod = "close")
+    public SdkAsyncHttpClient awsAsyncHttpClient() {
+        return NettyNioAsyncHttpClient.builder()
+                .eventLoopGroup(SdkEventLoopGroup.builder()
+                        .numberOfThreads(eventLoopThreads)
+                        .build())
+                .maxConcurrency(maxConcurrency)
+                .build();
+    }
+
+    @Bean
+    public CloudWatchAsyncClient cloudWatchAsyncClient(SdkAsyncHttpClient awsAsyncHttpClient) {
+        return CloudWatchAsyncClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKeyId, secretAccessKey)))
+                .credentialsProvider(credentialsProvider())
+                .httpClient(awsAsyncHttpClient)
                 .build();
     }
 
     @Bean
-    public CostExplorerClient costExplorerClient() {
+    public CostExplorerAsyncClient costExplorerAsyncClient(SdkAsyncHttpClient awsAsyncHttpClient) {
+        return CostExplorerAsyncClient.builder()
+                .region(Region.US_EAST_1) // Cost Explorer is only available in us-east-1
+                .credentialsProvider(credentialsProvider())
+                .httpClient(awsAsyncHttpClient)
+                .build();
+    }
+
+    private AwsCredentialsProvider credentialsProvider() {
         if (accessKeyId.isEmpty() || secretAccessKey.isEmpty()) {
             // Use default credential provider chain
-            return CostExplorerClient.builder()
-                    .region(Region.US_EAST_1) // Cost Explorer is only available in us-east-1
-                    .build();
+            return DefaultCredentialsProvider.create();
         }
-
-        return CostExplorerClient.builder()
-                .region(Region.US_EAST_1) // Cost Explorer is only available in us-east-1
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKeyId, secretAccessKey)))
-                .build();
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKeyId, secretAccessKey));
     }
 }
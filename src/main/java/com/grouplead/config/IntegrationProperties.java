@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "integrations")
@@ -21,6 +23,9 @@ public class IntegrationProperties {
         private String email;
         private String projectKeys;
         private String boardId;
+        private int pageSize = 100;
+        private int searchConcurrency = 4;
+        private String webhookSecret;
     }
 
     @Data
@@ -36,6 +41,11 @@ public class IntegrationProperties {
         private String baseUrl;
         private String privateToken;
         private String projectIds;
+        private int projectConcurrency = 2;
+        private int detailConcurrency = 8;
+        private int rateLimitThreshold = 10;
+        private int maxRateLimitRetries = 3;
+        private String webhookSecret;
     }
 
     @Data
@@ -44,10 +54,30 @@ public class IntegrationProperties {
         private String accessKey;
         private String secretKey;
         private CloudWatchConfig cloudwatch = new CloudWatchConfig();
+        private CollectionConfig collection = new CollectionConfig();
+        private CostConfig cost = new CostConfig();
 
         @Data
         public static class CloudWatchConfig {
             private String namespaces;
+            // CloudWatch keeps filling a bucket after it closes; the checkpoint stays this far plus one period behind
+            private Duration settleLag = Duration.ofMinutes(10);
+        }
+
+        // Concurrent requests allowed per AWS API, shared by every collection run
+        @Data
+        public static class CollectionConfig {
+            private int cloudwatchPermits = 10;
+            private int costExplorerPermits = 2;
+            private Duration runDeadline = Duration.ofMinutes(4);
+            private Duration cancelGrace = Duration.ofSeconds(10);
+        }
+
+        // Team costs come from this cost allocation tag; its value is matched to the team
+        @Data
+        public static class CostConfig {
+            private String teamTag = "team";
+            private Duration cacheTtl = Duration.ofHours(6);
         }
     }
 }
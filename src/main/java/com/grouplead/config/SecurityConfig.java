@@ -40,6 +40,7 @@ public class SecurityConfig {
 
     private static final String[] PUBLIC_ENDPOINTS = {
             "/auth/**",
+            "/webhooks/**",
             "/actuator/health/**",
             "/actuator/info",
             "/swagger-ui/**",
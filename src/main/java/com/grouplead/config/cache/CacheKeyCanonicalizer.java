@@ -0,0 +1,33 @@
+package com.grouplead.config.cache;
+
+import com.grouplead.domain.vo.DateRange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Used from @Cacheable keys as @cacheKeys. Ranges built from now() differ on every call; snapping both ends down
+// to the bucket lets every request within one bucket share an entry. Whole-day ranges are unaffected.
+@Component("cacheKeys")
+public class CacheKeyCanonicalizer {
+
+    private final long bucketSeconds;
+
+    public CacheKeyCanonicalizer(@Value("${cache.key-bucket:1m}") Duration bucket) {
+        if (bucket.getSeconds() < 1) {
+            throw new IllegalArgumentException("cache.key-bucket must be at least one second");
+        }
+        this.bucketSeconds = bucket.getSeconds();
+    }
+
+    public String range(DateRange range) {
+        return snap(range.start()) + "/" + snap(range.end());
+    }
+
+    public LocalDateTime snap(LocalDateTime value) {
+        long epochSeconds = value.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSeconds, bucketSeconds) * bucketSeconds, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,143 @@
+package com.grouplead.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+// A per-pod Caffeine copy in front of the shared Redis cache. Reads fall through to Redis on a local miss;
+// writes go to Redis first and then tell the other pods to drop their local copy.
+class TwoTierCache implements Cache {
+
+    private final Cache redis;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final TwoTierCacheManager manager;
+
+    TwoTierCache(Cache redis, Duration localTtl, long localMaximumSize, TwoTierCacheManager manager) {
+        this.redis = redis;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return redis.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redis.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object cached = local.getIfPresent(localKey(key));
+        if (cached != null) {
+            return new SimpleValueWrapper(cached);
+        }
+
+        ValueWrapper wrapper = redis.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(localKey(key), wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    // A load only fills a key Redis did not have, so no other pod can hold a copy to invalidate
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = local.getIfPresent(localKey(key));
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        T value = redis.get(key, valueLoader);
+        if (value != null) {
+            local.put(localKey(key), value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redis.put(key, value);
+        if (value != null) {
+            local.put(localKey(key), value);
+        }
+        manager.publishEviction(getName(), localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = redis.putIfAbsent(key, value);
+        if (existing == null) {
+            if (value != null) {
+                local.put(localKey(key), value);
+            }
+            manager.publishEviction(getName(), localKey(key));
+        } else if (existing.get() != null) {
+            local.put(localKey(key), existing.get());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        redis.evict(key);
+        local.invalidate(localKey(key));
+        manager.publishEviction(getName(), localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = redis.evictIfPresent(key);
+        local.invalidate(localKey(key));
+        manager.publishEviction(getName(), localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        redis.clear();
+        local.invalidateAll();
+        manager.publishEviction(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = redis.invalidate();
+        local.invalidateAll();
+        manager.publishEviction(getName(), null);
+        return invalidated;
+    }
+
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    // Redis stores keys as strings too, so two keys that collide there also share a local entry
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,78 @@
+package com.grouplead.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Wraps every Redis cache in a TwoTierCache and keeps the pods' local copies coherent over Redis pub/sub.
+// A message missed while a pod is disconnected leaves its copy stale for at most the local TTL.
+@Slf4j
+public class TwoTierCacheManager implements CacheManager {
+
+    public static final String INVALIDATION_CHANNEL = "grouplead:cache-invalidation";
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration localTtl;
+    private final long localMaximumSize;
+
+    // Lets a pod skip its own messages; its local copy was already updated by the write
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(RedisCacheManager redisCacheManager, StringRedisTemplate redisTemplate,
+                               Duration localTtl, long localMaximumSize) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.localTtl = localTtl;
+        this.localMaximumSize = localMaximumSize;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache redis = redisCacheManager.getCache(cacheName);
+            return redis != null ? new TwoTierCache(redis, localTtl, localMaximumSize, this) : null;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    // Message is "<instance>\n<cache>" to clear a whole cache, or "<instance>\n<cache>\n<key>" for one key
+    void publishEviction(String cacheName, String key) {
+        String message = instanceId + "\n" + cacheName + (key != null ? "\n" + key : "");
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            log.warn("Could not publish cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    public void onInvalidation(String message) {
+        String[] parts = message.split("\n", 3);
+        if (parts.length < 2 || parts[0].equals(instanceId)) {
+            return;
+        }
+
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length == 3) {
+            cache.evictLocal(parts[2]);
+        } else {
+            cache.clearLocal();
+        }
+    }
+}
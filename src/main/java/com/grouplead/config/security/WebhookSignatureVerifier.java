@@ -0,0 +1,60 @@
+package com.grouplead.config.security;
+
+import com.grouplead.config.IntegrationProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+// Webhooks are unauthenticated requests, so an unset secret rejects everything
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookSignatureVerifier {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String SIGNATURE_PREFIX = "sha256=";
+
+    private final IntegrationProperties properties;
+
+    // GitLab echoes the configured secret token in X-Gitlab-Token
+    public boolean verifyGitLab(String token) {
+        String secret = properties.getGitlab().getWebhookSecret();
+        if (isBlank(secret) || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Jira signs the raw body with HMAC-SHA256 in X-Hub-Signature: sha256=<hex>
+    public boolean verifyJira(String body, String signature) {
+        String secret = properties.getJira().getWebhookSecret();
+        if (isBlank(secret) || signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+            return false;
+        }
+
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            byte[] expected = mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
+            byte[] actual = HexFormat.of().parseHex(signature.substring(SIGNATURE_PREFIX.length()));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (Exception e) {
+            log.error("Error verifying JIRA webhook signature", e);
+            return false;
+        }
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -49,10 +49,11 @@ public class DashboardController {
     @Operation(summary = "Get DORA metrics")
     public ResponseEntity<DoraMetricsResponse> getDoraMetrics(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long teamId) {
 
         DateRange dateRange = DateRange.of(startDate, endDate);
-        var metrics = doraMetricsService.calculateMetrics(dateRange);
+        var metrics = doraMetricsService.calculateMetrics(dateRange, teamId);
 
         return ResponseEntity.ok(DoraMetricsResponse.from(metrics));
     }
@@ -3,6 +3,7 @@ package com.grouplead.controller;
 import com.grouplead.integration.aws.dto.CostData;
 import com.grouplead.integration.aws.dto.CostForecast;
 import com.grouplead.service.collector.CloudWatchCollectorService;
+import com.grouplead.service.processor.CostQueryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/infrastructure")
@@ -21,12 +23,13 @@ import java.util.List;
 public class InfrastructureController {
 
     private final CloudWatchCollectorService cloudWatchCollectorService;
+    private final CostQueryService costQueryService;
 
     // ==================== EC2 Metrics ====================
 
     @PostMapping("/collect/ec2/{instanceId}")
     @Operation(summary = "Collect EC2 metrics for an instance")
-    public ResponseEntity<CollectionResponse> collectEC2Metrics(
+    public CompletableFuture<ResponseEntity<CollectionResponse>> collectEC2Metrics(
             @PathVariable String instanceId,
             @RequestParam Long teamId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
@@ -35,15 +38,16 @@ public class InfrastructureController {
             since = LocalDateTime.now().minusHours(1);
         }
 
-        var result = cloudWatchCollectorService.collectEC2Metrics(instanceId, teamId, since);
-        return ResponseEntity.ok(new CollectionResponse(result.collected(), result.errors(), "EC2 metrics collected"));
+        return cloudWatchCollectorService.collectEC2Metrics(instanceId, teamId, since)
+                .thenApply(result -> ResponseEntity.ok(
+                        new CollectionResponse(result.collected(), result.errors(), "EC2 metrics collected")));
     }
 
     // ==================== RDS Metrics ====================
 
     @PostMapping("/collect/rds/{dbInstanceId}")
     @Operation(summary = "Collect RDS metrics for a database instance")
-    public ResponseEntity<CollectionResponse> collectRDSMetrics(
+    public CompletableFuture<ResponseEntity<CollectionResponse>> collectRDSMetrics(
             @PathVariable String dbInstanceId,
             @RequestParam Long teamId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
@@ -52,15 +56,16 @@ public class InfrastructureController {
             since = LocalDateTime.now().minusHours(1);
         }
 
-        var result = cloudWatchCollectorService.collectRDSMetrics(dbInstanceId, teamId, since);
-        return ResponseEntity.ok(new CollectionResponse(result.collected(), result.errors(), "RDS metrics collected"));
+        return cloudWatchCollectorService.collectRDSMetrics(dbInstanceId, teamId, since)
+                .thenApply(result -> ResponseEntity.ok(
+                        new CollectionResponse(result.collected(), result.errors(), "RDS metrics collected")));
     }
 
     // ==================== ECS Metrics ====================
 
     @PostMapping("/collect/ecs/{clusterName}/{serviceName}")
     @Operation(summary = "Collect ECS metrics for a service")
-    public ResponseEntity<CollectionResponse> collectECSMetrics(
+    public CompletableFuture<ResponseEntity<CollectionResponse>> collectECSMetrics(
             @PathVariable String clusterName,
             @PathVariable String serviceName,
             @RequestParam Long teamId,
@@ -70,15 +75,16 @@ public class InfrastructureController {
             since = LocalDateTime.now().minusHours(1);
         }
 
-        var result = cloudWatchCollectorService.collectECSMetrics(clusterName, serviceName, teamId, since);
-        return ResponseEntity.ok(new CollectionResponse(result.collected(), result.errors(), "ECS metrics collected"));
+        return cloudWatchCollectorService.collectECSMetrics(clusterName, serviceName, teamId, since)
+                .thenApply(result -> ResponseEntity.ok(
+                        new CollectionResponse(result.collected(), result.errors(), "ECS metrics collected")));
     }
 
     // ==================== Lambda Metrics ====================
 
     @PostMapping("/collect/lambda/{functionName}")
     @Operation(summary = "Collect Lambda metrics for a function")
-    public ResponseEntity<CollectionResponse> collectLambdaMetrics(
+    public CompletableFuture<ResponseEntity<CollectionResponse>> collectLambdaMetrics(
             @PathVariable String functionName,
             @RequestParam Long teamId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
@@ -87,8 +93,9 @@ public class InfrastructureController {
             since = LocalDateTime.now().minusHours(1);
         }
 
-        var result = cloudWatchCollectorService.collectLambdaMetrics(functionName, teamId, since);
-        return ResponseEntity.ok(new CollectionResponse(result.collected(), result.errors(), "Lambda metrics collected"));
+        return cloudWatchCollectorService.collectLambdaMetrics(functionName, teamId, since)
+                .thenApply(result -> ResponseEntity.ok(
+                        new CollectionResponse(result.collected(), result.errors(), "Lambda metrics collected")));
     }
 
     // ==================== Cost Metrics ====================
@@ -110,17 +117,32 @@ public class InfrastructureController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        return ResponseEntity.ok(cloudWatchCollectorService.getCostForecast(startDate, endDate));
+        return ResponseEntity.ok(costQueryService.getForecast(startDate, endDate));
     }
 
     @GetMapping("/cost/top-resources")
-    @Operation(summary = "Get top cost resources")
+    @Operation(summary = "Get top cost services")
     public ResponseEntity<List<CostData.ResourceCost>> getTopCostResources(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(defaultValue = "10") int limit) {
 
-        return ResponseEntity.ok(cloudWatchCollectorService.getTopCostResources(startDate, endDate, limit));
+        return ResponseEntity.ok(costQueryService.getTopServices(startDate, endDate, limit));
+    }
+
+    @GetMapping("/cost/trend")
+    @Operation(summary = "Get daily AWS cost trend")
+    public ResponseEntity<List<CostData.DailyCost>> getCostTrend(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        return ResponseEntity.ok(costQueryService.getDailyTrend(startDate, endDate));
+    }
+
+    @GetMapping("/cost/month-to-date")
+    @Operation(summary = "Get month-to-date AWS cost")
+    public ResponseEntity<CostData> getMonthToDateCost() {
+        return ResponseEntity.ok(costQueryService.getMonthToDate());
     }
 
     // ==================== Response DTOs ====================
@@ -9,6 +9,7 @@ import com.grouplead.dto.response.TimeSeriesResponse;
 import com.grouplead.dto.response.VelocityResponse;
 import com.grouplead.service.core.DeveloperService;
 import com.grouplead.service.processor.MetricsProcessorService;
+import com.grouplead.util.Downsampler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -61,8 +62,13 @@ public class MetricsController {
             @RequestParam MetricType metricType,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(defaultValue = "DAILY") String granularity) {
+            @RequestParam(defaultValue = "DAILY") String granularity,
+            @RequestParam(required = false) Integer maxPoints) {
 
-        return ResponseEntity.ok(metricsService.getTimeSeries(metricType, startDate, endDate, granularity));
+        // Rejected before the range is loaded
+        if (maxPoints != null && maxPoints < Downsampler.MIN_POINTS) {
+            throw new IllegalArgumentException("maxPoints must be at least " + Downsampler.MIN_POINTS);
+        }
+        return ResponseEntity.ok(metricsService.getTimeSeries(metricType, startDate, endDate, granularity, maxPoints));
     }
 }
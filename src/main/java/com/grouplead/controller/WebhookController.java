@@ -0,0 +1,64 @@
+package com.grouplead.controller;
+
+import com.grouplead.config.security.WebhookSignatureVerifier;
+import com.grouplead.service.collector.WebhookIngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/webhooks")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Webhooks", description = "Inbound GitLab and JIRA events")
+public class WebhookController {
+
+    private final WebhookSignatureVerifier signatureVerifier;
+    private final WebhookIngestionService webhookIngestionService;
+
+    @PostMapping("/gitlab")
+    @Operation(summary = "Receive a GitLab push, merge request, pipeline or deployment event")
+    public ResponseEntity<Void> receiveGitLabEvent(
+            @RequestHeader(value = "X-Gitlab-Token", required = false) String token,
+            @RequestHeader(value = "X-Gitlab-Event", required = false) String eventType,
+            @RequestBody String payload) {
+
+        if (!signatureVerifier.verifyGitLab(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (eventType == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return enqueue(() -> webhookIngestionService.processGitLabEvent(eventType, payload));
+    }
+
+    @PostMapping("/jira")
+    @Operation(summary = "Receive a JIRA issue event")
+    public ResponseEntity<Void> receiveJiraEvent(
+            @RequestHeader(value = "X-Hub-Signature", required = false) String signature,
+            @RequestBody String payload) {
+
+        if (!signatureVerifier.verifyJira(payload, signature)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return enqueue(() -> webhookIngestionService.processJiraEvent(payload));
+    }
+
+    // Acknowledge as soon as the event is queued; processing happens asynchronously
+    private ResponseEntity<Void> enqueue(Runnable task) {
+        try {
+            task.run();
+            return ResponseEntity.accepted().build();
+        } catch (TaskRejectedException e) {
+            log.warn("Webhook queue is full, rejecting event");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
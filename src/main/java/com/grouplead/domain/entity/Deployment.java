@@ -22,6 +22,12 @@ public class Deployment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(name = "external_id")
+    private String externalId;
+
+    @Column(name = "project_id")
+    private String projectId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "merge_request_id")
     private MergeRequest mergeRequest;
@@ -43,6 +49,9 @@ public class Deployment {
     @Column(name = "deployed_at", nullable = false)
     private LocalDateTime deployedAt;
 
+    @Column(name = "external_updated_at")
+    private LocalDateTime externalUpdatedAt;
+
     @OneToMany(mappedBy = "deployment", cascade = CascadeType.ALL)
     @Builder.Default
     private List<Incident> incidents = new ArrayList<>();
@@ -81,6 +81,9 @@ public class MergeRequest {
     @Column(name = "closed_at")
     private LocalDateTime closedAt;
 
+    @Column(name = "external_updated_at")
+    private LocalDateTime externalUpdatedAt;
+
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
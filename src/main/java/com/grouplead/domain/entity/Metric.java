@@ -50,10 +50,9 @@ public class Metric {
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
-    @ElementCollection
-    @CollectionTable(name = "metric_tags", joinColumns = @JoinColumn(name = "metric_id"))
-    @MapKeyColumn(name = "tag_key")
-    @Column(name = "tag_value")
+    // Not mapped: metric_tags rows need metric_timestamp for partition routing, which only MetricWriter sets,
+    // so tags are written by MetricWriter and read with SQL
+    @Transient
     @Builder.Default
     private Map<String, String> tags = new HashMap<>();
 
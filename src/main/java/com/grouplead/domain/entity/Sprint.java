@@ -48,6 +48,12 @@ public class Sprint {
     @Builder.Default
     private SprintStatus status = SprintStatus.PLANNED;
 
+    @Column(name = "committed_points")
+    private Integer committedPoints;
+
+    @Column(name = "completed_points")
+    private Integer completedPoints;
+
     @OneToMany(mappedBy = "sprint", cascade = CascadeType.ALL)
     @Builder.Default
     private List<Ticket> tickets = new ArrayList<>();
@@ -0,0 +1,39 @@
+package com.grouplead.domain.entity;
+
+import com.grouplead.domain.enums.SyncSource;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "sync_checkpoint", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"source", "scope_key"})
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private SyncSource source;
+
+    // Jira project key, GitLab project id or CloudWatch resource
+    @Column(name = "scope_key", nullable = false)
+    private String scopeKey;
+
+    @Column(name = "high_water_mark", nullable = false)
+    private LocalDateTime highWaterMark;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -13,6 +13,14 @@ public enum MetricType {
     ERROR_RATE,
     REQUEST_COUNT,
 
+    // Written by the CloudWatch collector, which maps metrics by name
+    CPU_UTILIZATION,
+    MEMORY_UTILIZATION,
+    NETWORK_THROUGHPUT,
+    LATENCY,
+    DATABASE_CONNECTIONS,
+    CUSTOM,
+
     // DORA metrics
     DEPLOYMENT_FREQUENCY,
     LEAD_TIME_FOR_CHANGES,
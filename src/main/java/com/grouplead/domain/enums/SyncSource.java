@@ -0,0 +1,8 @@
+package com.grouplead.domain.enums;
+
+public enum SyncSource {
+    JIRA_TICKETS,
+    GITLAB_COMMITS,
+    GITLAB_MERGE_REQUESTS,
+    CLOUDWATCH
+}
@@ -0,0 +1,34 @@
+package com.grouplead.domain.enums;
+
+import java.util.Locale;
+
+// Bucket size for time series; RAW returns every stored datapoint
+public enum TimeGranularity {
+    RAW(null),
+    HOURLY("hour"),
+    DAILY("day"),
+    WEEKLY("week"),
+    MONTHLY("month");
+
+    private final String truncUnit;
+
+    TimeGranularity(String truncUnit) {
+        this.truncUnit = truncUnit;
+    }
+
+    // PostgreSQL date_trunc field for this bucket size
+    public String truncUnit() {
+        return truncUnit;
+    }
+
+    public static TimeGranularity parse(String value) {
+        if (value == null || value.isBlank()) {
+            return DAILY;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported granularity: " + value);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.grouplead.domain.event;
+
+// Published whenever a developer's email or external ids may have changed
+public record DeveloperChangedEvent(Long developerId) {}
@@ -0,0 +1,7 @@
+package com.grouplead.domain.event;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// Published whenever deployments, merge requests or incidents on these UTC days may have changed
+public record DoraDataChangedEvent(Set<LocalDate> days) {}
@@ -0,0 +1,8 @@
+package com.grouplead.domain.vo;
+
+import java.time.LocalDateTime;
+
+public record MetricPoint(
+        LocalDateTime timestamp,
+        double value
+) {}
@@ -0,0 +1,18 @@
+package com.grouplead.domain.vo;
+
+import com.grouplead.domain.enums.MetricType;
+
+// Identifies one metric_series row: a single metric of a single resource, per team
+public record MetricSeriesKey(
+        Long teamId,
+        MetricType type,
+        String namespace,
+        String metricName,
+        String resourceId,
+        String dimensionName,
+        String dimensionValue
+) {
+    public String key() {
+        return (teamId != null ? teamId : "-") + "|" + namespace + "|" + metricName + "|" + resourceId;
+    }
+}
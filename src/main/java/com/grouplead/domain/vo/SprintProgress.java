@@ -0,0 +1,23 @@
+package com.grouplead.domain.vo;
+
+// Live progress of one sprint, read from its sprint_stats counters
+public record SprintProgress(
+        String sprintId,
+        String sprintName,
+        int totalTickets,
+        int completedTickets,
+        int inProgressTickets,
+        int todoTickets,
+        int blockedTickets,
+        int totalStoryPoints,
+        int completedStoryPoints,
+        Double averageCycleTime,
+        int daysRemaining,
+        double completionRate,
+        double velocityTrend
+) {
+    public double getProgress() {
+        if (totalStoryPoints == 0) return 0.0;
+        return (double) completedStoryPoints / totalStoryPoints * 100;
+    }
+}
@@ -0,0 +1,54 @@
+package com.grouplead.domain.vo;
+
+import com.grouplead.domain.enums.SprintStatus;
+import com.grouplead.domain.enums.TicketStatus;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// A sprint with its tickets reduced to a count and story point sum per status
+public record SprintTicketStats(
+        Long sprintId,
+        String externalId,
+        String name,
+        SprintStatus status,
+        LocalDate startDate,
+        LocalDate endDate,
+        Integer committedPoints,
+        Map<TicketStatus, StatusTotals> byStatus
+) {
+    // Cycle times only cover tickets with both a start and a completion time
+    public record StatusTotals(int tickets, int points, int cycleTimeCount, long cycleTimeSumHours) {}
+
+    public int tickets(TicketStatus... statuses) {
+        int total = 0;
+        for (TicketStatus status : statuses) {
+            StatusTotals totals = byStatus.get(status);
+            total += totals != null ? totals.tickets() : 0;
+        }
+        return total;
+    }
+
+    public int points(TicketStatus... statuses) {
+        int total = 0;
+        for (TicketStatus status : statuses) {
+            StatusTotals totals = byStatus.get(status);
+            total += totals != null ? totals.points() : 0;
+        }
+        return total;
+    }
+
+    public int totalTickets() {
+        return byStatus.values().stream().mapToInt(StatusTotals::tickets).sum();
+    }
+
+    public int totalPoints() {
+        return byStatus.values().stream().mapToInt(StatusTotals::points).sum();
+    }
+
+    public double averageCycleTimeHours() {
+        long count = byStatus.values().stream().mapToLong(StatusTotals::cycleTimeCount).sum();
+        long sum = byStatus.values().stream().mapToLong(StatusTotals::cycleTimeSumHours).sum();
+        return count > 0 ? (double) sum / count : 0.0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.grouplead.dto.response;
 
+import com.grouplead.domain.entity.Alert;
 import com.grouplead.domain.enums.AlertSeverity;
 import com.grouplead.domain.enums.AlertType;
 import lombok.AllArgsConstructor;
@@ -30,4 +31,24 @@ public class AlertResponse {
     private LocalDateTime createdAt;
     private LocalDateTime acknowledgedAt;
     private LocalDateTime resolvedAt;
+
+    public static AlertResponse from(Alert alert) {
+        return AlertResponse.builder()
+                .id(alert.getId())
+                .teamId(alert.getTeam() != null ? alert.getTeam().getId() : null)
+                .teamName(alert.getTeam() != null ? alert.getTeam().getName() : null)
+                .type(alert.getType())
+                .severity(alert.getSeverity())
+                .title(alert.getTitle())
+                .message(alert.getMessage())
+                .source(alert.getSource())
+                .metadata(alert.getMetadata())
+                .resolved(alert.isResolved())
+                .acknowledged(alert.isAcknowledged())
+                .resolution(alert.getResolution())
+                .createdAt(alert.getCreatedAt())
+                .acknowledgedAt(alert.getAcknowledgedAt())
+                .resolvedAt(alert.getResolvedAt())
+                .build();
+    }
 }
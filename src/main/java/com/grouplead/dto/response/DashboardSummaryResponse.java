@@ -16,7 +16,9 @@ public record DashboardSummaryResponse(
         int currentVelocity,
         InfrastructureMetricsResponse infrastructure,
         List<AlertResponse> recentAlerts,
-        List<AIInsightSummary> aiInsights
+        List<AIInsightSummary> aiInsights,
+        // Widgets that failed or timed out and were left empty
+        List<String> unavailableWidgets
 ) {
     public record VelocityDataPoint(
             String sprint,
@@ -1,298 +1,139 @@
 package com.grouplead.integration.aws;
 
-import com.grouplead.config.IntegrationProperties;
 import com.grouplead.exception.IntegrationException;
-import com.grouplead.integration.aws.dto.CloudWatchMetric;
 import com.grouplead.integration.aws.dto.CloudWatchMetricDataResult;
+import com.grouplead.integration.aws.dto.CloudWatchMetricQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import software.amazon.awssdk.services.cloudwatch.CloudWatchClient;
+import software.amazon.awssdk.services.cloudwatch.CloudWatchAsyncClient;
 import software.amazon.awssdk.services.cloudwatch.model.*;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
 public class CloudWatchMetricsClient {
 
     private static final Logger log = LoggerFactory.getLogger(CloudWatchMetricsClient.class);
 
-    private final CloudWatchClient cloudWatchClient;
-    private final IntegrationProperties integrationProperties;
+    // GetMetricData hard limit
+    public static final int MAX_QUERIES_PER_REQUEST = 500;
 
-    public CloudWatchMetricsClient(CloudWatchClient cloudWatchClient,
-                                   IntegrationProperties integrationProperties) {
-        this.cloudWatchClient = cloudWatchClient;
-        this.integrationProperties = integrationProperties;
-    }
-
-    public List<CloudWatchMetric> getEC2Metrics(String instanceId, LocalDateTime start, LocalDateTime end) {
-        List<CloudWatchMetric> metrics = new ArrayList<>();
-
-        try {
-            metrics.add(getMetric("AWS/EC2", "CPUUtilization", instanceId, "InstanceId", start, end));
-            metrics.add(getMetric("AWS/EC2", "NetworkIn", instanceId, "InstanceId", start, end));
-            metrics.add(getMetric("AWS/EC2", "NetworkOut", instanceId, "InstanceId", start, end));
-            metrics.add(getMetric("AWS/EC2", "DiskReadBytes", instanceId, "InstanceId", start, end));
-            metrics.add(getMetric("AWS/EC2", "DiskWriteBytes", instanceId, "InstanceId", start, end));
-        } catch (CloudWatchException e) {
-            log.error("Error fetching EC2 metrics for instance {}: {}", instanceId, e.getMessage());
-            throw new IntegrationException("CloudWatch", "Failed to fetch EC2 metrics", e);
-        }
-
-        return metrics;
-    }
-
-    public List<CloudWatchMetric> getRDSMetrics(String dbInstanceId, LocalDateTime start, LocalDateTime end) {
-        List<CloudWatchMetric> metrics = new ArrayList<>();
-
-        try {
-            metrics.add(getMetric("AWS/RDS", "CPUUtilization", dbInstanceId, "DBInstanceIdentifier", start, end));
-            metrics.add(getMetric("AWS/RDS", "DatabaseConnections", dbInstanceId, "DBInstanceIdentifier", start, end));
-            metrics.add(getMetric("AWS/RDS", "FreeableMemory", dbInstanceId, "DBInstanceIdentifier", start, end));
-            metrics.add(getMetric("AWS/RDS", "ReadIOPS", dbInstanceId, "DBInstanceIdentifier", start, end));
-            metrics.add(getMetric("AWS/RDS", "WriteIOPS", dbInstanceId, "DBInstanceIdentifier", start, end));
-            metrics.add(getMetric("AWS/RDS", "FreeStorageSpace", dbInstanceId, "DBInstanceIdentifier", start, end));
-        } catch (CloudWatchException e) {
-            log.error("Error fetching RDS metrics for instance {}: {}", dbInstanceId, e.getMessage());
-            throw new IntegrationException("CloudWatch", "Failed to fetch RDS metrics", e);
-        }
-
-        return metrics;
-    }
-
-    public List<CloudWatchMetric> getECSMetrics(String clusterName, String serviceName,
-                                                 LocalDateTime start, LocalDateTime end) {
-        List<CloudWatchMetric> metrics = new ArrayList<>();
+    private final CloudWatchAsyncClient cloudWatchAsyncClient;
 
-        try {
-            GetMetricDataRequest request = GetMetricDataRequest.builder()
-                    .startTime(toInstant(start))
-                    .endTime(toInstant(end))
-                    .metricDataQueries(
-                            buildMetricQuery("cpu", "AWS/ECS", "CPUUtilization",
-                                    List.of(
-                                            Dimension.builder().name("ClusterName").value(clusterName).build(),
-                                            Dimension.builder().name("ServiceName").value(serviceName).build()
-                                    )),
-                            buildMetricQuery("memory", "AWS/ECS", "MemoryUtilization",
-                                    List.of(
-                                            Dimension.builder().name("ClusterName").value(clusterName).build(),
-                                            Dimension.builder().name("ServiceName").value(serviceName).build()
-                                    ))
-                    )
-                    .build();
-
-            GetMetricDataResponse response = cloudWatchClient.getMetricData(request);
-
-            for (MetricDataResult result : response.metricDataResults()) {
-                metrics.add(mapToCloudWatchMetric(result, "AWS/ECS", serviceName));
-            }
-        } catch (CloudWatchException e) {
-            log.error("Error fetching ECS metrics for service {}: {}", serviceName, e.getMessage());
-            throw new IntegrationException("CloudWatch", "Failed to fetch ECS metrics", e);
-        }
-
-        return metrics;
-    }
-
-    public List<CloudWatchMetric> getLambdaMetrics(String functionName, LocalDateTime start, LocalDateTime end) {
-        List<CloudWatchMetric> metrics = new ArrayList<>();
-
-        try {
-            metrics.add(getMetric("AWS/Lambda", "Invocations", functionName, "FunctionName", start, end));
-            metrics.add(getMetric("AWS/Lambda", "Duration", functionName, "FunctionName", start, end));
-            metrics.add(getMetric("AWS/Lambda", "Errors", functionName, "FunctionName", start, end));
-            metrics.add(getMetric("AWS/Lambda", "Throttles", functionName, "FunctionName", start, end));
-            metrics.add(getMetric("AWS/Lambda", "ConcurrentExecutions", functionName, "FunctionName", start, end));
-        } catch (CloudWatchException e) {
-            log.error("Error fetching Lambda metrics for function {}: {}", functionName, e.getMessage());
-            throw new IntegrationException("CloudWatch", "Failed to fetch Lambda metrics", e);
-        }
-
-        return metrics;
+    public CloudWatchMetricsClient(CloudWatchAsyncClient cloudWatchAsyncClient) {
+        this.cloudWatchAsyncClient = cloudWatchAsyncClient;
     }
 
-    public List<CloudWatchMetric> getALBMetrics(String loadBalancerArn, LocalDateTime start, LocalDateTime end) {
-        List<CloudWatchMetric> metrics = new ArrayList<>();
-        String loadBalancer = extractLoadBalancerName(loadBalancerArn);
-
-        try {
-            metrics.add(getMetric("AWS/ApplicationELB", "RequestCount", loadBalancer, "LoadBalancer", start, end));
-            metrics.add(getMetric("AWS/ApplicationELB", "TargetResponseTime", loadBalancer, "LoadBalancer", start, end));
-            metrics.add(getMetric("AWS/ApplicationELB", "HTTPCode_Target_2XX_Count", loadBalancer, "LoadBalancer", start, end));
-            metrics.add(getMetric("AWS/ApplicationELB", "HTTPCode_Target_4XX_Count", loadBalancer, "LoadBalancer", start, end));
-            metrics.add(getMetric("AWS/ApplicationELB", "HTTPCode_Target_5XX_Count", loadBalancer, "LoadBalancer", start, end));
-        } catch (CloudWatchException e) {
-            log.error("Error fetching ALB metrics for {}: {}", loadBalancer, e.getMessage());
-            throw new IntegrationException("CloudWatch", "Failed to fetch ALB metrics", e);
+    // Runs any number of queries in GetMetricData calls of at most 500 queries each, following NextToken.
+    // Request batches run concurrently on the shared event loop; no thread waits on AWS. Callers hold an
+    // AwsCollectionExecutor CLOUDWATCH permit until the future completes.
+    public CompletableFuture<Map<String, CloudWatchMetricDataResult>> getMetricDataAsync(
+            List<CloudWatchMetricQuery> queries, LocalDateTime start, LocalDateTime end) {
+        List<CompletableFuture<Map<String, CloudWatchMetricDataResult>>> batches = new ArrayList<>();
+
+        for (int from = 0; from < queries.size(); from += MAX_QUERIES_PER_REQUEST) {
+            List<CloudWatchMetricQuery> batch = queries.subList(from,
+                    Math.min(from + MAX_QUERIES_PER_REQUEST, queries.size()));
+            batches.add(fetchMetricDataBatch(batch, start, end));
         }
 
-        return metrics;
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    Map<String, CloudWatchMetricDataResult> results = new HashMap<>();
+                    batches.forEach(batch -> results.putAll(batch.join()));
+                    return results;
+                });
     }
 
-    public CloudWatchMetricDataResult getMetricStatistics(String namespace, String metricName,
-                                                           String dimensionName, String dimensionValue,
-                                                           LocalDateTime start, LocalDateTime end,
-                                                           int periodSeconds, Statistic statistic) {
-        try {
-            GetMetricStatisticsRequest request = GetMetricStatisticsRequest.builder()
-                    .namespace(namespace)
-                    .metricName(metricName)
-                    .dimensions(Dimension.builder()
-                            .name(dimensionName)
-                            .value(dimensionValue)
-                            .build())
-                    .startTime(toInstant(start))
-                    .endTime(toInstant(end))
-                    .period(periodSeconds)
-                    .statistics(statistic)
-                    .build();
-
-            GetMetricStatisticsResponse response = cloudWatchClient.getMetricStatistics(request);
+    private CompletableFuture<Map<String, CloudWatchMetricDataResult>> fetchMetricDataBatch(
+            List<CloudWatchMetricQuery> batch, LocalDateTime start, LocalDateTime end) {
+        Map<String, CloudWatchMetricQuery> queriesById = new HashMap<>();
+        batch.forEach(query -> queriesById.put(query.getId(), query));
+        Map<String, CloudWatchMetricDataResult> results = new HashMap<>();
 
-            List<CloudWatchMetricDataResult.DataPoint> dataPoints = response.datapoints().stream()
-                    .map(dp -> CloudWatchMetricDataResult.DataPoint.builder()
-                            .timestamp(LocalDateTime.ofInstant(dp.timestamp(), ZoneOffset.UTC))
-                            .value(getStatisticValue(dp, statistic))
-                            .unit(dp.unitAsString())
-                            .build())
-                    .toList();
-
-            return CloudWatchMetricDataResult.builder()
-                    .namespace(namespace)
-                    .metricName(metricName)
-                    .dimensionName(dimensionName)
-                    .dimensionValue(dimensionValue)
-                    .dataPoints(dataPoints)
-                    .build();
-
-        } catch (CloudWatchException e) {
-            log.error("Error fetching metric statistics for {}/{}: {}", namespace, metricName, e.getMessage());
-            throw new IntegrationException("CloudWatch", "Failed to fetch metric statistics", e);
-        }
-    }
-
-    private CloudWatchMetric getMetric(String namespace, String metricName,
-                                        String dimensionValue, String dimensionName,
-                                        LocalDateTime start, LocalDateTime end) {
-        GetMetricStatisticsRequest request = GetMetricStatisticsRequest.builder()
-                .namespace(namespace)
-                .metricName(metricName)
-                .dimensions(Dimension.builder()
-                        .name(dimensionName)
-                        .value(dimensionValue)
-                        .build())
+        GetMetricDataRequest request = GetMetricDataRequest.builder()
                 .startTime(toInstant(start))
                 .endTime(toInstant(end))
-                .period(300) // 5 minutes
-                .statistics(Statistic.AVERAGE, Statistic.MAXIMUM, Statistic.MINIMUM)
+                .scanBy(ScanBy.TIMESTAMP_ASCENDING)
+                .metricDataQueries(batch.stream().map(this::toMetricDataQuery).toList())
                 .build();
 
-        GetMetricStatisticsResponse response = cloudWatchClient.getMetricStatistics(request);
-
-        double avgValue = response.datapoints().stream()
-                .mapToDouble(Datapoint::average)
-                .average()
-                .orElse(0.0);
-
-        double maxValue = response.datapoints().stream()
-                .mapToDouble(Datapoint::maximum)
-                .max()
-                .orElse(0.0);
-
-        double minValue = response.datapoints().stream()
-                .mapToDouble(Datapoint::minimum)
-                .min()
-                .orElse(0.0);
-
-        String unit = response.datapoints().isEmpty() ? "None" :
-                response.datapoints().get(0).unitAsString();
+        // Pages are delivered one at a time, so the map needs no locking
+        return cloudWatchAsyncClient.getMetricDataPaginator(request)
+                .subscribe(response -> mergeMetricData(results, response, queriesById))
+                .handle((done, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        log.error("Error fetching metric data batch of {} queries: {}", batch.size(), cause.getMessage());
+                        throw new IntegrationException("CloudWatch", "Failed to fetch metric data", cause);
+                    }
+                    return results;
+                });
+    }
 
-        return CloudWatchMetric.builder()
-                .namespace(namespace)
-                .metricName(metricName)
-                .dimensionName(dimensionName)
-                .dimensionValue(dimensionValue)
-                .averageValue(avgValue)
-                .maximumValue(maxValue)
-                .minimumValue(minValue)
-                .unit(unit)
-                .startTime(start)
-                .endTime(end)
-                .dataPointCount(response.datapoints().size())
-                .build();
+    private void mergeMetricData(Map<String, CloudWatchMetricDataResult> results, GetMetricDataResponse response,
+                                 Map<String, CloudWatchMetricQuery> queriesById) {
+        for (MetricDataResult result : response.metricDataResults()) {
+            // A query's datapoints can be split across pages
+            CloudWatchMetricDataResult merged = results.computeIfAbsent(result.id(),
+                    id -> newDataResult(id, queriesById.get(id)));
+            for (int i = 0; i < result.timestamps().size() && i < result.values().size(); i++) {
+                merged.getDataPoints().add(CloudWatchMetricDataResult.DataPoint.builder()
+                        .timestamp(LocalDateTime.ofInstant(result.timestamps().get(i), ZoneOffset.UTC))
+                        .value(result.values().get(i))
+                        .build());
+            }
+            // PartialData only means more pages follow; an error on any page sticks
+            boolean failed = result.statusCode() != StatusCode.COMPLETE
+                    && result.statusCode() != StatusCode.PARTIAL_DATA;
+            if (merged.getStatusCode() == null || failed
+                    || StatusCode.PARTIAL_DATA.toString().equals(merged.getStatusCode())) {
+                merged.setStatusCode(result.statusCodeAsString());
+            }
+        }
     }
 
-    private MetricDataQuery buildMetricQuery(String id, String namespace, String metricName,
-                                              List<Dimension> dimensions) {
+    private MetricDataQuery toMetricDataQuery(CloudWatchMetricQuery query) {
+        List<Dimension> dimensions = query.getDimensions().entrySet().stream()
+                .map(d -> Dimension.builder().name(d.getKey()).value(d.getValue()).build())
+                .toList();
+
         return MetricDataQuery.builder()
-                .id(id)
+                .id(query.getId())
                 .metricStat(MetricStat.builder()
                         .metric(Metric.builder()
-                                .namespace(namespace)
-                                .metricName(metricName)
+                                .namespace(query.getNamespace())
+                                .metricName(query.getMetricName())
                                 .dimensions(dimensions)
                                 .build())
-                        .period(300)
-                        .stat("Average")
+                        .period(query.getPeriodSeconds())
+                        .stat(query.getStat())
                         .build())
                 .returnData(true)
                 .build();
     }
 
-    private CloudWatchMetric mapToCloudWatchMetric(MetricDataResult result, String namespace, String resourceId) {
-        double avgValue = result.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
-
-        double maxValue = result.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .max()
-                .orElse(0.0);
-
-        double minValue = result.values().stream()
-                .mapToDouble(Double::doubleValue)
-                .min()
-                .orElse(0.0);
-
-        return CloudWatchMetric.builder()
-                .namespace(namespace)
-                .metricName(result.id())
-                .dimensionValue(resourceId)
-                .averageValue(avgValue)
-                .maximumValue(maxValue)
-                .minimumValue(minValue)
-                .dataPointCount(result.values().size())
+    private CloudWatchMetricDataResult newDataResult(String id, CloudWatchMetricQuery query) {
+        return CloudWatchMetricDataResult.builder()
+                .namespace(query != null ? query.getNamespace() : null)
+                .metricName(query != null ? query.getMetricName() : id)
+                .dimensionName(query != null ? String.join(",", query.getDimensions().keySet()) : null)
+                .dimensionValue(query != null ? String.join("/", query.getDimensions().values()) : null)
+                .dataPoints(new ArrayList<>())
                 .build();
     }
 
-    private double getStatisticValue(Datapoint datapoint, Statistic statistic) {
-        return switch (statistic) {
-            case AVERAGE -> datapoint.average();
-            case MAXIMUM -> datapoint.maximum();
-            case MINIMUM -> datapoint.minimum();
-            case SUM -> datapoint.sum();
-            case SAMPLE_COUNT -> datapoint.sampleCount();
-            default -> datapoint.average();
-        };
-    }
-
     private Instant toInstant(LocalDateTime dateTime) {
         return dateTime.toInstant(ZoneOffset.UTC);
     }
-
-    private String extractLoadBalancerName(String loadBalancerArn) {
-        // ARN format: arn:aws:elasticloadbalancing:region:account-id:loadbalancer/app/name/id
-        String[] parts = loadBalancerArn.split("/");
-        if (parts.length >= 3) {
-            return "app/" + parts[parts.length - 2] + "/" + parts[parts.length - 1];
-        }
-        return loadBalancerArn;
-    }
 }
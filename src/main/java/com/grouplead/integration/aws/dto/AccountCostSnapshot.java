@@ -0,0 +1,32 @@
+package com.grouplead.integration.aws.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// Everything the cost collectors need for one date range, fetched once for the whole account
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountCostSnapshot {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private CostData totalCost;
+    private String teamTag;
+    private Instant fetchedAt;
+
+    @Builder.Default
+    private Map<String, CostData> costByService = new HashMap<>();
+
+    // Keyed by tag value; untagged spend is not included
+    @Builder.Default
+    private Map<String, CostData> costByTeamTag = new HashMap<>();
+}
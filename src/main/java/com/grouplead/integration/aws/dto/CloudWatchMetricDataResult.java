@@ -19,6 +19,8 @@ public class CloudWatchMetricDataResult {
     private String dimensionName;
     private String dimensionValue;
     private List<DataPoint> dataPoints;
+    // GetMetricData status (Complete, PartialData, InternalError, Forbidden); null for GetMetricStatistics
+    private String statusCode;
 
     @Data
     @Builder
@@ -0,0 +1,32 @@
+package com.grouplead.integration.aws.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CloudWatchMetricQuery {
+
+    public static final int DEFAULT_PERIOD_SECONDS = 300;
+
+    // Must match ^[a-z][a-zA-Z0-9_]*$ and be unique within one batch
+    private String id;
+    private String namespace;
+    private String metricName;
+
+    @Builder.Default
+    private Map<String, String> dimensions = new LinkedHashMap<>();
+
+    @Builder.Default
+    private String stat = "Average";
+
+    @Builder.Default
+    private int periodSeconds = DEFAULT_PERIOD_SECONDS;
+}
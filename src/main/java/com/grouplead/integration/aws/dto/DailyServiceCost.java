@@ -0,0 +1,23 @@
+package com.grouplead.integration.aws.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One cell of the daily cost cube: spend for a service and team tag value on one day
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyServiceCost {
+
+    private LocalDate date;
+    private String service;
+    // Empty for untagged spend
+    private String tagValue;
+    private double amount;
+    private String currency;
+}
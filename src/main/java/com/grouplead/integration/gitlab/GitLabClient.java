@@ -1,14 +1,15 @@
 package com.grouplead.integration.gitlab;
 
 import com.grouplead.config.IntegrationProperties;
+import com.grouplead.exception.IntegrationException;
 import com.grouplead.integration.gitlab.dto.GitLabCommit;
 import com.grouplead.integration.gitlab.dto.GitLabMergeRequest;
 import com.grouplead.integration.gitlab.dto.GitLabPipeline;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -16,101 +17,84 @@ import java.util.Arrays;
 import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class GitLabClient {
 
     private final WebClient webClient;
     private final IntegrationProperties properties;
+    private final GitLabPaginator paginator;
 
-    public List<GitLabCommit> getCommits(String projectId, LocalDateTime since) {
+    public GitLabClient(WebClient webClient, IntegrationProperties properties, GitLabRateLimitFilter rateLimitFilter) {
+        this.webClient = webClient.mutate().filter(rateLimitFilter).build();
+        this.properties = properties;
+        this.paginator = new GitLabPaginator(this.webClient, () -> properties.getGitlab().getPrivateToken());
+    }
+
+    public Flux<GitLabCommit> getCommits(String projectId, LocalDateTime since) {
         log.debug("Fetching GitLab commits for project {} since {}", projectId, since);
 
-        try {
-            return webClient.get()
-                    .uri(properties.getGitlab().getBaseUrl() +
-                                    "/api/v4/projects/{projectId}/repository/commits?since={since}&per_page=100",
-                            projectId, since.format(DateTimeFormatter.ISO_DATE_TIME))
-                    .header("PRIVATE-TOKEN", properties.getGitlab().getPrivateToken())
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<GitLabCommit>>() {})
-                    .block();
-        } catch (Exception e) {
-            log.error("Error fetching GitLab commits", e);
-            return List.of();
-        }
+        return paginate(GitLabCommit.class, "commits",
+                "/api/v4/projects/{projectId}/repository/commits?since={since}&per_page=100",
+                projectId, since.format(DateTimeFormatter.ISO_DATE_TIME));
     }
 
-    public List<GitLabMergeRequest> getMergeRequests(String projectId, String state) {
+    public Flux<GitLabMergeRequest> getMergeRequests(String projectId, String state) {
         log.debug("Fetching GitLab merge requests for project {} with state {}", projectId, state);
 
-        try {
-            return webClient.get()
-                    .uri(properties.getGitlab().getBaseUrl() +
-                                    "/api/v4/projects/{projectId}/merge_requests?state={state}&per_page=100",
-                            projectId, state)
-                    .header("PRIVATE-TOKEN", properties.getGitlab().getPrivateToken())
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<GitLabMergeRequest>>() {})
-                    .block();
-        } catch (Exception e) {
-            log.error("Error fetching GitLab merge requests", e);
-            return List.of();
-        }
+        return paginate(GitLabMergeRequest.class, "merge requests",
+                "/api/v4/projects/{projectId}/merge_requests?state={state}&per_page=100",
+                projectId, state);
     }
 
-    public List<GitLabMergeRequest> getMergedMergeRequests(String projectId, LocalDateTime since) {
+    public Flux<GitLabMergeRequest> getMergeRequests(String projectId, String state, LocalDateTime updatedAfter) {
+        log.debug("Fetching GitLab merge requests for project {} with state {} updated since {}",
+                projectId, state, updatedAfter);
+
+        return paginate(GitLabMergeRequest.class, "merge requests",
+                "/api/v4/projects/{projectId}/merge_requests?state={state}&updated_after={since}&per_page=100",
+                projectId, state, updatedAfter.format(DateTimeFormatter.ISO_DATE_TIME));
+    }
+
+    public Flux<GitLabMergeRequest> getMergedMergeRequests(String projectId, LocalDateTime since) {
         log.debug("Fetching merged GitLab merge requests for project {} since {}", projectId, since);
 
-        try {
-            return webClient.get()
-                    .uri(properties.getGitlab().getBaseUrl() +
-                                    "/api/v4/projects/{projectId}/merge_requests?state=merged&updated_after={since}&per_page=100",
-                            projectId, since.format(DateTimeFormatter.ISO_DATE_TIME))
-                    .header("PRIVATE-TOKEN", properties.getGitlab().getPrivateToken())
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<GitLabMergeRequest>>() {})
-                    .block();
-        } catch (Exception e) {
-            log.error("Error fetching merged GitLab merge requests", e);
-            return List.of();
-        }
+        return paginate(GitLabMergeRequest.class, "merged merge requests",
+                "/api/v4/projects/{projectId}/merge_requests?state=merged&updated_after={since}&per_page=100",
+                projectId, since.format(DateTimeFormatter.ISO_DATE_TIME));
     }
 
     public GitLabCommit getCommitDetails(String projectId, String sha) {
-        log.debug("Fetching GitLab commit details for {} in project {}", sha, projectId);
-
         try {
-            return webClient.get()
-                    .uri(properties.getGitlab().getBaseUrl() +
-                                    "/api/v4/projects/{projectId}/repository/commits/{sha}",
-                            projectId, sha)
-                    .header("PRIVATE-TOKEN", properties.getGitlab().getPrivateToken())
-                    .retrieve()
-                    .bodyToMono(GitLabCommit.class)
-                    .block();
+            return fetchCommitDetails(projectId, sha).block();
         } catch (Exception e) {
             log.error("Error fetching GitLab commit details", e);
             return null;
         }
     }
 
-    public List<GitLabPipeline> getPipelines(String projectId, LocalDateTime since) {
+    public Mono<GitLabCommit> fetchCommitDetails(String projectId, String sha) {
+        log.debug("Fetching GitLab commit details for {} in project {}", sha, projectId);
+
+        return webClient.get()
+                .uri(properties.getGitlab().getBaseUrl() +
+                                "/api/v4/projects/{projectId}/repository/commits/{sha}",
+                        projectId, sha)
+                .header("PRIVATE-TOKEN", properties.getGitlab().getPrivateToken())
+                .retrieve()
+                .bodyToMono(GitLabCommit.class);
+    }
+
+    public Flux<GitLabPipeline> getPipelines(String projectId, LocalDateTime since) {
         log.debug("Fetching GitLab pipelines for project {} since {}", projectId, since);
 
-        try {
-            return webClient.get()
-                    .uri(properties.getGitlab().getBaseUrl() +
-                                    "/api/v4/projects/{projectId}/pipelines?updated_after={since}&per_page=100",
-                            projectId, since.format(DateTimeFormatter.ISO_DATE_TIME))
-                    .header("PRIVATE-TOKEN", properties.getGitlab().getPrivateToken())
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<GitLabPipeline>>() {})
-                    .block();
-        } catch (Exception e) {
-            log.error("Error fetching GitLab pipelines", e);
-            return List.of();
-        }
+        return paginate(GitLabPipeline.class, "pipelines",
+                "/api/v4/projects/{projectId}/pipelines?updated_after={since}&per_page=100",
+                projectId, since.format(DateTimeFormatter.ISO_DATE_TIME));
+    }
+
+    private <T> Flux<T> paginate(Class<T> elementType, String resource, String path, Object... uriVariables) {
+        return paginator.stream(elementType, properties.getGitlab().getBaseUrl() + path, uriVariables)
+                .onErrorMap(e -> new IntegrationException("GITLAB", "Failed to fetch GitLab " + resource, e));
     }
 
     public List<String> getProjectIds() {
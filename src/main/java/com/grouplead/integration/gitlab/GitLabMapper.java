@@ -1,10 +1,15 @@
 package com.grouplead.integration.gitlab;
 
 import com.grouplead.domain.entity.Commit;
+import com.grouplead.domain.entity.Deployment;
 import com.grouplead.domain.entity.MergeRequest;
+import com.grouplead.domain.enums.DeploymentStatus;
 import com.grouplead.domain.enums.MergeRequestStatus;
 import com.grouplead.integration.gitlab.dto.GitLabCommit;
+import com.grouplead.integration.gitlab.dto.GitLabDeploymentEvent;
 import com.grouplead.integration.gitlab.dto.GitLabMergeRequest;
+import com.grouplead.integration.gitlab.dto.GitLabMergeRequestEvent;
+import com.grouplead.integration.gitlab.dto.GitLabPushEvent;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -40,9 +45,62 @@ public class GitLabMapper {
                 .createdAt(parseDateTime(gitLabMR.getCreatedAt()))
                 .mergedAt(parseDateTime(gitLabMR.getMergedAt()))
                 .closedAt(parseDateTime(gitLabMR.getClosedAt()))
+                .externalUpdatedAt(parseDateTime(gitLabMR.getUpdatedAt()))
                 .build();
     }
 
+    public GitLabCommit fromPushCommit(GitLabPushEvent.PushCommit pushCommit) {
+        GitLabCommit commit = new GitLabCommit();
+        commit.setId(pushCommit.getId());
+        commit.setTitle(pushCommit.getTitle());
+        commit.setMessage(pushCommit.getMessage());
+        commit.setCommittedDate(pushCommit.getTimestamp());
+        if (pushCommit.getAuthor() != null) {
+            commit.setAuthorName(pushCommit.getAuthor().getName());
+            commit.setAuthorEmail(pushCommit.getAuthor().getEmail());
+        }
+        return commit;
+    }
+
+    public GitLabMergeRequest fromMergeRequestEvent(GitLabMergeRequestEvent event) {
+        GitLabMergeRequest mr = event.getObjectAttributes();
+        if (mr.getProjectId() == null && event.getProject() != null) {
+            mr.setProjectId(event.getProject().getId());
+        }
+        if (mr.getAuthor() == null) {
+            mr.setAuthor(event.getUser());
+        }
+        // Hooks don't always carry merged_at, the update that merged it is the closest value
+        if ("merged".equalsIgnoreCase(mr.getState()) && mr.getMergedAt() == null) {
+            mr.setMergedAt(mr.getUpdatedAt());
+        }
+        return mr;
+    }
+
+    public Deployment toDeployment(GitLabDeploymentEvent event) {
+        return Deployment.builder()
+                .externalId(String.valueOf(event.getDeploymentId()))
+                .projectId(event.getProject() != null ? String.valueOf(event.getProject().getId()) : null)
+                .environment(event.getEnvironment())
+                .status(mapDeploymentStatus(event.getStatus()))
+                .version(event.getShortSha())
+                .deployedAt(parseDateTime(event.getStatusChangedAt()))
+                .externalUpdatedAt(parseDateTime(event.getStatusChangedAt()))
+                .build();
+    }
+
+    public DeploymentStatus mapDeploymentStatus(String status) {
+        if (status == null) return DeploymentStatus.PENDING;
+
+        return switch (status.toLowerCase()) {
+            case "running" -> DeploymentStatus.RUNNING;
+            case "success" -> DeploymentStatus.SUCCESS;
+            case "failed" -> DeploymentStatus.FAILED;
+            case "canceled", "cancelled", "skipped" -> DeploymentStatus.CANCELLED;
+            default -> DeploymentStatus.PENDING;
+        };
+    }
+
     private MergeRequestStatus mapStatus(String state) {
         if (state == null) return MergeRequestStatus.OPEN;
 
@@ -54,7 +112,7 @@ public class GitLabMapper {
         };
     }
 
-    private LocalDateTime parseDateTime(String dateString) {
+    public LocalDateTime parseDateTime(String dateString) {
         if (dateString == null || dateString.isEmpty()) {
             return null;
         }
@@ -62,7 +120,8 @@ public class GitLabMapper {
             return LocalDateTime.parse(dateString, GITLAB_DATETIME_FORMAT);
         } catch (Exception e) {
             try {
-                return LocalDateTime.parse(dateString.substring(0, 19));
+                // Webhook payloads use "yyyy-MM-dd HH:mm:ss UTC"
+                return LocalDateTime.parse(dateString.substring(0, 19).replace(' ', 'T'));
             } catch (Exception ex) {
                 return null;
             }
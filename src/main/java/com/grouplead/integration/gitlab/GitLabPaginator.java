@@ -0,0 +1,57 @@
+package com.grouplead.integration.gitlab;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Follows GitLab's Link: rel="next" header (offset or keyset), one page in memory at a time
+class GitLabPaginator {
+
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>\\s*;\\s*rel=\"next\"");
+
+    private final WebClient webClient;
+    private final Supplier<String> privateToken;
+    private final DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory();
+
+    GitLabPaginator(WebClient webClient, Supplier<String> privateToken) {
+        this.webClient = webClient;
+        this.privateToken = privateToken;
+    }
+
+    <T> Flux<T> stream(Class<T> elementType, String uriTemplate, Object... uriVariables) {
+        URI firstPage = uriBuilderFactory.expand(uriTemplate, uriVariables);
+
+        return fetchPage(firstPage, elementType)
+                .expand(page -> {
+                    URI next = nextPage(page);
+                    return next != null ? fetchPage(next, elementType) : Mono.empty();
+                })
+                .flatMapIterable(page -> page.getBody() != null ? page.getBody() : List.of());
+    }
+
+    private <T> Mono<ResponseEntity<List<T>>> fetchPage(URI uri, Class<T> elementType) {
+        return webClient.get()
+                .uri(uri)
+                .header("PRIVATE-TOKEN", privateToken.get())
+                .retrieve()
+                .toEntityList(elementType);
+    }
+
+    private URI nextPage(ResponseEntity<?> page) {
+        for (String link : page.getHeaders().getOrEmpty("Link")) {
+            Matcher matcher = NEXT_LINK.matcher(link);
+            if (matcher.find()) {
+                return URI.create(matcher.group(1));
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.grouplead.integration.gitlab;
+
+import com.grouplead.config.IntegrationProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Shares GitLab's rate limit state across all in-flight requests
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GitLabRateLimitFilter implements ExchangeFilterFunction {
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration MAX_PAUSE = Duration.ofMinutes(5);
+
+    private final IntegrationProperties properties;
+    private final AtomicReference<Instant> pausedUntil = new AtomicReference<>(Instant.EPOCH);
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> waitForPermit().then(next.exchange(request)))
+                .flatMap(response -> {
+                    recordLimits(response);
+                    if (response.statusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                        return response.releaseBody()
+                                .then(Mono.<ClientResponse>error(new RateLimitedException(request.url().getPath())));
+                    }
+                    return Mono.just(response);
+                })
+                .retryWhen(Retry.max(properties.getGitlab().getMaxRateLimitRetries())
+                        .filter(RateLimitedException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private Mono<Void> waitForPermit() {
+        Duration wait = Duration.between(Instant.now(), pausedUntil.get());
+        return wait.isNegative() || wait.isZero() ? Mono.empty() : Mono.delay(wait).then();
+    }
+
+    private void recordLimits(ClientResponse response) {
+        var headers = response.headers().asHttpHeaders();
+
+        String retryAfter = headers.getFirst("Retry-After");
+        if (retryAfter != null) {
+            pauseFor(parseSeconds(retryAfter).orElse(DEFAULT_RETRY_AFTER));
+            return;
+        }
+        if (response.statusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            pauseFor(DEFAULT_RETRY_AFTER);
+            return;
+        }
+
+        // Slow down before the budget runs out instead of waiting for 429s
+        String remaining = headers.getFirst("RateLimit-Remaining");
+        String reset = headers.getFirst("RateLimit-Reset");
+        if (remaining != null && reset != null) {
+            try {
+                if (Long.parseLong(remaining.trim()) <= properties.getGitlab().getRateLimitThreshold()) {
+                    Instant resetAt = Instant.ofEpochSecond(Long.parseLong(reset.trim()));
+                    pauseFor(Duration.between(Instant.now(), resetAt));
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring malformed GitLab rate limit headers: {} / {}", remaining, reset);
+            }
+        }
+    }
+
+    private void pauseFor(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            return;
+        }
+        Duration capped = duration.compareTo(MAX_PAUSE) > 0 ? MAX_PAUSE : duration;
+        Instant until = Instant.now().plus(capped);
+        Instant previous = pausedUntil.getAndAccumulate(until, (current, next) -> next.isAfter(current) ? next : current);
+        if (until.isAfter(previous)) {
+            log.warn("GitLab rate limit reached, pausing requests for {}s", capped.toSeconds());
+        }
+    }
+
+    private Optional<Duration> parseSeconds(String value) {
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    static class RateLimitedException extends RuntimeException {
+        RateLimitedException(String path) {
+            super("GitLab rate limit exceeded for " + path);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.grouplead.integration.gitlab.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GitLabDeploymentEvent {
+
+    @JsonProperty("object_kind")
+    private String objectKind;
+
+    private String status;
+
+    @JsonProperty("status_changed_at")
+    private String statusChangedAt;
+
+    @JsonProperty("deployment_id")
+    private Long deploymentId;
+
+    private String environment;
+
+    private String ref;
+
+    @JsonProperty("short_sha")
+    private String shortSha;
+
+    private GitLabMergeRequestEvent.Project project;
+}
@@ -0,0 +1,27 @@
+package com.grouplead.integration.gitlab.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GitLabMergeRequestEvent {
+
+    @JsonProperty("object_kind")
+    private String objectKind;
+
+    private Project project;
+
+    private GitLabMergeRequest.GitLabAuthor user;
+
+    // Same snake_case shape as the REST merge request, minus project and author
+    @JsonProperty("object_attributes")
+    private GitLabMergeRequest objectAttributes;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Project {
+        private Long id;
+    }
+}
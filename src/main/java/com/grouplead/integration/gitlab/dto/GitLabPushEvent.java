@@ -0,0 +1,39 @@
+package com.grouplead.integration.gitlab.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GitLabPushEvent {
+
+    @JsonProperty("object_kind")
+    private String objectKind;
+
+    private String ref;
+
+    @JsonProperty("project_id")
+    private Long projectId;
+
+    private List<PushCommit> commits;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PushCommit {
+        private String id;
+        private String message;
+        private String title;
+        private String timestamp;
+        private Author author;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Author {
+        private String name;
+        private String email;
+    }
+}
@@ -1,6 +1,7 @@
 package com.grouplead.integration.jira;
 
 import com.grouplead.config.IntegrationProperties;
+import com.grouplead.exception.IntegrationException;
 import com.grouplead.integration.jira.dto.JiraIssue;
 import com.grouplead.integration.jira.dto.JiraSearchResponse;
 import com.grouplead.integration.jira.dto.JiraSprint;
@@ -9,11 +10,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
@@ -22,32 +29,50 @@ public class JiraClient {
 
     private final WebClient webClient;
     private final IntegrationProperties properties;
+    private final JiraMapper jiraMapper;
 
     private static final DateTimeFormatter JIRA_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String ISSUE_FIELDS =
+            "summary,status,assignee,created,updated,customfield_10016,priority,issuetype,labels";
+
+    // Keyset paging by update time: an issue edited mid-sync only moves further along the order, so it is read
+    // again later instead of being skipped the way it could be with offsets over a changing result set
+    public Flux<List<JiraIssue>> streamUpdatedIssues(String projectKey, LocalDateTime since) {
+        log.debug("Fetching JIRA issues for project {} updated since {}", projectKey, since);
+
+        return searchUpdatedFrom(projectKey, since.truncatedTo(ChronoUnit.MINUTES), 0, new HashSet<>())
+                .filter(page -> !page.isEmpty())
+                .onErrorMap(e -> !(e instanceof IntegrationException),
+                        e -> new IntegrationException("JIRA", "Failed to search issues", e));
+    }
 
-    public List<JiraIssue> getUpdatedIssues(LocalDateTime since) {
-        log.debug("Fetching JIRA issues updated since {}", since);
-
+    // JQL compares update times by the minute, so each query restarts at the last page's minute and skips the
+    // issue versions already returned. startAt only advances while a whole page falls within that one minute.
+    private Flux<List<JiraIssue>> searchUpdatedFrom(String projectKey, LocalDateTime cursor, int startAt,
+                                                    Set<String> seen) {
         String jql = String.format(
-                "project in (%s) AND updated >= '%s' ORDER BY updated DESC",
-                properties.getJira().getProjectKeys(),
-                since.format(JIRA_DATE_FORMAT)
+                "project = %s AND updated >= '%s' ORDER BY updated ASC, key ASC",
+                projectKey,
+                cursor.format(JIRA_DATE_FORMAT)
         );
 
-        try {
-            JiraSearchResponse response = webClient.get()
-                    .uri(properties.getJira().getBaseUrl() + "/rest/api/3/search?jql={jql}&maxResults=100&fields=summary,status,assignee,created,updated,customfield_10016,priority,issuetype,labels",
-                            jql)
-                    .header("Authorization", getAuthHeader())
-                    .retrieve()
-                    .bodyToMono(JiraSearchResponse.class)
-                    .block();
-
-            return response != null ? response.getIssues() : List.of();
-        } catch (Exception e) {
-            log.error("Error fetching JIRA issues", e);
-            return List.of();
-        }
+        return fetchSearchPage(jql, ISSUE_FIELDS, startAt)
+                .flatMapMany(response -> {
+                    List<JiraIssue> issues = response.getIssues() != null ? response.getIssues() : List.of();
+                    List<JiraIssue> unseen = issues.stream()
+                            .filter(issue -> seen.add(issue.getKey() + "@" + jiraMapper.updatedAt(issue)))
+                            .toList();
+                    if (issues.isEmpty() || startAt + issues.size() >= response.getTotal()) {
+                        return Flux.just(unseen);
+                    }
+
+                    LocalDateTime last = jiraMapper.updatedAt(issues.get(issues.size() - 1));
+                    LocalDateTime next = last != null ? last.truncatedTo(ChronoUnit.MINUTES) : cursor;
+                    Flux<List<JiraIssue>> rest = next.isAfter(cursor)
+                            ? searchUpdatedFrom(projectKey, next, 0, seen)
+                            : searchUpdatedFrom(projectKey, cursor, startAt + issues.size(), seen);
+                    return Flux.just(unseen).concatWith(rest);
+                });
     }
 
     public List<JiraSprint> getActiveSprints() {
@@ -94,21 +119,66 @@ public class JiraClient {
         String jql = String.format("sprint = %s ORDER BY rank", sprintId);
 
         try {
-            JiraSearchResponse response = webClient.get()
-                    .uri(properties.getJira().getBaseUrl() + "/rest/api/3/search?jql={jql}&maxResults=100",
-                            jql)
-                    .header("Authorization", getAuthHeader())
-                    .retrieve()
-                    .bodyToMono(JiraSearchResponse.class)
+            List<JiraIssue> issues = search(jql, "*navigable")
+                    .flatMapIterable(page -> page)
+                    .collectList()
                     .block();
 
-            return response != null ? response.getIssues() : List.of();
+            return issues != null ? issues : List.of();
         } catch (Exception e) {
             log.error("Error fetching sprint issues", e);
             return List.of();
         }
     }
 
+    // Reads the first page to learn the total, then fetches the remaining pages concurrently; only for result sets
+    // that do not change while they are paged
+    private Flux<List<JiraIssue>> search(String jql, String fields) {
+        int concurrency = Math.max(1, properties.getJira().getSearchConcurrency());
+
+        return fetchSearchPage(jql, fields, 0)
+                .flatMapMany(first -> {
+                    List<JiraIssue> firstIssues = first.getIssues() != null ? first.getIssues() : List.of();
+                    // Jira may cap maxResults below what we asked for
+                    int pageSize = first.getMaxResults() > 0 ? first.getMaxResults() : firstIssues.size();
+                    if (pageSize == 0 || first.getTotal() <= pageSize) {
+                        return Flux.just(firstIssues);
+                    }
+
+                    int pages = (first.getTotal() + pageSize - 1) / pageSize;
+                    Flux<List<JiraIssue>> remaining = Flux.range(1, pages - 1)
+                            .flatMap(page -> fetchSearchPage(jql, fields, page * pageSize)
+                                    .map(response -> response.getIssues() != null
+                                            ? response.getIssues() : List.<JiraIssue>of()), concurrency);
+
+                    return Flux.just(firstIssues).concatWith(remaining);
+                })
+                .filter(page -> !page.isEmpty())
+                .onErrorMap(e -> !(e instanceof IntegrationException),
+                        e -> new IntegrationException("JIRA", "Failed to search issues", e));
+    }
+
+    private Mono<JiraSearchResponse> fetchSearchPage(String jql, String fields, int startAt) {
+        return webClient.get()
+                .uri(properties.getJira().getBaseUrl() +
+                                "/rest/api/3/search?jql={jql}&startAt={startAt}&maxResults={maxResults}&fields={fields}",
+                        jql, startAt, properties.getJira().getPageSize(), fields)
+                .header("Authorization", getAuthHeader())
+                .retrieve()
+                .bodyToMono(JiraSearchResponse.class);
+    }
+
+    public List<String> getProjectKeys() {
+        String projectKeys = properties.getJira().getProjectKeys();
+        if (projectKeys == null || projectKeys.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(projectKeys.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .toList();
+    }
+
     private String getAuthHeader() {
         String credentials = properties.getJira().getEmail() + ":" + properties.getJira().getApiToken();
         return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes());
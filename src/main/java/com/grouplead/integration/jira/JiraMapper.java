@@ -40,6 +40,11 @@ public class JiraMapper {
         return ticket;
     }
 
+    // Null if the issue carries no parseable update time
+    public LocalDateTime updatedAt(JiraIssue issue) {
+        return issue.getFields() != null ? parseDateTime(issue.getFields().getUpdated()) : null;
+    }
+
     public Sprint toSprint(JiraSprint jiraSprint) {
         return Sprint.builder()
                 .externalId(String.valueOf(jiraSprint.getId()))
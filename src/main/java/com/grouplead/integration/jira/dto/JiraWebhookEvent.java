@@ -0,0 +1,12 @@
+package com.grouplead.integration.jira.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class JiraWebhookEvent {
+    private String webhookEvent;
+    private Long timestamp;
+    private JiraIssue issue;
+}
@@ -53,6 +53,10 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
     @Query("SELECT a FROM Alert a WHERE a.createdAt >= :since ORDER BY a.createdAt DESC")
     List<Alert> findRecentAlerts(@Param("since") LocalDateTime since);
 
+    // Team is fetched with the alert so the result can be mapped outside a persistence context
+    @Query("SELECT a FROM Alert a LEFT JOIN FETCH a.team WHERE a.createdAt >= :since ORDER BY a.createdAt DESC")
+    List<Alert> findRecentAlertsWithTeam(@Param("since") LocalDateTime since, Pageable pageable);
+
     @Query("SELECT COUNT(a) FROM Alert a WHERE a.createdAt BETWEEN :start AND :end")
     long countAlertsInPeriod(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
@@ -0,0 +1,63 @@
+package com.grouplead.repository;
+
+import com.grouplead.domain.entity.Commit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+// Set-based commit writes for the collectors, bypassing the persistence context
+@Repository
+@RequiredArgsConstructor
+public class CommitBulkRepository {
+
+    // Commits are immutable, so a row that already exists is left untouched
+    private static final String INSERT_SQL =
+            "INSERT INTO commits (developer_id, sha, message, additions, deletions, files_changed, " +
+            "project_id, branch, committed_at, created_at) " +
+            "VALUES (:developerId, :sha, :message, :additions, :deletions, :filesChanged, " +
+            ":projectId, :branch, :committedAt, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (sha) DO NOTHING";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public int insert(List<Commit> commits) {
+        if (commits.isEmpty()) {
+            return 0;
+        }
+
+        SqlParameterSource[] rows = new SqlParameterSource[commits.size()];
+        for (int i = 0; i < commits.size(); i++) {
+            Commit commit = commits.get(i);
+            rows[i] = new MapSqlParameterSource()
+                    .addValue("developerId", commit.getDeveloper() != null ? commit.getDeveloper().getId() : null, Types.BIGINT)
+                    .addValue("sha", commit.getSha())
+                    .addValue("message", commit.getMessage() != null ? commit.getMessage() : "")
+                    .addValue("additions", commit.getAdditions() != null ? commit.getAdditions() : 0)
+                    .addValue("deletions", commit.getDeletions() != null ? commit.getDeletions() : 0)
+                    .addValue("filesChanged", commit.getFilesChanged() != null ? commit.getFilesChanged() : 0)
+                    .addValue("projectId", commit.getProjectId(), Types.VARCHAR)
+                    .addValue("branch", commit.getBranch(), Types.VARCHAR)
+                    .addValue("committedAt", toUtc(commit.getCommittedAt()), Types.TIMESTAMP_WITH_TIMEZONE);
+        }
+
+        int inserted = 0;
+        for (int count : jdbcTemplate.batchUpdate(INSERT_SQL, rows)) {
+            // The driver may report SUCCESS_NO_INFO (-2) for rewritten batches
+            inserted += count == 0 ? 0 : 1;
+        }
+        return inserted;
+    }
+
+    // Matches hibernate.jdbc.time_zone=UTC used by the entity mappings
+    private OffsetDateTime toUtc(LocalDateTime value) {
+        return value != null ? value.atOffset(ZoneOffset.UTC) : null;
+    }
+}
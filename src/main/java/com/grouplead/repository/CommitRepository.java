@@ -7,8 +7,10 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface CommitRepository extends JpaRepository<Commit, Long> {
@@ -64,4 +66,7 @@ public interface CommitRepository extends JpaRepository<Commit, Long> {
     );
 
     boolean existsBySha(String sha);
+
+    @Query("SELECT c.sha FROM Commit c WHERE c.sha IN :shas")
+    Set<String> findExistingShas(@Param("shas") Collection<String> shas);
 }
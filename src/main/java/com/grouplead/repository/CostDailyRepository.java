@@ -0,0 +1,116 @@
+package com.grouplead.repository;
+
+import com.grouplead.integration.aws.dto.DailyServiceCost;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// The cost_daily cube; every range is [start, end) like Cost Explorer's own time periods
+@Repository
+@RequiredArgsConstructor
+public class CostDailyRepository {
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM cost_daily WHERE tag_key = :tagKey AND day >= :start AND day < :end";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cost_daily (day, service, tag_key, tag_value, amount, currency, updated_at) " +
+            "VALUES (:day, :service, :tagKey, :tagValue, :amount, :currency, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (day, service, tag_key, tag_value) DO UPDATE SET " +
+            "amount = EXCLUDED.amount, currency = EXCLUDED.currency, updated_at = CURRENT_TIMESTAMP";
+
+    private static final String MARK_LOADED_SQL =
+            "INSERT INTO cost_daily_loaded (tag_key, day, loaded_at) " +
+            "SELECT :tagKey, d::date, CURRENT_TIMESTAMP FROM generate_series(CAST(:start AS date), CAST(:end AS date) - 1, INTERVAL '1 day') d " +
+            "ON CONFLICT (tag_key, day) DO UPDATE SET loaded_at = CURRENT_TIMESTAMP";
+
+    private static final String FIND_LOADED_SQL =
+            "SELECT day FROM cost_daily_loaded WHERE tag_key = :tagKey AND day >= :start AND day < :end";
+
+    private static final String DAILY_TOTALS_SQL =
+            "SELECT day, SUM(amount) AS amount FROM cost_daily " +
+            "WHERE tag_key = :tagKey AND day >= :start AND day < :end GROUP BY day";
+
+    private static final String TOP_SERVICES_SQL =
+            "SELECT service, SUM(amount) AS amount, MAX(currency) AS currency FROM cost_daily " +
+            "WHERE tag_key = :tagKey AND day >= :start AND day < :end " +
+            "GROUP BY service ORDER BY amount DESC LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Replaces whole days, since Cost Explorer keeps revising recent ones
+    public void replaceDays(String tagKey, LocalDate start, LocalDate end, List<DailyServiceCost> costs) {
+        MapSqlParameterSource range = new MapSqlParameterSource()
+                .addValue("tagKey", tagKey)
+                .addValue("start", start)
+                .addValue("end", end);
+
+        jdbcTemplate.update(DELETE_RANGE_SQL, range);
+
+        if (!costs.isEmpty()) {
+            SqlParameterSource[] rows = new SqlParameterSource[costs.size()];
+            for (int i = 0; i < costs.size(); i++) {
+                DailyServiceCost cost = costs.get(i);
+                rows[i] = new MapSqlParameterSource()
+                        .addValue("day", cost.getDate())
+                        .addValue("service", cost.getService())
+                        .addValue("tagKey", tagKey)
+                        .addValue("tagValue", cost.getTagValue() != null ? cost.getTagValue() : "")
+                        .addValue("amount", cost.getAmount())
+                        .addValue("currency", cost.getCurrency() != null ? cost.getCurrency() : "USD");
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+
+        jdbcTemplate.update(MARK_LOADED_SQL, range);
+    }
+
+    public Set<LocalDate> findLoadedDays(String tagKey, LocalDate start, LocalDate end) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tagKey", tagKey)
+                .addValue("start", start)
+                .addValue("end", end);
+
+        return new HashSet<>(jdbcTemplate.query(FIND_LOADED_SQL, params,
+                (rs, rowNum) -> rs.getObject("day", LocalDate.class)));
+    }
+
+    // Days without any spend are absent rather than zero
+    public Map<LocalDate, Double> findDailyTotals(String tagKey, LocalDate start, LocalDate end) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tagKey", tagKey)
+                .addValue("start", start)
+                .addValue("end", end);
+
+        Map<LocalDate, Double> totals = new TreeMap<>();
+        jdbcTemplate.query(DAILY_TOTALS_SQL, params, rs -> {
+            totals.put(rs.getObject("day", LocalDate.class), rs.getDouble("amount"));
+        });
+        return totals;
+    }
+
+    public List<ServiceTotal> findTopServices(String tagKey, LocalDate start, LocalDate end, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tagKey", tagKey)
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(TOP_SERVICES_SQL, params, (rs, rowNum) -> new ServiceTotal(
+                rs.getString("service"),
+                rs.getDouble("amount"),
+                rs.getString("currency")
+        ));
+    }
+
+    public record ServiceTotal(String service, double amount, String currency) {}
+}
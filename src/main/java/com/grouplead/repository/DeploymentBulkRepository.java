@@ -0,0 +1,71 @@
+package com.grouplead.repository;
+
+import com.grouplead.domain.entity.Deployment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+// Deployment writes for the webhooks, bypassing the persistence context
+@Repository
+@RequiredArgsConstructor
+public class DeploymentBulkRepository {
+
+    // Status changes arrive as separate events for the same deployment, possibly out of order or concurrently.
+    // The conflict target is the partial unique index from V4. An event older than the stored status leaves
+    // the row alone and returns no row; otherwise the row comes back with the deploy time it replaced.
+    private static final String UPSERT_SQL =
+            "WITH previous AS (SELECT deployed_at FROM deployments " +
+            "WHERE external_id = :externalId AND project_id = :projectId) " +
+            "INSERT INTO deployments (external_id, project_id, environment, status, version, caused_incident, " +
+            "deployed_at, external_updated_at, created_at) " +
+            "VALUES (:externalId, :projectId, :environment, :status, :version, FALSE, " +
+            ":deployedAt, :externalUpdatedAt, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (external_id, project_id) WHERE external_id IS NOT NULL DO UPDATE SET " +
+            "status = EXCLUDED.status, " +
+            "environment = EXCLUDED.environment, " +
+            "version = EXCLUDED.version, " +
+            "deployed_at = EXCLUDED.deployed_at, " +
+            "external_updated_at = EXCLUDED.external_updated_at " +
+            "WHERE deployments.external_updated_at IS NULL " +
+            "OR deployments.external_updated_at <= EXCLUDED.external_updated_at " +
+            "RETURNING deployed_at, (SELECT deployed_at FROM previous) AS previous_deployed_at";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Empty when the stored deployment is newer
+    public Optional<Upserted> upsert(Deployment deployment) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("externalId", deployment.getExternalId())
+                .addValue("projectId", deployment.getProjectId(), Types.VARCHAR)
+                .addValue("environment", deployment.getEnvironment())
+                .addValue("status", deployment.getStatus().name())
+                .addValue("version", deployment.getVersion(), Types.VARCHAR)
+                .addValue("deployedAt", toUtc(deployment.getDeployedAt()), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("externalUpdatedAt", toUtc(deployment.getExternalUpdatedAt()), Types.TIMESTAMP_WITH_TIMEZONE);
+
+        return jdbcTemplate.query(UPSERT_SQL, params, (rs, rowNum) -> new Upserted(
+                getDateTime(rs, "previous_deployed_at"),
+                getDateTime(rs, "deployed_at"))).stream().findFirst();
+    }
+
+    // Matches hibernate.jdbc.time_zone=UTC used by the entity mappings
+    private OffsetDateTime toUtc(LocalDateTime value) {
+        return value != null ? value.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    private LocalDateTime getDateTime(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value != null ? value.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime() : null;
+    }
+
+    public record Upserted(LocalDateTime previousDeployedAt, LocalDateTime deployedAt) {}
+}
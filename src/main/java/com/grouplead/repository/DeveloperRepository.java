@@ -14,6 +14,12 @@ public interface DeveloperRepository extends JpaRepository<Developer, Long> {
 
     Optional<Developer> findByEmail(String email);
 
+    @Query("SELECT DISTINCT d FROM Developer d LEFT JOIN FETCH d.externalIds")
+    List<Developer> findAllWithExternalIds();
+
+    @Query("SELECT d FROM Developer d LEFT JOIN FETCH d.externalIds WHERE d.id = :id")
+    Optional<Developer> findByIdWithExternalIds(@Param("id") Long id);
+
     List<Developer> findByTeamId(Long teamId);
 
     List<Developer> findByActiveTrue();
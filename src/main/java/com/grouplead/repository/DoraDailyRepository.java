@@ -0,0 +1,227 @@
+package com.grouplead.repository;
+
+import com.grouplead.util.QuantileSketch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+// The dora_daily snapshot; every range is [from, to) in UTC days
+@Repository
+@RequiredArgsConstructor
+public class DoraDailyRepository {
+
+    // A deployment belongs to its merge request author's team. Only a deployment without a merge request falls back
+    // to the team owning its GitLab project, since a shared project would otherwise pull in other teams' changes.
+    private static final String DEPLOYMENTS_SQL =
+            "SELECT COALESCE(CASE WHEN d.merge_request_id IS NULL " +
+            "THEN (SELECT t.id FROM teams t WHERE t.gitlab_project_id = d.project_id ORDER BY t.id LIMIT 1) " +
+            "ELSE dev.team_id END, 0) AS team_id, " +
+            "CAST(d.deployed_at AT TIME ZONE 'UTC' AS DATE) AS day, " +
+            "COUNT(*) AS deployments, COUNT(*) FILTER (WHERE d.caused_incident) AS failed " +
+            "FROM deployments d " +
+            "LEFT JOIN merge_requests mr ON mr.id = d.merge_request_id " +
+            "LEFT JOIN developers dev ON dev.id = mr.developer_id " +
+            "WHERE d.deployed_at >= :from AND d.deployed_at < :to " +
+            "GROUP BY 1, 2";
+
+    private static final String LEAD_TIMES_SQL =
+            "SELECT COALESCE(dev.team_id, 0) AS team_id, CAST(mr.merged_at AT TIME ZONE 'UTC' AS DATE) AS day, " +
+            "EXTRACT(EPOCH FROM (mr.deployed_at - mr.created_at)) / 3600 AS hours " +
+            "FROM merge_requests mr " +
+            "LEFT JOIN developers dev ON dev.id = mr.developer_id " +
+            "WHERE mr.merged_at >= :from AND mr.merged_at < :to " +
+            "AND mr.deployed_at IS NOT NULL AND mr.created_at IS NOT NULL";
+
+    // Same fallback as Incident.getRecoveryTimeMinutes: the recorded MTTR, else started to resolved
+    private static final String INCIDENTS_SQL =
+            "SELECT COALESCE(i.team_id, 0) AS team_id, CAST(i.resolved_at AT TIME ZONE 'UTC' AS DATE) AS day, " +
+            "COUNT(*) AS resolved, COUNT(r.minutes) AS recovery_count, COALESCE(SUM(r.minutes), 0) AS recovery_sum " +
+            "FROM incidents i " +
+            "CROSS JOIN LATERAL (SELECT COALESCE(i.mttr_minutes, " +
+            "TRUNC(EXTRACT(EPOCH FROM (i.resolved_at - i.started_at)) / 60)) AS minutes) r " +
+            "WHERE i.resolved_at >= :from AND i.resolved_at < :to " +
+            "GROUP BY 1, 2";
+
+    // Rebuilds delete then insert, so two of them over the same empty day would collide on the primary key
+    private static final String REBUILD_LOCK_SQL = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('dora_daily'))";
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM dora_daily WHERE day >= :from AND day < :to";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO dora_daily (team_id, day, deployments, failed_deployments, lead_time_count, " +
+            "lead_time_sum_hours, lead_time_sketch, resolved_incidents, recovery_count, recovery_sum_minutes, updated_at) " +
+            "VALUES (:teamId, :day, :deployments, :failed, :leadTimeCount, :leadTimeSum, :leadTimeSketch, " +
+            ":resolved, :recoveryCount, :recoverySum, CURRENT_TIMESTAMP)";
+
+    private static final String SUM_SQL =
+            "SELECT deployments, failed_deployments, lead_time_count, lead_time_sum_hours, lead_time_sketch, " +
+            "resolved_incidents, recovery_count, recovery_sum_minutes FROM dora_daily " +
+            "WHERE day >= :from AND day < :to AND (CAST(:teamId AS BIGINT) IS NULL OR team_id = :teamId)";
+
+    private static final String EARLIEST_SOURCE_SQL =
+            "SELECT CAST(LEAST(" +
+            "(SELECT MIN(deployed_at) FROM deployments), " +
+            "(SELECT MIN(merged_at) FROM merge_requests), " +
+            "(SELECT MIN(resolved_at) FROM incidents)) AT TIME ZONE 'UTC' AS DATE)";
+
+    private static final String ANY_ROW_SQL = "SELECT EXISTS (SELECT 1 FROM dora_daily)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Recomputes the days from the source tables, so it is safe to repeat and picks up edits as well as inserts.
+    // Must run inside a transaction.
+    public int rebuild(LocalDate from, LocalDate to) {
+        jdbcTemplate.queryForObject(REBUILD_LOCK_SQL, new MapSqlParameterSource(), Integer.class);
+
+        MapSqlParameterSource sourceRange = new MapSqlParameterSource()
+                .addValue("from", startOfDay(from), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("to", startOfDay(to), Types.TIMESTAMP_WITH_TIMEZONE);
+
+        Map<TeamDay, Cell> cells = new HashMap<>();
+
+        jdbcTemplate.query(DEPLOYMENTS_SQL, sourceRange, rs -> {
+            Cell cell = cells.computeIfAbsent(teamDay(rs.getLong("team_id"), rs.getDate("day")), key -> new Cell());
+            cell.deployments = rs.getInt("deployments");
+            cell.failed = rs.getInt("failed");
+        });
+
+        jdbcTemplate.query(LEAD_TIMES_SQL, sourceRange, rs -> {
+            Cell cell = cells.computeIfAbsent(teamDay(rs.getLong("team_id"), rs.getDate("day")), key -> new Cell());
+            cell.leadTimes.add(rs.getDouble("hours"));
+        });
+
+        jdbcTemplate.query(INCIDENTS_SQL, sourceRange, rs -> {
+            Cell cell = cells.computeIfAbsent(teamDay(rs.getLong("team_id"), rs.getDate("day")), key -> new Cell());
+            cell.resolved = rs.getInt("resolved");
+            cell.recoveryCount = rs.getInt("recovery_count");
+            cell.recoverySum = rs.getDouble("recovery_sum");
+        });
+
+        jdbcTemplate.update(DELETE_RANGE_SQL, new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to));
+
+        SqlParameterSource[] rows = new SqlParameterSource[cells.size()];
+        int i = 0;
+        for (Map.Entry<TeamDay, Cell> entry : cells.entrySet()) {
+            Cell cell = entry.getValue();
+            rows[i++] = new MapSqlParameterSource()
+                    .addValue("teamId", entry.getKey().teamId())
+                    .addValue("day", entry.getKey().day())
+                    .addValue("deployments", cell.deployments)
+                    .addValue("failed", cell.failed)
+                    .addValue("leadTimeCount", cell.leadTimes.count())
+                    .addValue("leadTimeSum", cell.leadTimes.sum())
+                    .addValue("leadTimeSketch", cell.leadTimes.isEmpty() ? null : cell.leadTimes.toBytes(), Types.BINARY)
+                    .addValue("resolved", cell.resolved)
+                    .addValue("recoveryCount", cell.recoveryCount)
+                    .addValue("recoverySum", cell.recoverySum);
+        }
+        if (rows.length > 0) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+        return rows.length;
+    }
+
+    // One row per team and day, so a year costs the same handful of milliseconds as a week
+    public DoraTotals sum(Long teamId, LocalDate from, LocalDate to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("teamId", teamId, Types.BIGINT)
+                .addValue("from", from)
+                .addValue("to", to);
+
+        DoraTotals totals = new DoraTotals();
+        jdbcTemplate.query(SUM_SQL, params, rs -> {
+            totals.deployments += rs.getLong("deployments");
+            totals.failedDeployments += rs.getLong("failed_deployments");
+            totals.leadTimeCount += rs.getLong("lead_time_count");
+            totals.leadTimeSumHours += rs.getDouble("lead_time_sum_hours");
+            byte[] sketch = rs.getBytes("lead_time_sketch");
+            if (sketch != null) {
+                totals.leadTimes.merge(QuantileSketch.fromBytes(sketch));
+            }
+            totals.resolvedIncidents += rs.getLong("resolved_incidents");
+            totals.recoveryCount += rs.getLong("recovery_count");
+            totals.recoverySumMinutes += rs.getDouble("recovery_sum_minutes");
+        });
+        return totals;
+    }
+
+    public LocalDate findEarliestSourceDay() {
+        return jdbcTemplate.queryForObject(EARLIEST_SOURCE_SQL, new MapSqlParameterSource(), LocalDate.class);
+    }
+
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(ANY_ROW_SQL, new MapSqlParameterSource(), Boolean.class));
+    }
+
+    public static final class DoraTotals {
+
+        private long deployments;
+        private long failedDeployments;
+        private long leadTimeCount;
+        private double leadTimeSumHours;
+        private final QuantileSketch leadTimes = new QuantileSketch();
+        private long resolvedIncidents;
+        private long recoveryCount;
+        private double recoverySumMinutes;
+
+        public long deployments() {
+            return deployments;
+        }
+
+        public long failedDeployments() {
+            return failedDeployments;
+        }
+
+        public long leadTimeCount() {
+            return leadTimeCount;
+        }
+
+        public double averageLeadTimeHours() {
+            return leadTimeCount > 0 ? leadTimeSumHours / leadTimeCount : 0.0;
+        }
+
+        public QuantileSketch leadTimes() {
+            return leadTimes;
+        }
+
+        public long resolvedIncidents() {
+            return resolvedIncidents;
+        }
+
+        public double averageRecoveryMinutes() {
+            return recoveryCount > 0 ? recoverySumMinutes / recoveryCount : 0.0;
+        }
+    }
+
+    private record TeamDay(long teamId, LocalDate day) {}
+
+    private static final class Cell {
+        int deployments;
+        int failed;
+        final QuantileSketch leadTimes = new QuantileSketch();
+        int resolved;
+        int recoveryCount;
+        double recoverySum;
+    }
+
+    private static TeamDay teamDay(long teamId, Date day) {
+        return new TeamDay(teamId, day.toLocalDate());
+    }
+
+    private static OffsetDateTime startOfDay(LocalDate day) {
+        return day.atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+}
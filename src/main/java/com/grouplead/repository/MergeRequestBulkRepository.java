@@ -0,0 +1,78 @@
+package com.grouplead.repository;
+
+import com.grouplead.domain.entity.MergeRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+// Merge request writes for the collectors and webhooks, bypassing the persistence context
+@Repository
+@RequiredArgsConstructor
+public class MergeRequestBulkRepository {
+
+    // Author and branches are only set on insert. A delivery older than the stored merge request leaves it alone
+    // and returns no row; otherwise the row comes back with the merge time it replaced.
+    private static final String UPSERT_SQL =
+            "WITH previous AS (SELECT merged_at FROM merge_requests " +
+            "WHERE external_id = :externalId AND project_id = :projectId) " +
+            "INSERT INTO merge_requests (developer_id, external_id, project_id, title, description, source_branch, " +
+            "target_branch, status, comments_count, created_at, merged_at, closed_at, external_updated_at, updated_at) " +
+            "VALUES (:developerId, :externalId, :projectId, :title, :description, :sourceBranch, " +
+            ":targetBranch, :status, :commentsCount, COALESCE(:createdAt, CURRENT_TIMESTAMP), :mergedAt, :closedAt, " +
+            ":externalUpdatedAt, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (external_id, project_id) DO UPDATE SET " +
+            "status = EXCLUDED.status, " +
+            "merged_at = EXCLUDED.merged_at, " +
+            "closed_at = EXCLUDED.closed_at, " +
+            "comments_count = EXCLUDED.comments_count, " +
+            "external_updated_at = EXCLUDED.external_updated_at, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE merge_requests.external_updated_at IS NULL " +
+            "OR merge_requests.external_updated_at <= EXCLUDED.external_updated_at " +
+            "RETURNING merged_at, (SELECT merged_at FROM previous) AS previous_merged_at";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Empty when the stored merge request is newer
+    public Optional<Upserted> upsert(MergeRequest mergeRequest) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("developerId", mergeRequest.getDeveloper() != null ? mergeRequest.getDeveloper().getId() : null, Types.BIGINT)
+                .addValue("externalId", mergeRequest.getExternalId())
+                .addValue("projectId", mergeRequest.getProjectId(), Types.VARCHAR)
+                .addValue("title", mergeRequest.getTitle())
+                .addValue("description", mergeRequest.getDescription(), Types.VARCHAR)
+                .addValue("sourceBranch", mergeRequest.getSourceBranch(), Types.VARCHAR)
+                .addValue("targetBranch", mergeRequest.getTargetBranch(), Types.VARCHAR)
+                .addValue("status", mergeRequest.getStatus().name())
+                .addValue("commentsCount", mergeRequest.getCommentsCount() != null ? mergeRequest.getCommentsCount() : 0)
+                .addValue("createdAt", toUtc(mergeRequest.getCreatedAt()), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("mergedAt", toUtc(mergeRequest.getMergedAt()), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("closedAt", toUtc(mergeRequest.getClosedAt()), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("externalUpdatedAt", toUtc(mergeRequest.getExternalUpdatedAt()), Types.TIMESTAMP_WITH_TIMEZONE);
+
+        return jdbcTemplate.query(UPSERT_SQL, params, (rs, rowNum) -> new Upserted(
+                getDateTime(rs, "previous_merged_at"),
+                getDateTime(rs, "merged_at"))).stream().findFirst();
+    }
+
+    // Matches hibernate.jdbc.time_zone=UTC used by the entity mappings
+    private OffsetDateTime toUtc(LocalDateTime value) {
+        return value != null ? value.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    private LocalDateTime getDateTime(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value != null ? value.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime() : null;
+    }
+
+    public record Upserted(LocalDateTime previousMergedAt, LocalDateTime mergedAt) {}
+}
@@ -0,0 +1,114 @@
+package com.grouplead.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Monthly partitions named <table>_YYYY_MM: metrics with metric_tags (see V7, V15) and metric_points (see V16)
+@Repository
+@RequiredArgsConstructor
+public class MetricPartitionRepository {
+
+    public enum Family {
+        // Tags first, so a failure never leaves tags attached for a metrics month that is gone
+        METRICS("metrics", "create_metrics_partition",
+                List.of(new Table("metric_tags", "metric_timestamp"), new Table("metrics", "timestamp"))),
+        METRIC_POINTS("metric_points", "create_metric_points_partition",
+                List.of(new Table("metric_points", "ts")));
+
+        private final String parent;
+        private final String createFunction;
+        private final List<Table> tables;
+
+        Family(String parent, String createFunction, List<Table> tables) {
+            this.parent = parent;
+            this.createFunction = createFunction;
+            this.tables = tables;
+        }
+
+        public String parent() {
+            return parent;
+        }
+    }
+
+    private record Table(String name, String partitionKey) {}
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    // Held until the maintenance transaction ends; every replica schedules the job
+    private static final String MAINTENANCE_LOCK_SQL =
+            "SELECT pg_try_advisory_xact_lock(hashtext('metrics_partition_maintenance'))";
+
+    private static final String FIND_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = :parent";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Must run inside a transaction
+    public boolean tryLockMaintenance() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                MAINTENANCE_LOCK_SQL, new MapSqlParameterSource(), Boolean.class));
+    }
+
+    // Moves any rows the default partition caught for the month into it
+    public void create(Family family, YearMonth month) {
+        jdbcTemplate.queryForList("SELECT " + family.createFunction + "(:month)",
+                new MapSqlParameterSource("month", month.atDay(1)));
+    }
+
+    // Attached monthly partitions only; the default partition is never returned
+    public List<YearMonth> findMonths(Family family) {
+        Pattern monthly = Pattern.compile("^" + family.parent + "_(\\d{4})_(\\d{2})$");
+        return jdbcTemplate.queryForList(FIND_PARTITIONS_SQL, new MapSqlParameterSource("parent", family.parent),
+                        String.class).stream()
+                .map(name -> {
+                    Matcher matcher = monthly.matcher(name);
+                    return matcher.matches()
+                            ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                            : null;
+                })
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+
+    public void detach(Family family, YearMonth month) {
+        String suffix = month.format(SUFFIX_FORMAT);
+        for (Table table : family.tables) {
+            jdbcTemplate.getJdbcOperations().execute(
+                    "ALTER TABLE " + table.name() + " DETACH PARTITION " + table.name() + "_" + suffix);
+        }
+    }
+
+    // Rows outside every monthly partition are expired row by row. Returns the number removed from the parent.
+    public int trimDefault(Family family, YearMonth before) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("before", before.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC), Types.TIMESTAMP_WITH_TIMEZONE);
+        int removed = 0;
+        for (Table table : family.tables) {
+            removed = jdbcTemplate.update(
+                    "DELETE FROM " + table.name() + "_default WHERE " + table.partitionKey() + " < :before", params);
+        }
+        return removed;
+    }
+
+    public void drop(Family family, YearMonth month) {
+        String suffix = month.format(SUFFIX_FORMAT);
+        for (Table table : family.tables) {
+            jdbcTemplate.getJdbcOperations().execute("DROP TABLE IF EXISTS " + table.name() + "_" + suffix);
+        }
+    }
+}
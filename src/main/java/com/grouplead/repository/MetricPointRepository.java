@@ -0,0 +1,144 @@
+package com.grouplead.repository;
+
+import com.grouplead.domain.enums.MetricType;
+import com.grouplead.domain.vo.MetricPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
+// Datapoint store keyed by series and timestamp, read back as plain (timestamp, value) pairs
+@Repository
+@RequiredArgsConstructor
+public class MetricPointRepository {
+
+    // Recent buckets are re-read until they settle, and the latest copy wins since CloudWatch fills a bucket in
+    // late. RETURNING reports only rows that were inserted or changed, so re-delivered points are not counted twice.
+    private static final String APPEND_SQL =
+            "INSERT INTO metric_points (series_id, ts, value) VALUES :rows " +
+            "ON CONFLICT (series_id, ts) DO UPDATE SET value = EXCLUDED.value " +
+            "WHERE metric_points.value IS DISTINCT FROM EXCLUDED.value RETURNING ts, value";
+
+    // Three bind parameters per row keeps each statement well under the 65535 parameter limit
+    private static final int APPEND_CHUNK_SIZE = 5000;
+
+    // New points only; the legacy table is read separately
+    private static final String VALUES_BY_TYPE_SQL =
+            "SELECT p.value FROM metric_points p " +
+            "JOIN metric_series s ON s.id = p.series_id " +
+            "WHERE s.metric_type = :type AND p.ts >= :start AND p.ts < :end";
+
+    private static final String LEGACY_VALUES_SQL =
+            "SELECT m.value FROM metrics m WHERE m.type = :type AND m.timestamp >= :start AND m.timestamp < :end";
+
+    // Rows still in the legacy metrics table are included until they age out
+    private static final String FIND_BY_TYPE_SQL =
+            "SELECT p.ts, p.value FROM metric_points p " +
+            "JOIN metric_series s ON s.id = p.series_id " +
+            "WHERE s.metric_type = :type AND p.ts BETWEEN :start AND :end " +
+            "UNION ALL " +
+            "SELECT m.timestamp, m.value FROM metrics m " +
+            "WHERE m.type = :type AND m.timestamp BETWEEN :start AND :end " +
+            "ORDER BY 1";
+
+    // One row per resource and metric type; legacy rows carry no resource and are left out
+    private static final String RESOURCE_SUMMARY_SQL =
+            "SELECT s.resource_id, s.metric_type, s.metric_name, AVG(p.value) AS average, SUM(p.value) AS total " +
+            "FROM metric_points p " +
+            "JOIN metric_series s ON s.id = p.series_id " +
+            "WHERE s.metric_type IN (:types) AND p.ts >= :start AND p.ts < :end " +
+            "GROUP BY s.resource_id, s.metric_type, s.metric_name";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Returns the points that were new or changed
+    public List<MetricPoint> append(long seriesId, List<MetricPoint> points) {
+        List<MetricPoint> inserted = new ArrayList<>();
+
+        for (int from = 0; from < points.size(); from += APPEND_CHUNK_SIZE) {
+            List<MetricPoint> chunk = points.subList(from, Math.min(from + APPEND_CHUNK_SIZE, points.size()));
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+            for (MetricPoint point : chunk) {
+                rows.add(new Object[]{seriesId, toUtc(point.timestamp()), point.value()});
+            }
+
+            inserted.addAll(jdbcTemplate.query(APPEND_SQL, new MapSqlParameterSource("rows", rows),
+                    (rs, rowNum) -> new MetricPoint(
+                            rs.getObject(1, OffsetDateTime.class).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime(),
+                            rs.getDouble(2))));
+        }
+
+        return inserted;
+    }
+
+    // Streams rows in timestamp order straight into the consumer; wide ranges never build a row object per point
+    public void forEachPoint(MetricType type, LocalDateTime start, LocalDateTime end, PointConsumer consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("type", type.name())
+                .addValue("start", toUtc(start), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("end", toUtc(end), Types.TIMESTAMP_WITH_TIMEZONE);
+
+        jdbcTemplate.query(FIND_BY_TYPE_SQL, params, rs -> {
+            consumer.accept(rs.getObject(1, OffsetDateTime.class).toInstant().toEpochMilli(), rs.getDouble(2));
+        });
+    }
+
+    // Points not yet covered by an hourly sketch
+    public void forEachValue(MetricType type, LocalDateTime start, LocalDateTime end, DoubleConsumer consumer) {
+        forEachValue(VALUES_BY_TYPE_SQL, type, start, end, consumer);
+    }
+
+    // Legacy rows have no sketches, so their values are fed in one by one
+    public void forEachLegacyValue(MetricType type, LocalDateTime start, LocalDateTime end, DoubleConsumer consumer) {
+        forEachValue(LEGACY_VALUES_SQL, type, start, end, consumer);
+    }
+
+    public void forEachResourceSummary(Collection<MetricType> types, LocalDateTime start, LocalDateTime end,
+                                       ResourceSummaryConsumer consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("types", types.stream().map(MetricType::name).toList())
+                .addValue("start", toUtc(start), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("end", toUtc(end), Types.TIMESTAMP_WITH_TIMEZONE);
+
+        jdbcTemplate.query(RESOURCE_SUMMARY_SQL, params, rs -> {
+            consumer.accept(rs.getString("resource_id"), MetricType.valueOf(rs.getString("metric_type")),
+                    rs.getString("metric_name"), rs.getDouble("average"), rs.getDouble("total"));
+        });
+    }
+
+    @FunctionalInterface
+    public interface ResourceSummaryConsumer {
+        void accept(String resourceId, MetricType type, String metricName, double average, double total);
+    }
+
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(long epochMillis, double value);
+    }
+
+    private void forEachValue(String sql, MetricType type, LocalDateTime start, LocalDateTime end,
+                              DoubleConsumer consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("type", type.name())
+                .addValue("start", toUtc(start), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("end", toUtc(end), Types.TIMESTAMP_WITH_TIMEZONE);
+
+        jdbcTemplate.query(sql, params, rs -> {
+            consumer.accept(rs.getDouble(1));
+        });
+    }
+
+    // Matches hibernate.jdbc.time_zone=UTC used by the entity mappings
+    private OffsetDateTime toUtc(LocalDateTime value) {
+        return value != null ? value.atOffset(ZoneOffset.UTC) : null;
+    }
+}
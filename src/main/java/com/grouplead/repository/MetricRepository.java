@@ -3,9 +3,11 @@ package com.grouplead.repository;
 import com.grouplead.domain.entity.Metric;
 import com.grouplead.domain.enums.MetricType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -62,8 +64,11 @@ public interface MetricRepository extends JpaRepository<Metric, Long> {
     @Query("SELECT m FROM Metric m WHERE m.timestamp >= :since ORDER BY m.timestamp DESC")
     List<Metric> findRecent(@Param("since") LocalDateTime since);
 
+    // Retention is handled by PartitionMaintenanceJob; this is for ad-hoc trims inside the current months
+    @Modifying
+    @Transactional
     @Query("DELETE FROM Metric m WHERE m.timestamp < :before")
-    void deleteOlderThan(@Param("before") LocalDateTime before);
+    int deleteOlderThan(@Param("before") LocalDateTime before);
 
     @Query("SELECT AVG(m.value) FROM Metric m WHERE m.team.id = :teamId AND m.type = 'VELOCITY' " +
             "AND m.timestamp BETWEEN :start AND :end")
@@ -0,0 +1,179 @@
+package com.grouplead.repository;
+
+import com.grouplead.domain.enums.MetricType;
+import com.grouplead.domain.vo.MetricPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// metric_rollup_1h / metric_rollup_1d; buckets are UTC and every statement works on whole buckets
+@Repository
+@RequiredArgsConstructor
+public class MetricRollupRepository {
+
+    public enum Rollup {
+        HOURLY("metric_rollup_1h", "metric_sketch_1h"),
+        DAILY("metric_rollup_1d", "metric_sketch_1d");
+
+        private final String table;
+        private final String sketchTable;
+
+        Rollup(String table, String sketchTable) {
+            this.table = table;
+            this.sketchTable = sketchTable;
+        }
+
+        public String table() {
+            return table;
+        }
+
+        public String sketchTable() {
+            return sketchTable;
+        }
+    }
+
+    // Rebuilds every hour in [from, to) from raw points, replacing what was there
+    private static final String ROLL_UP_HOURS_SQL =
+            "INSERT INTO metric_rollup_1h (series_id, bucket, sample_count, sum_value, min_value, max_value, last_value, last_ts) " +
+            "SELECT series_id, date_trunc('hour', ts AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', " +
+            "COUNT(*), SUM(value), MIN(value), MAX(value), (array_agg(value ORDER BY ts DESC))[1], MAX(ts) " +
+            "FROM metric_points WHERE ts >= :from AND ts < :to " +
+            "GROUP BY 1, 2 " +
+            "ON CONFLICT (series_id, bucket) DO UPDATE SET " +
+            "sample_count = EXCLUDED.sample_count, sum_value = EXCLUDED.sum_value, " +
+            "min_value = EXCLUDED.min_value, max_value = EXCLUDED.max_value, " +
+            "last_value = EXCLUDED.last_value, last_ts = EXCLUDED.last_ts";
+
+    // Days are built from hours, never from raw points
+    private static final String ROLL_UP_DAYS_SQL =
+            "INSERT INTO metric_rollup_1d (series_id, bucket, sample_count, sum_value, min_value, max_value, last_value, last_ts) " +
+            "SELECT series_id, date_trunc('day', bucket AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', " +
+            "SUM(sample_count), SUM(sum_value), MIN(min_value), MAX(max_value), " +
+            "(array_agg(last_value ORDER BY last_ts DESC))[1], MAX(last_ts) " +
+            "FROM metric_rollup_1h WHERE bucket >= :from AND bucket < :to " +
+            "GROUP BY 1, 2 " +
+            "ON CONFLICT (series_id, bucket) DO UPDATE SET " +
+            "sample_count = EXCLUDED.sample_count, sum_value = EXCLUDED.sum_value, " +
+            "min_value = EXCLUDED.min_value, max_value = EXCLUDED.max_value, " +
+            "last_value = EXCLUDED.last_value, last_ts = EXCLUDED.last_ts";
+
+    private static final String FIND_WATERMARK_SQL =
+            "SELECT watermark FROM metric_rollup_watermark WHERE rollup = :rollup";
+
+    private static final String SAVE_WATERMARK_SQL =
+            "INSERT INTO metric_rollup_watermark (rollup, watermark, updated_at) " +
+            "VALUES (:rollup, :watermark, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (rollup) DO UPDATE SET watermark = EXCLUDED.watermark, updated_at = CURRENT_TIMESTAMP";
+
+    private static final String EARLIEST_POINT_SQL = "SELECT MIN(ts) FROM metric_points";
+
+    // Held until the job's transaction ends; every replica schedules the rollups
+    private static final String ROLLUP_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('metric_rollup'))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Must run inside a transaction
+    public boolean tryLockRollup() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                ROLLUP_LOCK_SQL, new MapSqlParameterSource(), Boolean.class));
+    }
+
+    public int rollUpHours(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update(ROLL_UP_HOURS_SQL, range(from, to));
+    }
+
+    public int rollUpDays(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update(ROLL_UP_DAYS_SQL, range(from, to));
+    }
+
+    public Optional<LocalDateTime> findWatermark(Rollup rollup) {
+        return jdbcTemplate.query(FIND_WATERMARK_SQL, new MapSqlParameterSource("rollup", rollup.name()),
+                        (rs, rowNum) -> fromUtc(rs.getObject(1, OffsetDateTime.class)))
+                .stream()
+                .findFirst();
+    }
+
+    public void saveWatermark(Rollup rollup, LocalDateTime watermark) {
+        jdbcTemplate.update(SAVE_WATERMARK_SQL, new MapSqlParameterSource()
+                .addValue("rollup", rollup.name())
+                .addValue("watermark", toUtc(watermark), Types.TIMESTAMP_WITH_TIMEZONE));
+    }
+
+    // Retention: drops the rollup's buckets and sketches that start before the cutoff. Returns the rollup rows removed.
+    public int deleteBefore(Rollup rollup, LocalDateTime before) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("before", toUtc(before), Types.TIMESTAMP_WITH_TIMEZONE);
+        jdbcTemplate.update("DELETE FROM " + rollup.sketchTable() + " WHERE bucket < :before", params);
+        return jdbcTemplate.update("DELETE FROM " + rollup.table() + " WHERE bucket < :before", params);
+    }
+
+    public Optional<LocalDateTime> findEarliestPoint() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(EARLIEST_POINT_SQL, new MapSqlParameterSource(),
+                OffsetDateTime.class)).map(this::fromUtc);
+    }
+
+    // Mean per bucket across every series of the type. Each part of [start, end) is read from the coarsest
+    // complete source: daily rollups before dailyUntil, hourly before hourlyUntil, raw points after that.
+    // Expects start <= dailyUntil <= hourlyUntil <= end. Rows of the legacy metrics table are always read raw.
+    public List<MetricPoint> findBucketMeans(MetricType type, String truncUnit, LocalDateTime start, LocalDateTime end,
+                                             LocalDateTime dailyUntil, LocalDateTime hourlyUntil) {
+        List<String> parts = new ArrayList<>();
+        if (dailyUntil.isAfter(start)) {
+            parts.add(rollupPart(Rollup.DAILY, ":start", ":dailyUntil"));
+        }
+        if (hourlyUntil.isAfter(dailyUntil)) {
+            parts.add(rollupPart(Rollup.HOURLY, ":dailyUntil", ":hourlyUntil"));
+        }
+        parts.add("SELECT date_trunc(:unit, p.ts AT TIME ZONE 'UTC') AS bucket, p.value AS total, 1 AS samples " +
+                "FROM metric_points p JOIN metric_series s ON s.id = p.series_id " +
+                "WHERE s.metric_type = :type AND p.ts >= :hourlyUntil AND p.ts < :end");
+        parts.add("SELECT date_trunc(:unit, m.timestamp AT TIME ZONE 'UTC'), m.value, 1 " +
+                "FROM metrics m WHERE m.type = :type AND m.timestamp >= :start AND m.timestamp < :end");
+
+        String sql = "SELECT bucket, SUM(total) / SUM(samples) FROM (" + String.join(" UNION ALL ", parts) + ") b " +
+                "GROUP BY bucket ORDER BY bucket";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("type", type.name())
+                .addValue("unit", truncUnit)
+                .addValue("start", toUtc(start), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("end", toUtc(end), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("dailyUntil", toUtc(dailyUntil), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("hourlyUntil", toUtc(hourlyUntil), Types.TIMESTAMP_WITH_TIMEZONE);
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new MetricPoint(
+                rs.getObject(1, LocalDateTime.class),
+                rs.getDouble(2)
+        ));
+    }
+
+    private String rollupPart(Rollup rollup, String from, String to) {
+        return "SELECT date_trunc(:unit, r.bucket AT TIME ZONE 'UTC') AS bucket, r.sum_value AS total, r.sample_count AS samples " +
+                "FROM " + rollup.table() + " r JOIN metric_series s ON s.id = r.series_id " +
+                "WHERE s.metric_type = :type AND r.bucket >= " + from + " AND r.bucket < " + to;
+    }
+
+    private MapSqlParameterSource range(LocalDateTime from, LocalDateTime to) {
+        return new MapSqlParameterSource()
+                .addValue("from", toUtc(from), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("to", toUtc(to), Types.TIMESTAMP_WITH_TIMEZONE);
+    }
+
+    // Matches hibernate.jdbc.time_zone=UTC used by the entity mappings
+    private OffsetDateTime toUtc(LocalDateTime value) {
+        return value != null ? value.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    private LocalDateTime fromUtc(OffsetDateTime value) {
+        return value.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+}
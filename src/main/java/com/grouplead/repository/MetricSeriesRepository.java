@@ -0,0 +1,66 @@
+package com.grouplead.repository;
+
+import com.grouplead.domain.vo.MetricSeriesKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Types;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Dictionary of metric series; ids never change once committed, so they are cached for the process lifetime
+@Repository
+@RequiredArgsConstructor
+public class MetricSeriesRepository {
+
+    // The no-op update makes RETURNING yield the id of an existing row too
+    private static final String UPSERT_SQL =
+            "INSERT INTO metric_series (series_key, team_id, metric_type, namespace, metric_name, " +
+            "dimension_name, dimension_value, resource_id) " +
+            "VALUES (:seriesKey, :teamId, :metricType, :namespace, :metricName, " +
+            ":dimensionName, :dimensionValue, :resourceId) " +
+            "ON CONFLICT (series_key) DO UPDATE SET series_key = EXCLUDED.series_key " +
+            "RETURNING id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<String, Long> idsByKey = new ConcurrentHashMap<>();
+
+    public long resolveId(MetricSeriesKey series) {
+        Long cached = idsByKey.get(series.key());
+        if (cached != null) {
+            return cached;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("seriesKey", series.key())
+                .addValue("teamId", series.teamId(), Types.BIGINT)
+                .addValue("metricType", series.type().name())
+                .addValue("namespace", series.namespace())
+                .addValue("metricName", series.metricName())
+                .addValue("dimensionName", series.dimensionName(), Types.VARCHAR)
+                .addValue("dimensionValue", series.dimensionValue(), Types.VARCHAR)
+                .addValue("resourceId", series.resourceId());
+
+        Long id = jdbcTemplate.queryForObject(UPSERT_SQL, params, Long.class);
+        cacheAfterCommit(series.key(), id);
+        return id;
+    }
+
+    // A series inserted by a transaction that rolls back never existed, so its id must not outlive it
+    private void cacheAfterCommit(String key, Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            idsByKey.put(key, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                idsByKey.put(key, id);
+            }
+        });
+    }
+}
@@ -0,0 +1,134 @@
+package com.grouplead.repository;
+
+import com.grouplead.domain.enums.MetricType;
+import com.grouplead.repository.MetricRollupRepository.Rollup;
+import com.grouplead.util.QuantileSketch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// metric_sketch_1h / metric_sketch_1d: one serialized QuantileSketch per series and UTC bucket
+@Repository
+@RequiredArgsConstructor
+public class MetricSketchRepository {
+
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    // Ordered so each (series, bucket) group arrives contiguously and can be written as soon as it ends
+    private static final String RAW_POINTS_SQL =
+            "SELECT series_id, date_trunc('hour', ts AT TIME ZONE 'UTC') AS bucket, value FROM metric_points " +
+            "WHERE ts >= :from AND ts < :to ORDER BY series_id, ts";
+
+    private static final String HOUR_SKETCHES_SQL =
+            "SELECT series_id, date_trunc('day', bucket AT TIME ZONE 'UTC') AS bucket, sketch FROM metric_sketch_1h " +
+            "WHERE bucket >= :from AND bucket < :to ORDER BY series_id, bucket";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Replaces the hourly sketches in [from, to) with ones built from the raw points. The rollup job is the only
+    // writer, so ingest never waits on sketch rows; points that land later are picked up by the next rebuild.
+    public int rebuildHours(LocalDateTime from, LocalDateTime to) {
+        SketchWriter writer = new SketchWriter(Rollup.HOURLY);
+        jdbcTemplate.query(RAW_POINTS_SQL, range(from, to), rs -> {
+            writer.group(rs.getLong(1), rs.getObject(2, LocalDateTime.class)).add(rs.getDouble(3));
+        });
+        return writer.finish();
+    }
+
+    // Replaces the daily sketches in [from, to) with merges of their hours
+    public int rollUpDays(LocalDateTime from, LocalDateTime to) {
+        SketchWriter writer = new SketchWriter(Rollup.DAILY);
+        jdbcTemplate.query(HOUR_SKETCHES_SQL, range(from, to), rs -> {
+            writer.group(rs.getLong(1), rs.getObject(2, LocalDateTime.class))
+                    .merge(QuantileSketch.fromBytes(rs.getBytes(3)));
+        });
+        return writer.finish();
+    }
+
+    // One merge per stored bucket, whatever the number of raw points behind it
+    public void mergeInto(QuantileSketch target, MetricType type, Rollup rollup, LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT k.sketch FROM " + rollup.sketchTable() + " k " +
+                "JOIN metric_series s ON s.id = k.series_id " +
+                "WHERE s.metric_type = :type AND k.bucket >= :from AND k.bucket < :to";
+
+        jdbcTemplate.query(sql, range(from, to).addValue("type", type.name()), rs -> {
+            target.merge(QuantileSketch.fromBytes(rs.getBytes(1)));
+        });
+    }
+
+    private MapSqlParameterSource range(LocalDateTime from, LocalDateTime to) {
+        return new MapSqlParameterSource()
+                .addValue("from", toUtc(from), Types.TIMESTAMP_WITH_TIMEZONE)
+                .addValue("to", toUtc(to), Types.TIMESTAMP_WITH_TIMEZONE);
+    }
+
+    // Matches hibernate.jdbc.time_zone=UTC used by the entity mappings
+    private OffsetDateTime toUtc(LocalDateTime value) {
+        return value != null ? value.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    // Accumulates one sketch per (series, bucket) from ordered rows and upserts them in batches
+    private final class SketchWriter {
+
+        private final String upsertSql;
+        private final List<SqlParameterSource> pending = new ArrayList<>();
+        private long seriesId;
+        private LocalDateTime bucket;
+        private QuantileSketch current;
+        private int written;
+
+        SketchWriter(Rollup rollup) {
+            this.upsertSql = "INSERT INTO " + rollup.sketchTable() + " (series_id, bucket, sketch) " +
+                    "VALUES (:seriesId, :bucket, :sketch) " +
+                    "ON CONFLICT (series_id, bucket) DO UPDATE SET sketch = EXCLUDED.sketch";
+        }
+
+        QuantileSketch group(long seriesId, LocalDateTime bucket) {
+            if (current == null || this.seriesId != seriesId || !this.bucket.equals(bucket)) {
+                complete();
+                this.seriesId = seriesId;
+                this.bucket = bucket;
+                this.current = new QuantileSketch();
+            }
+            return current;
+        }
+
+        int finish() {
+            complete();
+            flush();
+            return written;
+        }
+
+        private void complete() {
+            if (current == null) {
+                return;
+            }
+            pending.add(new MapSqlParameterSource()
+                    .addValue("seriesId", seriesId)
+                    .addValue("bucket", toUtc(bucket), Types.TIMESTAMP_WITH_TIMEZONE)
+                    .addValue("sketch", current.toBytes()));
+            current = null;
+            if (pending.size() >= WRITE_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(upsertSql, pending.toArray(SqlParameterSource[]::new));
+            written += pending.size();
+            pending.clear();
+        }
+    }
+}
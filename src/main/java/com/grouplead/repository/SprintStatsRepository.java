@@ -0,0 +1,213 @@
+package com.grouplead.repository;
+
+import com.grouplead.domain.enums.SprintStatus;
+import com.grouplead.domain.enums.TicketStatus;
+import com.grouplead.domain.vo.SprintTicketStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// The sprint_stats counters: one row per sprint and ticket status, so reading a sprint never touches its tickets
+@Repository
+@RequiredArgsConstructor
+public class SprintStatsRepository {
+
+    private static final String SPRINT_COLUMNS =
+            "s.id, s.external_id, s.name, s.status, s.start_date, s.end_date, s.committed_points";
+
+    // A sprint without counters comes back once with a null status
+    private static final String STATS_SQL =
+            "SELECT " + SPRINT_COLUMNS + ", st.status AS ticket_status, st.tickets, st.story_points, " +
+            "st.cycle_time_count, st.cycle_time_sum_hours " +
+            "FROM (%s) s " +
+            "LEFT JOIN sprint_stats st ON st.sprint_id = s.id " +
+            "ORDER BY s.end_date DESC NULLS LAST, s.id";
+
+    private static final String LAST_BY_TEAM_SQL = STATS_SQL.formatted(
+            "SELECT * FROM sprints WHERE team_id = :teamId ORDER BY end_date DESC NULLS LAST LIMIT :limit");
+
+    private static final String LAST_SQL = STATS_SQL.formatted(
+            "SELECT * FROM sprints ORDER BY end_date DESC NULLS LAST LIMIT :limit");
+
+    private static final String BY_ID_SQL = STATS_SQL.formatted(
+            "SELECT * FROM sprints WHERE id = :sprintId");
+
+    private static final String BY_EXTERNAL_ID_SQL = STATS_SQL.formatted(
+            "SELECT * FROM sprints WHERE external_id = :externalId");
+
+    // Deltas add onto the stored counters, so concurrent writers to the same sprint never lose an update
+    private static final String APPLY_DELTA_SQL =
+            "INSERT INTO sprint_stats (sprint_id, status, tickets, story_points, cycle_time_count, " +
+            "cycle_time_sum_hours, updated_at) " +
+            "VALUES (:sprintId, :status, :tickets, :points, :cycleTimeCount, :cycleTimeSum, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (sprint_id, status) DO UPDATE SET " +
+            "tickets = sprint_stats.tickets + EXCLUDED.tickets, " +
+            "story_points = sprint_stats.story_points + EXCLUDED.story_points, " +
+            "cycle_time_count = sprint_stats.cycle_time_count + EXCLUDED.cycle_time_count, " +
+            "cycle_time_sum_hours = sprint_stats.cycle_time_sum_hours + EXCLUDED.cycle_time_sum_hours, " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    private static final String DELETE_EMPTY_SQL =
+            "DELETE FROM sprint_stats WHERE sprint_id IN (:sprintIds) AND tickets = 0";
+
+    // Same cycle time as Ticket.getCycleTimeHours: whole hours between started and completed
+    private static final String ACTUAL_SQL =
+            "SELECT sprint_id, status, COUNT(*) AS tickets, COALESCE(SUM(story_points), 0) AS story_points, " +
+            "COUNT(completed_at - started_at) AS cycle_time_count, " +
+            "COALESCE(SUM(TRUNC(EXTRACT(EPOCH FROM (completed_at - started_at)) / 3600)), 0) AS cycle_time_sum_hours " +
+            "FROM tickets WHERE sprint_id IS NOT NULL GROUP BY sprint_id, status";
+
+    private static final String STORED_SQL =
+            "SELECT sprint_id, status, tickets, story_points, cycle_time_count, cycle_time_sum_hours " +
+            "FROM sprint_stats WHERE tickets <> 0";
+
+    private static final String DRIFT_SQL =
+            "WITH actual AS (" + ACTUAL_SQL + "), stored AS (" + STORED_SQL + ") " +
+            "SELECT COUNT(*) FROM ((SELECT * FROM actual EXCEPT SELECT * FROM stored) " +
+            "UNION ALL (SELECT * FROM stored EXCEPT SELECT * FROM actual)) drift";
+
+    // Writers hold row locks on the counters until they commit, so once this is granted every delta already
+    // applied is visible in tickets too, and later ones wait and add onto the rebuilt rows
+    private static final String LOCK_SQL = "LOCK TABLE sprint_stats IN EXCLUSIVE MODE";
+
+    private static final String DELETE_ALL_SQL = "DELETE FROM sprint_stats";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO sprint_stats (sprint_id, status, tickets, story_points, cycle_time_count, " +
+            "cycle_time_sum_hours, updated_at) " +
+            "SELECT sprint_id, status, tickets, story_points, cycle_time_count, cycle_time_sum_hours, " +
+            "CURRENT_TIMESTAMP FROM (" + ACTUAL_SQL + ") actual";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Most recent first, by end date
+    public List<SprintTicketStats> findLastByTeam(Long teamId, int limit) {
+        return query(LAST_BY_TEAM_SQL, new MapSqlParameterSource()
+                .addValue("teamId", teamId)
+                .addValue("limit", limit));
+    }
+
+    // Across all teams, most recent first
+    public List<SprintTicketStats> findLast(int limit) {
+        return query(LAST_SQL, new MapSqlParameterSource("limit", limit));
+    }
+
+    public Optional<SprintTicketStats> findBySprintId(Long sprintId) {
+        return query(BY_ID_SQL, new MapSqlParameterSource("sprintId", sprintId)).stream().findFirst();
+    }
+
+    public Optional<SprintTicketStats> findByExternalId(String externalId) {
+        return query(BY_EXTERNAL_ID_SQL, new MapSqlParameterSource("externalId", externalId)).stream().findFirst();
+    }
+
+    // Moves each ticket's old state out of its sprint's counters and its new state in. Must run in the
+    // transaction that changed the tickets.
+    public void apply(Collection<Contribution> removed, Collection<Contribution> added) {
+        Map<Contribution.Key, long[]> deltas = new TreeMap<>(Contribution.Key.ORDER);
+        for (Contribution contribution : removed) {
+            contribution.addTo(deltas, -1);
+        }
+        for (Contribution contribution : added) {
+            contribution.addTo(deltas, 1);
+        }
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0 && delta[2] == 0 && delta[3] == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Sorted keys keep concurrent batches locking counter rows in the same order
+        List<SqlParameterSource> rows = new ArrayList<>(deltas.size());
+        List<Long> sprintIds = new ArrayList<>();
+        for (Map.Entry<Contribution.Key, long[]> entry : deltas.entrySet()) {
+            long[] delta = entry.getValue();
+            rows.add(new MapSqlParameterSource()
+                    .addValue("sprintId", entry.getKey().sprintId())
+                    .addValue("status", entry.getKey().status().name())
+                    .addValue("tickets", delta[0])
+                    .addValue("points", delta[1])
+                    .addValue("cycleTimeCount", delta[2])
+                    .addValue("cycleTimeSum", delta[3]));
+            sprintIds.add(entry.getKey().sprintId());
+        }
+
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, rows.toArray(new SqlParameterSource[0]));
+        jdbcTemplate.update(DELETE_EMPTY_SQL, new MapSqlParameterSource("sprintIds", sprintIds));
+    }
+
+    // Recounts every sprint from its tickets and returns how many counter rows were wrong.
+    // Must run inside a transaction.
+    public int reconcile() {
+        jdbcTemplate.update(LOCK_SQL, new MapSqlParameterSource());
+
+        Integer drift = jdbcTemplate.queryForObject(DRIFT_SQL, new MapSqlParameterSource(), Integer.class);
+        if (drift != null && drift > 0) {
+            jdbcTemplate.update(DELETE_ALL_SQL, new MapSqlParameterSource());
+            jdbcTemplate.update(REBUILD_SQL, new MapSqlParameterSource());
+        }
+        return drift != null ? drift : 0;
+    }
+
+    private List<SprintTicketStats> query(String sql, MapSqlParameterSource params) {
+        Map<Long, SprintTicketStats> sprints = new LinkedHashMap<>();
+
+        jdbcTemplate.query(sql, params, rs -> {
+            long id = rs.getLong("id");
+            SprintTicketStats sprint = sprints.get(id);
+            if (sprint == null) {
+                sprint = new SprintTicketStats(
+                        id,
+                        rs.getString("external_id"),
+                        rs.getString("name"),
+                        SprintStatus.valueOf(rs.getString("status")),
+                        rs.getObject("start_date", LocalDate.class),
+                        rs.getObject("end_date", LocalDate.class),
+                        rs.getObject("committed_points", Integer.class),
+                        new EnumMap<>(TicketStatus.class));
+                sprints.put(id, sprint);
+            }
+
+            String ticketStatus = rs.getString("ticket_status");
+            if (ticketStatus != null) {
+                sprint.byStatus().put(TicketStatus.valueOf(ticketStatus), new SprintTicketStats.StatusTotals(
+                        rs.getInt("tickets"),
+                        rs.getInt("story_points"),
+                        rs.getInt("cycle_time_count"),
+                        rs.getLong("cycle_time_sum_hours")));
+            }
+        });
+
+        return new ArrayList<>(sprints.values());
+    }
+
+    // What one ticket adds to its sprint's counters
+    public record Contribution(long sprintId, TicketStatus status, Integer storyPoints, Long cycleTimeHours) {
+
+        private void addTo(Map<Key, long[]> deltas, int sign) {
+            long[] delta = deltas.computeIfAbsent(new Key(sprintId, status), key -> new long[4]);
+            delta[0] += sign;
+            delta[1] += sign * (storyPoints != null ? storyPoints : 0L);
+            if (cycleTimeHours != null) {
+                delta[2] += sign;
+                delta[3] += sign * cycleTimeHours;
+            }
+        }
+
+        private record Key(long sprintId, TicketStatus status) {
+            static final Comparator<Key> ORDER = Comparator.comparingLong(Key::sprintId)
+                    .thenComparing(key -> key.status().name());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.grouplead.repository;
+
+import com.grouplead.domain.entity.SyncCheckpoint;
+import com.grouplead.domain.enums.SyncSource;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface SyncCheckpointRepository extends JpaRepository<SyncCheckpoint, Long> {
+
+    Optional<SyncCheckpoint> findBySourceAndScopeKey(SyncSource source, String scopeKey);
+
+    // Never moves a checkpoint backwards, even if two runs overlap
+    @Modifying
+    @Query(value = "INSERT INTO sync_checkpoint (source, scope_key, high_water_mark, updated_at) " +
+            "VALUES (:source, :scopeKey, :highWaterMark, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (source, scope_key) DO UPDATE SET " +
+            "high_water_mark = GREATEST(sync_checkpoint.high_water_mark, EXCLUDED.high_water_mark), " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int advance(@Param("source") String source,
+                @Param("scopeKey") String scopeKey,
+                @Param("highWaterMark") LocalDateTime highWaterMark);
+}
@@ -0,0 +1,79 @@
+package com.grouplead.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grouplead.domain.entity.Metric;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+
+// Team cost metrics: one row per team and Cost Explorer range, however often the range is collected
+@Repository
+@RequiredArgsConstructor
+public class TeamCostMetricRepository {
+
+    // Delete then insert, so two writers for the same team would each leave a row behind
+    private static final String LOCK_TEAM_SQL =
+            "SELECT 1 FROM pg_advisory_xact_lock(hashtext('team_cost:' || :teamId))";
+
+    // The timestamp is the range start, so the delete only touches that month's partition
+    private static final String DELETE_SQL =
+            "DELETE FROM metrics WHERE team_id = :teamId AND type = :type AND name = :name " +
+            "AND timestamp = :timestamp AND metadata ->> 'start_date' = :startDate " +
+            "AND metadata ->> 'end_date' = :endDate";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO metrics (team_id, type, name, value, unit, source, timestamp, metadata, created_at) " +
+            "VALUES (:teamId, :type, :name, :value, :unit, :source, :timestamp, CAST(:metadata AS jsonb), " +
+            "CURRENT_TIMESTAMP)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Must run inside a transaction; teams are locked in id order so concurrent callers cannot deadlock
+    public int replace(List<Metric> teamCosts) {
+        List<Metric> ordered = teamCosts.stream()
+                .sorted(Comparator.comparing(metric -> metric.getTeam().getId()))
+                .toList();
+
+        for (Metric metric : ordered) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("teamId", metric.getTeam().getId())
+                    .addValue("type", metric.getType().name())
+                    .addValue("name", metric.getName())
+                    .addValue("value", metric.getValue())
+                    .addValue("unit", metric.getUnit())
+                    .addValue("source", metric.getSource())
+                    .addValue("timestamp", toUtc(metric.getTimestamp()), Types.TIMESTAMP_WITH_TIMEZONE)
+                    .addValue("startDate", metric.getMetadataValue("start_date"))
+                    .addValue("endDate", metric.getMetadataValue("end_date"))
+                    .addValue("metadata", toJson(metric));
+
+            jdbcTemplate.queryForObject(LOCK_TEAM_SQL, params, Integer.class);
+            jdbcTemplate.update(DELETE_SQL, params);
+            jdbcTemplate.update(INSERT_SQL, params);
+        }
+        return ordered.size();
+    }
+
+    // Matches hibernate.jdbc.time_zone=UTC used by the entity mappings
+    private OffsetDateTime toUtc(LocalDateTime value) {
+        return value != null ? value.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    private String toJson(Metric metric) {
+        try {
+            return objectMapper.writeValueAsString(metric.getMetadata());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable metric metadata", e);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.grouplead.repository;
+
+import com.grouplead.domain.entity.Ticket;
+import com.grouplead.domain.enums.TicketSource;
+import com.grouplead.domain.enums.TicketStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Set-based ticket writes for the collectors, bypassing the persistence context
+@Repository
+@RequiredArgsConstructor
+public class TicketBulkRepository {
+
+    private static final String FIND_EXISTING_SQL =
+            "SELECT id, external_id, started_at, completed_at FROM tickets " +
+            "WHERE source = :source AND external_id IN (:externalIds)";
+
+    // Locks the rows so the staleness check holds until commit and the state moved out of sprint_stats is exactly
+    // the state being overwritten
+    private static final String LOCK_EXISTING_SQL =
+            "SELECT external_id, sprint_id, status, story_points, started_at, completed_at, external_updated_at " +
+            "FROM tickets WHERE source = :source AND external_id IN (:externalIds) " +
+            "ORDER BY id FOR UPDATE";
+
+    // Assignee and type are only set on insert, status timestamps are never cleared. A delivery older than the
+    // stored ticket leaves it alone, so a late webhook or a slow sync page cannot roll it back.
+    private static final String UPSERT_SQL =
+            "INSERT INTO tickets (external_id, source, developer_id, title, description, status, priority, " +
+            "ticket_type, story_points, started_at, completed_at, external_updated_at, created_at, updated_at) " +
+            "VALUES (:externalId, :source, :developerId, :title, :description, :status, :priority, " +
+            ":ticketType, :storyPoints, :startedAt, :completedAt, :externalUpdatedAt, " +
+            "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (external_id, source) DO UPDATE SET " +
+            "title = EXCLUDED.title, " +
+            "description = EXCLUDED.description, " +
+            "status = EXCLUDED.status, " +
+            "priority = EXCLUDED.priority, " +
+            "story_points = EXCLUDED.story_points, " +
+            "started_at = COALESCE(tickets.started_at, EXCLUDED.started_at), " +
+            "completed_at = COALESCE(tickets.completed_at, EXCLUDED.completed_at), " +
+            "external_updated_at = EXCLUDED.external_updated_at, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE tickets.external_updated_at IS NULL OR tickets.external_updated_at <= EXCLUDED.external_updated_at";
+
+    private static final String DELETE_LABELS_SQL =
+            "DELETE FROM ticket_labels tl USING tickets t " +
+            "WHERE tl.ticket_id = t.id AND t.source = :source AND t.external_id IN (:externalIds)";
+
+    private static final String INSERT_LABEL_SQL =
+            "INSERT INTO ticket_labels (ticket_id, label) " +
+            "SELECT id, :label FROM tickets WHERE source = :source AND external_id = :externalId " +
+            "ON CONFLICT DO NOTHING";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SprintStatsRepository sprintStatsRepository;
+
+    public Map<String, ExistingTicket> findExisting(TicketSource source, Collection<String> externalIds) {
+        Map<String, ExistingTicket> existing = new HashMap<>();
+        if (externalIds.isEmpty()) {
+            return existing;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("source", source.name())
+                .addValue("externalIds", externalIds);
+
+        jdbcTemplate.query(FIND_EXISTING_SQL, params, rs -> {
+            ExistingTicket ticket = new ExistingTicket(
+                    rs.getLong("id"),
+                    rs.getString("external_id"),
+                    getDateTime(rs, "started_at"),
+                    getDateTime(rs, "completed_at")
+            );
+            existing.put(ticket.externalId(), ticket);
+        });
+
+        return existing;
+    }
+
+    // Upserts the tickets and replaces their labels, all in JDBC batches, skipping tickets older than the stored
+    // ones. The sprint_stats counters are moved in the same transaction, so the caller must hold one. Returns how
+    // many tickets were written.
+    public int upsert(List<Ticket> tickets) {
+        if (tickets.isEmpty()) {
+            return 0;
+        }
+
+        TicketSource source = tickets.get(0).getSource();
+        Map<String, LockedTicket> locked = lockExisting(source,
+                tickets.stream().map(Ticket::getExternalId).toList());
+
+        List<Ticket> fresh = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            LockedTicket stored = locked.get(ticket.getExternalId());
+            if (stored == null || !stored.isNewerThan(ticket)) {
+                fresh.add(ticket);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+
+        SqlParameterSource[] rows = new SqlParameterSource[fresh.size()];
+        List<String> externalIds = new ArrayList<>(fresh.size());
+        List<SqlParameterSource> labels = new ArrayList<>();
+
+        for (int i = 0; i < fresh.size(); i++) {
+            Ticket ticket = fresh.get(i);
+            rows[i] = new MapSqlParameterSource()
+                    .addValue("externalId", ticket.getExternalId())
+                    .addValue("source", ticket.getSource().name())
+                    .addValue("developerId", ticket.getDeveloper() != null ? ticket.getDeveloper().getId() : null, Types.BIGINT)
+                    .addValue("title", ticket.getTitle())
+                    .addValue("description", ticket.getDescription(), Types.VARCHAR)
+                    .addValue("status", ticket.getStatus().name())
+                    .addValue("priority", ticket.getPriority(), Types.VARCHAR)
+                    .addValue("ticketType", ticket.getTicketType(), Types.VARCHAR)
+                    .addValue("storyPoints", ticket.getStoryPoints(), Types.INTEGER)
+                    .addValue("startedAt", toUtc(ticket.getStartedAt()), Types.TIMESTAMP_WITH_TIMEZONE)
+                    .addValue("completedAt", toUtc(ticket.getCompletedAt()), Types.TIMESTAMP_WITH_TIMEZONE)
+                    .addValue("externalUpdatedAt", toUtc(ticket.getExternalUpdatedAt()), Types.TIMESTAMP_WITH_TIMEZONE);
+            externalIds.add(ticket.getExternalId());
+
+            if (ticket.getLabels() != null) {
+                for (String label : ticket.getLabels()) {
+                    labels.add(new MapSqlParameterSource()
+                            .addValue("label", label)
+                            .addValue("source", ticket.getSource().name())
+                            .addValue("externalId", ticket.getExternalId()));
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+
+        updateSprintStats(fresh, locked);
+
+        jdbcTemplate.update(DELETE_LABELS_SQL, new MapSqlParameterSource()
+                .addValue("source", source.name())
+                .addValue("externalIds", externalIds));
+        if (!labels.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LABEL_SQL, labels.toArray(new SqlParameterSource[0]));
+        }
+
+        return fresh.size();
+    }
+
+    private Map<String, LockedTicket> lockExisting(TicketSource source, List<String> externalIds) {
+        Map<String, LockedTicket> existing = new HashMap<>();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("source", source.name())
+                .addValue("externalIds", externalIds);
+
+        jdbcTemplate.query(LOCK_EXISTING_SQL, params, rs -> {
+            long sprintId = rs.getLong("sprint_id");
+            SprintState sprintState = rs.wasNull() ? null : new SprintState(
+                    sprintId,
+                    TicketStatus.valueOf(rs.getString("status")),
+                    rs.getObject("story_points", Integer.class),
+                    getDateTime(rs, "started_at"),
+                    getDateTime(rs, "completed_at")
+            );
+            existing.put(rs.getString("external_id"),
+                    new LockedTicket(sprintState, getDateTime(rs, "external_updated_at")));
+        });
+        return existing;
+    }
+
+    // The upsert keeps the sprint and the first status timestamps, so the new state is derived the same way here.
+    // Inserted tickets have no sprint yet and do not count towards any.
+    private void updateSprintStats(List<Ticket> tickets, Map<String, LockedTicket> previous) {
+        List<SprintStatsRepository.Contribution> removed = new ArrayList<>();
+        List<SprintStatsRepository.Contribution> added = new ArrayList<>();
+        for (Ticket ticket : tickets) {
+            LockedTicket locked = previous.get(ticket.getExternalId());
+            SprintState before = locked != null ? locked.sprintState() : null;
+            if (before == null) {
+                continue;
+            }
+            SprintState after = new SprintState(
+                    before.sprintId(),
+                    ticket.getStatus(),
+                    ticket.getStoryPoints(),
+                    before.startedAt() != null ? before.startedAt() : ticket.getStartedAt(),
+                    before.completedAt() != null ? before.completedAt() : ticket.getCompletedAt()
+            );
+            removed.add(before.contribution());
+            added.add(after.contribution());
+        }
+
+        sprintStatsRepository.apply(removed, added);
+    }
+
+    // Matches hibernate.jdbc.time_zone=UTC used by the entity mappings
+    private OffsetDateTime toUtc(LocalDateTime value) {
+        return value != null ? value.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    private LocalDateTime getDateTime(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value != null ? value.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime() : null;
+    }
+
+    private record SprintState(long sprintId, TicketStatus status, Integer storyPoints,
+                               LocalDateTime startedAt, LocalDateTime completedAt) {
+
+        // Same whole hours as Ticket.getCycleTimeHours
+        SprintStatsRepository.Contribution contribution() {
+            Long cycleTimeHours = startedAt != null && completedAt != null
+                    ? Duration.between(startedAt, completedAt).toHours()
+                    : null;
+            return new SprintStatsRepository.Contribution(sprintId, status, storyPoints, cycleTimeHours);
+        }
+    }
+
+    private record LockedTicket(SprintState sprintState, LocalDateTime externalUpdatedAt) {
+
+        // Mirrors the upsert's guard: a stored time wins over a missing or earlier one
+        boolean isNewerThan(Ticket ticket) {
+            return externalUpdatedAt != null && (ticket.getExternalUpdatedAt() == null
+                    || externalUpdatedAt.isAfter(ticket.getExternalUpdatedAt()));
+        }
+    }
+
+    public record ExistingTicket(Long id, String externalId, LocalDateTime startedAt, LocalDateTime completedAt) {}
+}
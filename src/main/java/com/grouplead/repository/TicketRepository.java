@@ -35,6 +35,12 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Query("SELECT t FROM Ticket t WHERE t.completedAt >= :since ORDER BY t.completedAt DESC")
     List<Ticket> findCompletedSince(@Param("since") LocalDateTime since);
 
+    @Query("SELECT COUNT(t) FROM Ticket t WHERE t.completedAt BETWEEN :start AND :end")
+    long countCompletedInPeriod(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT COALESCE(SUM(t.storyPoints), 0) FROM Ticket t WHERE t.completedAt BETWEEN :start AND :end")
+    long sumStoryPointsCompletedInPeriod(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
     @Query("SELECT t FROM Ticket t WHERE t.externalUpdatedAt >= :since")
     List<Ticket> findUpdatedSince(@Param("since") LocalDateTime since);
 
@@ -0,0 +1,58 @@
+package com.grouplead.scheduler;
+
+import com.grouplead.repository.MetricRollupRepository;
+import com.grouplead.service.processor.MetricRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class AggregationScheduler {
+
+    private final MetricRollupService metricRollupService;
+    private final MetricRollupRepository metricRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${scheduler.aggregation.reconcile-window:7d}")
+    private Duration reconcileWindow;
+
+    @Scheduled(cron = "${scheduler.aggregation.hourly-cron}")
+    public void rollUpHours() {
+        runLocked("hourly metric rollup", metricRollupService::rollUpHours);
+    }
+
+    @Scheduled(cron = "${scheduler.aggregation.daily-cron}")
+    public void rollUpDays() {
+        runLocked("daily metric rollup", metricRollupService::rollUpDays);
+    }
+
+    // Catches points backfilled by explicit collection windows, which can be older than the late-data window
+    @Scheduled(cron = "${scheduler.aggregation.weekly-cron}")
+    public void reconcile() {
+        runLocked("weekly metric rollup reconciliation", () -> metricRollupService.reconcile(reconcileWindow));
+    }
+
+    // One replica at a time, and the rollups never overlap each other; the lock lives as long as this transaction
+    private void runLocked(String job, Runnable work) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!metricRollupRepository.tryLockRollup()) {
+                    log.info("Skipping {}, a rollup is already running", job);
+                    return;
+                }
+                work.run();
+            });
+        } catch (Exception e) {
+            log.error("Error during {}", job, e);
+        }
+    }
+}
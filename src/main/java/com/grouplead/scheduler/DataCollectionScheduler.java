@@ -1,7 +1,5 @@
 package com.grouplead.scheduler;
 
-import com.grouplead.domain.entity.Team;
-import com.grouplead.repository.TeamRepository;
 import com.grouplead.service.collector.CloudWatchCollectorService;
 import com.grouplead.service.collector.GitLabCollectorService;
 import com.grouplead.service.collector.JiraCollectorService;
@@ -12,8 +10,6 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -21,18 +17,25 @@ import java.util.List;
 @ConditionalOnProperty(name = "scheduler.enabled", havingValue = "true", matchIfMissing = true)
 public class DataCollectionScheduler {
 
+    private static final int COST_REFRESH_DAYS = 3;
+
     private final JiraCollectorService jiraCollectorService;
     private final GitLabCollectorService gitLabCollectorService;
     private final CloudWatchCollectorService cloudWatchCollectorService;
-    private final TeamRepository teamRepository;
 
     @Scheduled(cron = "${scheduler.data-collection.jira-cron}")
     public void collectJiraData() {
         log.info("Starting scheduled JIRA data collection");
         try {
-            LocalDateTime since = LocalDateTime.now().minusMinutes(20);
-            var result = jiraCollectorService.collectTickets(since);
-            log.info("JIRA collection completed: {} tickets collected", result.count());
+            int tickets = 0;
+            for (String projectKey : jiraCollectorService.getProjectKeys()) {
+                try {
+                    tickets += jiraCollectorService.collectTickets(projectKey).count();
+                } catch (Exception e) {
+                    log.error("Error collecting JIRA tickets for project {}", projectKey, e);
+                }
+            }
+            log.info("JIRA collection completed: {} tickets collected", tickets);
 
             int sprints = jiraCollectorService.collectSprints();
             log.info("JIRA sprint collection completed: {} sprints collected", sprints);
@@ -45,13 +48,12 @@ public class DataCollectionScheduler {
     public void collectGitLabData() {
         log.info("Starting scheduled GitLab data collection");
         try {
-            LocalDateTime since = LocalDateTime.now().minusMinutes(15);
+            // Projects are fanned out inside the collector
+            int commits = gitLabCollectorService.collectCommits().count();
+            int mergeRequests = gitLabCollectorService.collectMergeRequests().count();
 
-            var commitResult = gitLabCollectorService.collectCommits(since);
-            log.info("GitLab commit collection completed: {} commits collected", commitResult.count());
-
-            var mrResult = gitLabCollectorService.collectMergeRequests(since);
-            log.info("GitLab MR collection completed: {} merge requests collected", mrResult.count());
+            log.info("GitLab commit collection completed: {} commits collected", commits);
+            log.info("GitLab MR collection completed: {} merge requests collected", mergeRequests);
         } catch (Exception e) {
             log.error("Error during scheduled GitLab collection", e);
         }
@@ -61,16 +63,8 @@ public class DataCollectionScheduler {
     public void collectCloudWatchData() {
         log.info("Starting scheduled CloudWatch data collection");
         try {
-            LocalDateTime since = LocalDateTime.now().minusMinutes(10);
-            List<Team> teams = teamRepository.findAll();
-
-            for (Team team : teams) {
-                if (team.getAwsResources() != null && !team.getAwsResources().isEmpty()) {
-                    collectTeamAwsMetrics(team, since);
-                }
-            }
-
-            log.info("CloudWatch collection completed for {} teams", teams.size());
+            // Batched GetMetricData requests run concurrently; per-team results are logged by the executor
+            cloudWatchCollectorService.collectAllTeamMetrics();
         } catch (Exception e) {
             log.error("Error during scheduled CloudWatch collection", e);
         }
@@ -83,82 +77,15 @@ public class DataCollectionScheduler {
             LocalDate endDate = LocalDate.now();
             LocalDate startDate = endDate.minusDays(1);
 
-            List<Team> teams = teamRepository.findAll();
+            // One account-level fetch covers every team
+            var result = cloudWatchCollectorService.collectCostMetrics(startDate, endDate);
+            log.info("AWS Cost collection completed: {} metrics collected", result.collected());
 
-            for (Team team : teams) {
-                try {
-                    var result = cloudWatchCollectorService.collectCostMetrics(
-                            team.getId(), startDate, endDate);
-                    log.info("Cost metrics collected for team {}: {} metrics",
-                            team.getName(), result.collected());
-                } catch (Exception e) {
-                    log.error("Error collecting cost metrics for team {}: {}",
-                            team.getName(), e.getMessage());
-                }
-            }
-
-            log.info("AWS Cost collection completed");
+            // Cost Explorer keeps revising the last few days, so the cube re-reads them every run, today included
+            var daily = cloudWatchCollectorService.loadCostDays(endDate.minusDays(COST_REFRESH_DAYS), endDate.plusDays(1));
+            log.info("AWS daily cost refresh completed: {} rows loaded", daily.collected());
         } catch (Exception e) {
             log.error("Error during scheduled AWS Cost collection", e);
         }
     }
-
-    private void collectTeamAwsMetrics(Team team, LocalDateTime since) {
-        var resources = team.getAwsResources();
-
-        // Collect EC2 metrics
-        if (resources.containsKey("ec2_instances")) {
-            for (String instanceId : resources.get("ec2_instances").split(",")) {
-                try {
-                    var result = cloudWatchCollectorService.collectEC2Metrics(
-                            instanceId.trim(), team.getId(), since);
-                    log.debug("EC2 metrics collected for {}: {} metrics", instanceId, result.collected());
-                } catch (Exception e) {
-                    log.error("Error collecting EC2 metrics for {}: {}", instanceId, e.getMessage());
-                }
-            }
-        }
-
-        // Collect RDS metrics
-        if (resources.containsKey("rds_instances")) {
-            for (String dbInstanceId : resources.get("rds_instances").split(",")) {
-                try {
-                    var result = cloudWatchCollectorService.collectRDSMetrics(
-                            dbInstanceId.trim(), team.getId(), since);
-                    log.debug("RDS metrics collected for {}: {} metrics", dbInstanceId, result.collected());
-                } catch (Exception e) {
-                    log.error("Error collecting RDS metrics for {}: {}", dbInstanceId, e.getMessage());
-                }
-            }
-        }
-
-        // Collect ECS metrics
-        if (resources.containsKey("ecs_services")) {
-            for (String service : resources.get("ecs_services").split(",")) {
-                String[] parts = service.trim().split("/");
-                if (parts.length == 2) {
-                    try {
-                        var result = cloudWatchCollectorService.collectECSMetrics(
-                                parts[0], parts[1], team.getId(), since);
-                        log.debug("ECS metrics collected for {}: {} metrics", service, result.collected());
-                    } catch (Exception e) {
-                        log.error("Error collecting ECS metrics for {}: {}", service, e.getMessage());
-                    }
-                }
-            }
-        }
-
-        // Collect Lambda metrics
-        if (resources.containsKey("lambda_functions")) {
-            for (String functionName : resources.get("lambda_functions").split(",")) {
-                try {
-                    var result = cloudWatchCollectorService.collectLambdaMetrics(
-                            functionName.trim(), team.getId(), since);
-                    log.debug("Lambda metrics collected for {}: {} metrics", functionName, result.collected());
-                } catch (Exception e) {
-                    log.error("Error collecting Lambda metrics for {}: {}", functionName, e.getMessage());
-                }
-            }
-        }
-    }
 }
@@ -0,0 +1,48 @@
+package com.grouplead.scheduler;
+
+import com.grouplead.service.processor.DoraSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+// Backfills dora_daily once and periodically rebuilds recent days, catching changes no write event reported
+// (e.g. a developer moving teams or a refresh that failed)
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class DoraSnapshotJob {
+
+    private final DoraSnapshotService doraSnapshotService;
+
+    @Value("${scheduler.dora-snapshot.reconcile-days:7}")
+    private int reconcileDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            doraSnapshotService.backfillIfEmpty();
+        } catch (Exception e) {
+            log.error("Error backfilling DORA snapshot", e);
+        }
+    }
+
+    @Scheduled(cron = "${scheduler.dora-snapshot.cron:0 30 1 * * *}")
+    public void reconcile() {
+        try {
+            LocalDate to = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+            int rows = doraSnapshotService.rebuild(to.minusDays(reconcileDays + 1L), to);
+            log.info("DORA snapshot reconciled for the last {} days: {} team-days", reconcileDays, rows);
+        } catch (Exception e) {
+            log.error("Error reconciling DORA snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.grouplead.scheduler;
+
+import com.grouplead.repository.MetricPartitionRepository;
+import com.grouplead.repository.MetricPartitionRepository.Family;
+import com.grouplead.repository.MetricRollupRepository;
+import com.grouplead.repository.MetricRollupRepository.Rollup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+// Keeps metrics and metric_points partitions ahead of incoming data, drops whole months past retention and
+// expires old rollups and sketches
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenanceJob {
+
+    private final MetricPartitionRepository metricPartitionRepository;
+    private final MetricRollupRepository metricRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${scheduler.partition-maintenance.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${scheduler.partition-maintenance.retention-months:13}")
+    private int retentionMonths;
+
+    // Raw 5-minute points; older ranges are still served from the rollups
+    @Value("${scheduler.partition-maintenance.points-retention-months:3}")
+    private int pointsRetentionMonths;
+
+    @Value("${scheduler.partition-maintenance.hourly-rollup-retention-months:13}")
+    private int hourlyRollupRetentionMonths;
+
+    @Value("${scheduler.partition-maintenance.daily-rollup-retention-months:60}")
+    private int dailyRollupRetentionMonths;
+
+    // Detached partitions stay behind as plain tables, e.g. for archiving before a manual drop
+    @Value("${scheduler.partition-maintenance.detach-only:false}")
+    private boolean detachOnly;
+
+    // Also run at startup, in case the service was down when the next month's partition was due
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    // One transaction so the advisory lock keeps other replicas out until the work is done. Each step runs in
+    // its own savepoint, so one month that cannot be created or removed does not stop the others.
+    @Scheduled(cron = "${scheduler.partition-maintenance.cron:0 15 0 * * *}")
+    public void maintainPartitions() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!metricPartitionRepository.tryLockMaintenance()) {
+                    log.info("Metrics partition maintenance is already running on another instance");
+                    return;
+                }
+                maintain(status, Family.METRICS, retentionMonths);
+                maintain(status, Family.METRIC_POINTS, pointsRetentionMonths);
+                expireRollup(status, Rollup.HOURLY, hourlyRollupRetentionMonths);
+                expireRollup(status, Rollup.DAILY, dailyRollupRetentionMonths);
+            });
+        } catch (Exception e) {
+            log.error("Error during metrics partition maintenance", e);
+        }
+    }
+
+    private void maintain(TransactionStatus status, Family family, int retention) {
+        YearMonth oldestKept = YearMonth.now(ZoneOffset.UTC).minusMonths(retention);
+        createUpcoming(status, family);
+        trimDefault(status, family, oldestKept);
+        removeExpired(status, family, oldestKept);
+    }
+
+    private void createUpcoming(TransactionStatus status, Family family) {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            inSavepoint(status, "create the " + family.parent() + " partition for " + month,
+                    () -> metricPartitionRepository.create(family, month));
+        }
+    }
+
+    // The default partition only holds rows no monthly partition covered, which would otherwise never expire
+    private void trimDefault(TransactionStatus status, Family family, YearMonth oldestKept) {
+        inSavepoint(status, "trim the default " + family.parent() + " partition", () -> {
+            int removed = metricPartitionRepository.trimDefault(family, oldestKept);
+            if (removed > 0) {
+                log.info("Removed {} {} rows before {} from the default partition", removed, family.parent(), oldestKept);
+            }
+        });
+    }
+
+    // A month is expired once all of it is older than the retention window
+    private void removeExpired(TransactionStatus status, Family family, YearMonth oldestKept) {
+        for (YearMonth month : metricPartitionRepository.findMonths(family)) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            if (detachOnly) {
+                inSavepoint(status, "detach the " + family.parent() + " partition for " + month, () -> {
+                    metricPartitionRepository.detach(family, month);
+                    log.info("Detached {} partition for {}", family.parent(), month);
+                });
+            } else {
+                inSavepoint(status, "drop the " + family.parent() + " partition for " + month, () -> {
+                    metricPartitionRepository.drop(family, month);
+                    log.info("Dropped {} partition for {}", family.parent(), month);
+                });
+            }
+        }
+    }
+
+    // Rollups are not partitioned, so their buckets are deleted on the same month boundaries
+    private void expireRollup(TransactionStatus status, Rollup rollup, int retention) {
+        YearMonth oldestKept = YearMonth.now(ZoneOffset.UTC).minusMonths(retention);
+        inSavepoint(status, "expire " + rollup.table(), () -> {
+            int removed = metricRollupRepository.deleteBefore(rollup, oldestKept.atDay(1).atStartOfDay());
+            if (removed > 0) {
+                log.info("Removed {} {} buckets before {}", removed, rollup.table(), oldestKept);
+            }
+        });
+    }
+
+    private void inSavepoint(TransactionStatus status, String step, Runnable work) {
+        Object savepoint = status.createSavepoint();
+        try {
+            work.run();
+            status.releaseSavepoint(savepoint);
+        } catch (RuntimeException e) {
+            status.rollbackToSavepoint(savepoint);
+            log.error("Could not {}", step, e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.grouplead.scheduler;
+
+import com.grouplead.repository.SprintStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Recounts sprint_stats from the tickets, catching writes that bypassed the bulk upsert
+// (e.g. sprint assignments made through JPA or by hand)
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "scheduler.enabled", havingValue = "true", matchIfMissing = true)
+public class SprintStatsReconcileJob {
+
+    private final SprintStatsRepository sprintStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${scheduler.sprint-stats.cron:0 45 * * * *}")
+    public void reconcile() {
+        try {
+            Integer drift = transactionTemplate.execute(status -> sprintStatsRepository.reconcile());
+            if (drift != null && drift > 0) {
+                log.warn("Sprint stats had drifted from the tickets, rebuilt {} counter rows", drift);
+            } else {
+                log.debug("Sprint stats match the tickets");
+            }
+        } catch (Exception e) {
+            log.error("Error reconciling sprint stats", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.grouplead.service.collector;
+
+import com.grouplead.config.IntegrationProperties;
+import com.grouplead.integration.aws.CostExplorerMetricsClient;
+import com.grouplead.integration.aws.dto.AccountCostSnapshot;
+import com.grouplead.integration.aws.dto.CostData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Cost Explorer bills per request, so each date range is fetched once and shared by every team
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountCostCache {
+
+    private final CostExplorerMetricsClient costExplorerClient;
+    private final AwsCollectionExecutor collectionExecutor;
+    private final IntegrationProperties properties;
+
+    // Holding the future means concurrent callers for the same range share one in-flight fetch
+    private final Map<DateRangeKey, CompletableFuture<AccountCostSnapshot>> snapshots = new ConcurrentHashMap<>();
+
+    public CompletableFuture<AccountCostSnapshot> get(LocalDate startDate, LocalDate endDate) {
+        DateRangeKey key = new DateRangeKey(startDate, endDate);
+        evictExpired();
+
+        CompletableFuture<AccountCostSnapshot> snapshot = snapshots.computeIfAbsent(key,
+                range -> fetch(range.startDate(), range.endDate()));
+        // Don't keep failures around; the next caller retries
+        snapshot.whenComplete((result, error) -> {
+            if (error != null) {
+                snapshots.remove(key, snapshot);
+            }
+        });
+        return snapshot;
+    }
+
+    private CompletableFuture<AccountCostSnapshot> fetch(LocalDate startDate, LocalDate endDate) {
+        String teamTag = properties.getAws().getCost().getTeamTag();
+        log.info("Fetching account cost from {} to {} grouped by tag {}", startDate, endDate, teamTag);
+
+        // Each request takes a Cost Explorer permit, so the fetches stay within the API's throttling limit
+        CompletableFuture<CostData> total = collectionExecutor.callAsync(AwsCollectionExecutor.AwsApi.COST_EXPLORER,
+                () -> costExplorerClient.getTotalCostAsync(startDate, endDate));
+        CompletableFuture<Map<String, CostData>> byService = collectionExecutor.callAsync(AwsCollectionExecutor.AwsApi.COST_EXPLORER,
+                () -> costExplorerClient.getCostByServiceAsync(startDate, endDate));
+        CompletableFuture<Map<String, CostData>> byTag = collectionExecutor.callAsync(AwsCollectionExecutor.AwsApi.COST_EXPLORER,
+                () -> costExplorerClient.getCostByTagAsync(teamTag, startDate, endDate));
+
+        return CompletableFuture.allOf(total, byService, byTag)
+                .thenApply(done -> {
+                    Map<String, CostData> costByTeamTag = new HashMap<>(byTag.join());
+                    costByTeamTag.remove("");
+
+                    return AccountCostSnapshot.builder()
+                            .startDate(startDate)
+                            .endDate(endDate)
+                            .teamTag(teamTag)
+                            .totalCost(total.join())
+                            .costByService(byService.join())
+                            .costByTeamTag(costByTeamTag)
+                            .fetchedAt(Instant.now())
+                            .build();
+                });
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(properties.getAws().getCost().getCacheTtl());
+        snapshots.entrySet().removeIf(entry -> {
+            CompletableFuture<AccountCostSnapshot> snapshot = entry.getValue();
+            return snapshot.isDone() && !snapshot.isCompletedExceptionally()
+                    && snapshot.join().getFetchedAt().isBefore(cutoff);
+        });
+    }
+
+    private record DateRangeKey(LocalDate startDate, LocalDate endDate) {}
+}
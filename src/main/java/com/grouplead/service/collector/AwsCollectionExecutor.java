@@ -0,0 +1,227 @@
+package com.grouplead.service.collector;
+
+import com.grouplead.config.IntegrationProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Runs AWS collection tasks on virtual threads, scoped to a single run with a shared deadline
+@Component
+@Slf4j
+public class AwsCollectionExecutor {
+
+    public enum AwsApi {
+        CLOUDWATCH,
+        COST_EXPLORER
+    }
+
+    private final Map<AwsApi, Semaphore> permits = new EnumMap<>(AwsApi.class);
+    private final Duration runDeadline;
+    private final Duration cancelGrace;
+    private final ExecutorService permitWaiters = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AwsCollectionExecutor(IntegrationProperties properties) {
+        var config = properties.getAws().getCollection();
+        permits.put(AwsApi.CLOUDWATCH, new Semaphore(Math.max(1, config.getCloudwatchPermits())));
+        permits.put(AwsApi.COST_EXPLORER, new Semaphore(Math.max(1, config.getCostExplorerPermits())));
+        this.runDeadline = config.getRunDeadline();
+        this.cancelGrace = config.getCancelGrace();
+    }
+
+    // Returns once every task has finished or the deadline has passed, whichever comes first
+    public RunSummary run(String runName, List<Task> tasks) {
+        Instant deadline = Instant.now().plus(runDeadline);
+        Map<String, TeamSummary> teams = new LinkedHashMap<>();
+        boolean deadlineExceeded = false;
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Map<Task, Future<List<Outcome>>> futures = new LinkedHashMap<>();
+            for (Task task : tasks) {
+                futures.put(task, executor.submit(() -> withPermit(task, deadline)));
+            }
+
+            for (Map.Entry<Task, Future<List<Outcome>>> entry : futures.entrySet()) {
+                Task task = entry.getKey();
+                try {
+                    long remaining = Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+                    for (Outcome outcome : entry.getValue().get(remaining, TimeUnit.NANOSECONDS)) {
+                        summaryFor(teams, outcome.team()).add(outcome);
+                    }
+                } catch (TimeoutException e) {
+                    entry.getValue().cancel(true);
+                    deadlineExceeded = true;
+                    recordFailure(teams, task, "deadline exceeded");
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.warn("{} task {} failed: {}", runName, task.label(), cause.getMessage());
+                    recordFailure(teams, task, cause.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    recordFailure(teams, task, "interrupted");
+                    break;
+                }
+            }
+        } finally {
+            // close() would wait for tasks that outlived the deadline; interrupt them and wait only briefly
+            if (deadlineExceeded) {
+                executor.shutdownNow();
+            } else {
+                executor.shutdown();
+            }
+            awaitTermination(runName, executor);
+        }
+
+        RunSummary summary = new RunSummary(runName, teams, deadlineExceeded);
+        log(summary);
+        return summary;
+    }
+
+    // Async SDK call that waits for a permit first and holds it until the response arrives; the wait happens on a
+    // virtual thread, never on the caller's or the SDK's
+    public <T> CompletableFuture<T> callAsync(AwsApi api, Supplier<CompletableFuture<T>> request) {
+        Semaphore semaphore = permits.get(api);
+        Instant deadline = Instant.now().plus(runDeadline);
+
+        return CompletableFuture.runAsync(() -> acquire(semaphore, api, deadline), permitWaiters)
+                .thenCompose(acquired -> {
+                    CompletableFuture<T> response;
+                    try {
+                        response = request.get();
+                    } catch (RuntimeException e) {
+                        semaphore.release();
+                        throw e;
+                    }
+                    return response.whenComplete((result, error) -> semaphore.release());
+                });
+    }
+
+    // Single call outside a scheduled run, e.g. an explicit backfill; shares the permits with the runs
+    public <T> T call(AwsApi api, Callable<T> work) throws Exception {
+        return withPermit(api, work, Instant.now().plus(runDeadline));
+    }
+
+    private List<Outcome> withPermit(Task task, Instant deadline) throws Exception {
+        return withPermit(task.api(), task.work(), deadline);
+    }
+
+    private <T> T withPermit(AwsApi api, Callable<T> work, Instant deadline) throws Exception {
+        Semaphore semaphore = permits.get(api);
+        long remaining = Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+        if (!semaphore.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("No " + api + " permit before the deadline");
+        }
+        try {
+            return work.call();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private void acquire(Semaphore semaphore, AwsApi api, Instant deadline) {
+        try {
+            long remaining = Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+            if (!semaphore.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                throw new CompletionException(new TimeoutException("No " + api + " permit before the deadline"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    // Only threads waiting for a permit run here, so nothing is lost by interrupting them
+    @PreDestroy
+    void stop() {
+        permitWaiters.shutdownNow();
+    }
+
+    private void awaitTermination(String runName, ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(cancelGrace.toNanos(), TimeUnit.NANOSECONDS)) {
+                log.warn("{} returning with tasks still running {} after cancellation", runName, cancelGrace);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void recordFailure(Map<String, TeamSummary> teams, Task task, String error) {
+        for (String team : task.teams()) {
+            TeamSummary summary = summaryFor(teams, team);
+            summary.add(new Outcome(team, 0, 1));
+            summary.getErrors().add(task.label() + ": " + error);
+        }
+    }
+
+    private TeamSummary summaryFor(Map<String, TeamSummary> teams, String team) {
+        return teams.computeIfAbsent(team, TeamSummary::new);
+    }
+
+    private void log(RunSummary summary) {
+        for (TeamSummary team : summary.teams().values()) {
+            if (team.getFailed() > 0) {
+                log.warn("{} for team {}: {} collected, {} failed {}", summary.run(), team.getTeam(),
+                        team.getCollected(), team.getFailed(), team.getErrors());
+            }
+        }
+        log.info("{} completed: {} collected, {} failed across {} teams{}", summary.run(),
+                summary.collected(), summary.failed(), summary.teams().size(),
+                summary.deadlineExceeded() ? " (deadline exceeded)" : "");
+    }
+
+    // A unit of work against one AWS API; teams are the ones charged if it fails as a whole
+    public record Task(String label, AwsApi api, Set<String> teams, Callable<List<Outcome>> work) {}
+
+    public record Outcome(String team, int collected, int failed) {}
+
+    // Only touched by the thread that runs the collection
+    @Getter
+    public static class TeamSummary {
+        private final String team;
+        private final List<String> errors = new ArrayList<>();
+        private int collected;
+        private int failed;
+
+        TeamSummary(String team) {
+            this.team = team;
+        }
+
+        void add(Outcome outcome) {
+            collected += outcome.collected();
+            failed += outcome.failed();
+        }
+    }
+
+    public record RunSummary(String run, Map<String, TeamSummary> teams, boolean deadlineExceeded) {
+        public int collected() {
+            return teams.values().stream().mapToInt(TeamSummary::getCollected).sum();
+        }
+
+        public int failed() {
+            return teams.values().stream().mapToInt(TeamSummary::getFailed).sum();
+        }
+    }
+}
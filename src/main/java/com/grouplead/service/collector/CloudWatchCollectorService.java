@@ -1,224 +1,555 @@
 package com.grouplead.service.collector;
 
+import com.grouplead.config.IntegrationProperties;
 import com.grouplead.domain.entity.Metric;
 import com.grouplead.domain.entity.Team;
 import com.grouplead.domain.enums.MetricType;
+import com.grouplead.domain.enums.SyncSource;
+import com.grouplead.domain.vo.MetricPoint;
+import com.grouplead.domain.vo.MetricSeriesKey;
 import com.grouplead.integration.aws.CloudWatchMetricsClient;
 import com.grouplead.integration.aws.CostExplorerMetricsClient;
-import com.grouplead.integration.aws.dto.CloudWatchMetric;
+import com.grouplead.integration.aws.dto.AccountCostSnapshot;
+import com.grouplead.integration.aws.dto.CloudWatchMetricDataResult;
+import com.grouplead.integration.aws.dto.CloudWatchMetricQuery;
 import com.grouplead.integration.aws.dto.CostData;
-import com.grouplead.integration.aws.dto.CostForecast;
-import com.grouplead.repository.MetricRepository;
+import com.grouplead.integration.aws.dto.DailyServiceCost;
+import com.grouplead.repository.CostDailyRepository;
+import com.grouplead.repository.MetricPointRepository;
+import com.grouplead.repository.MetricSeriesRepository;
+import com.grouplead.repository.TeamCostMetricRepository;
 import com.grouplead.repository.TeamRepository;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.cloudwatch.model.StatusCode;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class CloudWatchCollectorService {
 
     private static final Logger log = LoggerFactory.getLogger(CloudWatchCollectorService.class);
+    private static final String COST_TAG_RESOURCE_KEY = "cost_tag";
+    private static final String COST_SOURCE = "aws-cost-explorer";
 
     private final CloudWatchMetricsClient cloudWatchClient;
     private final CostExplorerMetricsClient costExplorerClient;
-    private final MetricRepository metricRepository;
+    private final MetricWriter metricWriter;
+    private final MetricSeriesRepository metricSeriesRepository;
+    private final MetricPointRepository metricPointRepository;
     private final TeamRepository teamRepository;
+    private final SyncCheckpointService syncCheckpointService;
+    private final TransactionTemplate transactionTemplate;
+    private final AwsCollectionExecutor collectionExecutor;
+    private final AccountCostCache accountCostCache;
+    private final CostDailyRepository costDailyRepository;
+    private final TeamCostMetricRepository teamCostMetricRepository;
+    private final IntegrationProperties properties;
+    // Explicit backfills; closed on shutdown so in-flight writes finish before the DataSource goes away
+    private final ExecutorService backfillExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     public CloudWatchCollectorService(CloudWatchMetricsClient cloudWatchClient,
                                       CostExplorerMetricsClient costExplorerClient,
-                                      MetricRepository metricRepository,
-                                      TeamRepository teamRepository) {
+                                      MetricWriter metricWriter,
+                                      MetricSeriesRepository metricSeriesRepository,
+                                      MetricPointRepository metricPointRepository,
+                                      TeamRepository teamRepository,
+                                      SyncCheckpointService syncCheckpointService,
+                                      TransactionTemplate transactionTemplate,
+                                      AwsCollectionExecutor collectionExecutor,
+                                      AccountCostCache accountCostCache,
+                                      CostDailyRepository costDailyRepository,
+                                      TeamCostMetricRepository teamCostMetricRepository,
+                                      IntegrationProperties properties) {
         this.cloudWatchClient = cloudWatchClient;
         this.costExplorerClient = costExplorerClient;
-        this.metricRepository = metricRepository;
+        this.metricWriter = metricWriter;
+        this.metricSeriesRepository = metricSeriesRepository;
+        this.metricPointRepository = metricPointRepository;
         this.teamRepository = teamRepository;
+        this.syncCheckpointService = syncCheckpointService;
+        this.transactionTemplate = transactionTemplate;
+        this.collectionExecutor = collectionExecutor;
+        this.accountCostCache = accountCostCache;
+        this.costDailyRepository = costDailyRepository;
+        this.teamCostMetricRepository = teamCostMetricRepository;
+        this.properties = properties;
     }
 
-    @Transactional
-    public CollectionResult collectEC2Metrics(String instanceId, Long teamId, LocalDateTime since) {
-        log.info("Collecting EC2 metrics for instance {} since {}", instanceId, since);
+    // Backfills get up to the run deadline to finish; anything still running after that is interrupted
+    @PreDestroy
+    void stop() {
+        backfillExecutor.shutdown();
+        try {
+            Duration timeout = properties.getAws().getCollection().getRunDeadline();
+            if (!backfillExecutor.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                log.warn("Interrupting CloudWatch backfills still running after {}", timeout);
+                backfillExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            backfillExecutor.shutdownNow();
+        }
+    }
 
-        Team team = teamRepository.findById(teamId).orElse(null);
-        LocalDateTime now = LocalDateTime.now();
+    // ==================== Batched collection ====================
+
+    // One pass over every team's awsResources; each GetMetricData request runs on its own virtual thread
+    public AwsCollectionExecutor.RunSummary collectAllTeamMetrics() {
+        // CloudWatch timestamps and the metric_points columns are UTC
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        List<ResourceTarget> targets = new ArrayList<>();
+        for (Team team : teamRepository.findAll()) {
+            targets.addAll(resolveTargets(team));
+        }
 
-        List<CloudWatchMetric> cloudWatchMetrics = cloudWatchClient.getEC2Metrics(instanceId, since, now);
-        List<Metric> savedMetrics = new ArrayList<>();
+        // Resources sharing a checkpoint share a query window, normally all of them. New resources all start
+        // from one first-run mark so they are batched together too.
+        LocalDateTime firstRunSince = syncCheckpointService.initialHighWaterMark(now);
+        Map<LocalDateTime, List<ResourceTarget>> targetsBySince = new HashMap<>();
+        for (ResourceTarget target : targets) {
+            LocalDateTime since = syncCheckpointService.getHighWaterMark(
+                    SyncSource.CLOUDWATCH, target.scopeKey(), firstRunSince);
+            targetsBySince.computeIfAbsent(since, key -> new ArrayList<>()).add(target);
+        }
 
-        for (CloudWatchMetric cwMetric : cloudWatchMetrics) {
-            Metric metric = createMetric(cwMetric, team, "ec2:" + instanceId);
-            savedMetrics.add(metricRepository.save(metric));
+        List<AwsCollectionExecutor.Task> tasks = new ArrayList<>();
+        for (Map.Entry<LocalDateTime, List<ResourceTarget>> window : targetsBySince.entrySet()) {
+            LocalDateTime since = window.getKey();
+            for (List<ResourceTarget> chunk : chunkByRequest(window.getValue())) {
+                Set<String> teams = new LinkedHashSet<>();
+                chunk.forEach(target -> teams.add(target.teamName()));
+                tasks.add(new AwsCollectionExecutor.Task(
+                        "GetMetricData since " + since + " (" + chunk.size() + " resources)",
+                        AwsCollectionExecutor.AwsApi.CLOUDWATCH,
+                        teams,
+                        () -> collectWindow(chunk, since, now, true)));
+            }
         }
 
-        log.info("Collected {} EC2 metrics for instance {}", savedMetrics.size(), instanceId);
-        return new CollectionResult(savedMetrics.size(), 0);
+        return collectionExecutor.run("CloudWatch collection", tasks);
     }
 
-    @Transactional
-    public CollectionResult collectRDSMetrics(String dbInstanceId, Long teamId, LocalDateTime since) {
-        log.info("Collecting RDS metrics for instance {} since {}", dbInstanceId, since);
+    // Splits targets so every chunk fits in a single GetMetricData request
+    private List<List<ResourceTarget>> chunkByRequest(List<ResourceTarget> targets) {
+        List<List<ResourceTarget>> chunks = new ArrayList<>();
+        List<ResourceTarget> current = new ArrayList<>();
+        int queries = 0;
+
+        for (ResourceTarget target : targets) {
+            int size = target.type().metricNames().size();
+            if (!current.isEmpty() && queries + size > CloudWatchMetricsClient.MAX_QUERIES_PER_REQUEST) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                queries = 0;
+            }
+            current.add(target);
+            queries += size;
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
 
-        Team team = teamRepository.findById(teamId).orElse(null);
-        LocalDateTime now = LocalDateTime.now();
+        return chunks;
+    }
 
-        List<CloudWatchMetric> cloudWatchMetrics = cloudWatchClient.getRDSMetrics(dbInstanceId, since, now);
-        List<Metric> savedMetrics = new ArrayList<>();
+    // Runs on a collection virtual thread, which simply parks while the async client fetches
+    private List<AwsCollectionExecutor.Outcome> collectWindow(List<ResourceTarget> targets, LocalDateTime since,
+                                                              LocalDateTime now, boolean advanceCheckpoints) {
+        Map<ResourceTarget, List<CloudWatchMetricQuery>> queriesByTarget = buildQueries(targets);
+        Map<String, CloudWatchMetricDataResult> results = join(cloudWatchClient.getMetricDataAsync(
+                flatten(queriesByTarget), since, now));
+        return saveResults(queriesByTarget, results, now, advanceCheckpoints);
+    }
 
-        for (CloudWatchMetric cwMetric : cloudWatchMetrics) {
-            Metric metric = createMetric(cwMetric, team, "rds:" + dbInstanceId);
-            savedMetrics.add(metricRepository.save(metric));
+    private Map<ResourceTarget, List<CloudWatchMetricQuery>> buildQueries(List<ResourceTarget> targets) {
+        Map<ResourceTarget, List<CloudWatchMetricQuery>> queriesByTarget = new LinkedHashMap<>();
+        int next = 0;
+
+        for (ResourceTarget target : targets) {
+            List<CloudWatchMetricQuery> targetQueries = new ArrayList<>();
+            for (String metricName : target.type().metricNames()) {
+                targetQueries.add(CloudWatchMetricQuery.builder()
+                        .id("q" + next++)
+                        .namespace(target.type().namespace())
+                        .metricName(metricName)
+                        .dimensions(target.dimensions())
+                        .build());
+            }
+            queriesByTarget.put(target, targetQueries);
         }
 
-        log.info("Collected {} RDS metrics for instance {}", savedMetrics.size(), dbInstanceId);
-        return new CollectionResult(savedMetrics.size(), 0);
+        return queriesByTarget;
     }
 
-    @Transactional
-    public CollectionResult collectECSMetrics(String clusterName, String serviceName, Long teamId, LocalDateTime since) {
-        log.info("Collecting ECS metrics for service {}/{} since {}", clusterName, serviceName, since);
+    private List<CloudWatchMetricQuery> flatten(Map<ResourceTarget, List<CloudWatchMetricQuery>> queriesByTarget) {
+        return queriesByTarget.values().stream().flatMap(List::stream).toList();
+    }
 
-        Team team = teamRepository.findById(teamId).orElse(null);
-        LocalDateTime now = LocalDateTime.now();
+    private List<AwsCollectionExecutor.Outcome> saveResults(Map<ResourceTarget, List<CloudWatchMetricQuery>> queriesByTarget,
+                                                            Map<String, CloudWatchMetricDataResult> results,
+                                                            LocalDateTime now, boolean advanceCheckpoints) {
+        LocalDateTime settled = settledUntil(now);
+
+        return transactionTemplate.execute(status -> {
+            List<AwsCollectionExecutor.Outcome> outcomes = new ArrayList<>();
+
+            for (Map.Entry<ResourceTarget, List<CloudWatchMetricQuery>> entry : queriesByTarget.entrySet()) {
+                ResourceTarget target = entry.getKey();
+                boolean complete = true;
+                int saved = 0;
+
+                for (CloudWatchMetricQuery query : entry.getValue()) {
+                    CloudWatchMetricDataResult result = results.get(query.getId());
+                    if (result == null || !isComplete(result)) {
+                        complete = false;
+                        continue;
+                    }
+                    saved += appendPoints(result, target);
+                }
+
+                // Leave the checkpoint in place so the window is retried next cycle
+                if (!complete) {
+                    log.warn("Incomplete CloudWatch data for {}", target.resourceId());
+                } else if (advanceCheckpoints) {
+                    syncCheckpointService.advance(SyncSource.CLOUDWATCH, target.scopeKey(), settled);
+                }
+                outcomes.add(new AwsCollectionExecutor.Outcome(target.teamName(), saved, complete ? 0 : 1));
+            }
+
+            return outcomes;
+        });
+    }
+
+    // Start of the newest bucket that is a full period plus the settle lag old; later buckets may still change
+    private LocalDateTime settledUntil(LocalDateTime now) {
+        long period = CloudWatchMetricQuery.DEFAULT_PERIOD_SECONDS;
+        Duration settleLag = properties.getAws().getCloudwatch().getSettleLag();
+        long epochSecond = now.minus(settleLag).toEpochSecond(ZoneOffset.UTC) - period;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSecond, period) * period, 0, ZoneOffset.UTC);
+    }
+
+    private List<ResourceTarget> resolveTargets(Team team) {
+        List<ResourceTarget> targets = new ArrayList<>();
+        Map<String, String> resources = team.getAwsResources();
+        if (resources == null || resources.isEmpty()) {
+            return targets;
+        }
+
+        for (ResourceType type : ResourceType.values()) {
+            String configured = resources.get(type.resourceKey());
+            if (configured == null || configured.isBlank()) {
+                continue;
+            }
+
+            for (String value : configured.split(",")) {
+                String resource = value.trim();
+                if (resource.isEmpty()) {
+                    continue;
+                }
+
+                String[] parts = resource.split("/");
+                if (parts.length != type.dimensionNames().size()) {
+                    log.warn("Skipping malformed {} entry '{}' for team {}", type.resourceKey(), resource, team.getName());
+                    continue;
+                }
+
+                Map<String, String> dimensions = new LinkedHashMap<>();
+                for (int i = 0; i < parts.length; i++) {
+                    dimensions.put(type.dimensionNames().get(i), parts[i]);
+                }
+                targets.add(new ResourceTarget(team, type, type.prefix() + ":" + resource, dimensions));
+            }
+        }
+
+        return targets;
+    }
 
-        List<CloudWatchMetric> cloudWatchMetrics = cloudWatchClient.getECSMetrics(clusterName, serviceName, since, now);
-        List<Metric> savedMetrics = new ArrayList<>();
+    private boolean isComplete(CloudWatchMetricDataResult result) {
+        return result.getStatusCode() == null
+                || StatusCode.COMPLETE.toString().equals(result.getStatusCode());
+    }
 
-        for (CloudWatchMetric cwMetric : cloudWatchMetrics) {
-            Metric metric = createMetric(cwMetric, team, "ecs:" + clusterName + "/" + serviceName);
-            savedMetrics.add(metricRepository.save(metric));
+    // Every datapoint is kept at its own timestamp; re-collected ones replace the value read before
+    private int appendPoints(CloudWatchMetricDataResult result, ResourceTarget target) {
+        if (result.getDataPoints().isEmpty()) {
+            return 0;
         }
 
-        log.info("Collected {} ECS metrics for service {}/{}", savedMetrics.size(), clusterName, serviceName);
-        return new CollectionResult(savedMetrics.size(), 0);
+        MetricSeriesKey series = new MetricSeriesKey(
+                target.team() != null ? target.team().getId() : null,
+                mapToMetricType(result.getMetricName()),
+                result.getNamespace(),
+                result.getMetricName(),
+                target.resourceId(),
+                result.getDimensionName(),
+                result.getDimensionValue()
+        );
+
+        List<MetricPoint> points = result.getDataPoints().stream()
+                .map(dataPoint -> new MetricPoint(dataPoint.getTimestamp(), dataPoint.getValue()))
+                .toList();
+
+        long seriesId = metricSeriesRepository.resolveId(series);
+        return metricPointRepository.append(seriesId, points).size();
     }
 
-    @Transactional
-    public CollectionResult collectLambdaMetrics(String functionName, Long teamId, LocalDateTime since) {
-        log.info("Collecting Lambda metrics for function {} since {}", functionName, since);
+    // ==================== Explicit window collection ====================
+
+    public CompletableFuture<CollectionResult> collectEC2Metrics(String instanceId, Long teamId, LocalDateTime since) {
+        return collectResource(ResourceType.EC2, instanceId, teamId, since);
+    }
+
+    public CompletableFuture<CollectionResult> collectRDSMetrics(String dbInstanceId, Long teamId, LocalDateTime since) {
+        return collectResource(ResourceType.RDS, dbInstanceId, teamId, since);
+    }
+
+    public CompletableFuture<CollectionResult> collectECSMetrics(String clusterName, String serviceName,
+                                                                 Long teamId, LocalDateTime since) {
+        return collectResource(ResourceType.ECS, clusterName + "/" + serviceName, teamId, since);
+    }
+
+    public CompletableFuture<CollectionResult> collectLambdaMetrics(String functionName, Long teamId, LocalDateTime since) {
+        return collectResource(ResourceType.LAMBDA, functionName, teamId, since);
+    }
+
+    // Backfills an explicit window without touching the scheduled pass's checkpoints
+    private CompletableFuture<CollectionResult> collectResource(ResourceType type, String resource,
+                                                               Long teamId, LocalDateTime since) {
+        log.info("Collecting {} metrics for {} since {}", type.namespace(), resource, since);
 
         Team team = teamRepository.findById(teamId).orElse(null);
-        LocalDateTime now = LocalDateTime.now();
+        String[] parts = resource.split("/");
+        Map<String, String> dimensions = new LinkedHashMap<>();
+        for (int i = 0; i < parts.length && i < type.dimensionNames().size(); i++) {
+            dimensions.put(type.dimensionNames().get(i), parts[i]);
+        }
+
+        ResourceTarget target = new ResourceTarget(team, type, type.prefix() + ":" + resource, dimensions);
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+
+        // Waits for a CloudWatch permit like the scheduled runs; the wait and the writes block, so on a virtual thread
+        return CompletableFuture.supplyAsync(() -> {
+            List<AwsCollectionExecutor.Outcome> outcomes;
+            try {
+                outcomes = collectionExecutor.call(AwsCollectionExecutor.AwsApi.CLOUDWATCH,
+                        () -> collectWindow(List.of(target), since, now, false));
+            } catch (Exception e) {
+                throw e instanceof RuntimeException runtime ? runtime : new CompletionException(e);
+            }
+
+            int collected = 0;
+            int errors = 0;
+            for (AwsCollectionExecutor.Outcome outcome : outcomes) {
+                collected += outcome.collected();
+                errors += outcome.failed();
+            }
+            log.info("Collected {} {} datapoints for {}", collected, type.namespace(), resource);
+            return new CollectionResult(collected, errors);
+        }, backfillExecutor);
+    }
+
+    // Account-wide rows once, plus one row per team taken from the team tag breakdown
+    public CollectionResult collectCostMetrics(LocalDate startDate, LocalDate endDate) {
+        log.info("Collecting cost metrics from {} to {}", startDate, endDate);
 
-        List<CloudWatchMetric> cloudWatchMetrics = cloudWatchClient.getLambdaMetrics(functionName, since, now);
-        List<Metric> savedMetrics = new ArrayList<>();
+        AccountCostSnapshot snapshot = join(accountCostCache.get(startDate, endDate));
 
-        for (CloudWatchMetric cwMetric : cloudWatchMetrics) {
-            Metric metric = createMetric(cwMetric, team, "lambda:" + functionName);
-            savedMetrics.add(metricRepository.save(metric));
+        List<Metric> teamCosts = new ArrayList<>();
+        for (Team team : teamRepository.findAll()) {
+            teamCostMetric(team, snapshot).ifPresent(teamCosts::add);
         }
+        Integer teamRows = transactionTemplate.execute(status -> teamCostMetricRepository.replace(teamCosts));
+        MetricWriter.WriteResult written = join(metricWriter.appendAll(accountCostMetrics(snapshot)));
 
-        log.info("Collected {} Lambda metrics for function {}", savedMetrics.size(), functionName);
-        return new CollectionResult(savedMetrics.size(), 0);
+        int saved = (teamRows != null ? teamRows : 0) + (int) written.persisted();
+        log.info("Persisted {} cost metrics, dropped {}", saved, written.dropped());
+        return new CollectionResult(saved, (int) written.dropped());
     }
 
-    @Transactional
     public CollectionResult collectCostMetrics(Long teamId, LocalDate startDate, LocalDate endDate) {
-        log.info("Collecting cost metrics from {} to {}", startDate, endDate);
+        log.info("Collecting cost metrics for team {} from {} to {}", teamId, startDate, endDate);
 
-        Team team = teamRepository.findById(teamId).orElse(null);
-        List<Metric> savedMetrics = new ArrayList<>();
+        AccountCostSnapshot snapshot = join(accountCostCache.get(startDate, endDate));
+
+        List<Metric> teamCosts = teamRepository.findById(teamId)
+                .flatMap(team -> teamCostMetric(team, snapshot))
+                .stream()
+                .toList();
+        Integer saved = transactionTemplate.execute(status -> teamCostMetricRepository.replace(teamCosts));
+
+        return new CollectionResult(saved != null ? saved : 0, 0);
+    }
+
+    private List<Metric> accountCostMetrics(AccountCostSnapshot snapshot) {
+        List<Metric> metrics = new ArrayList<>();
+        String startDate = snapshot.getStartDate().toString();
+        String endDate = snapshot.getEndDate().toString();
+        // MetricWriter encodes timestamps as UTC
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
 
         // Total cost
-        CostData totalCost = costExplorerClient.getTotalCost(startDate, endDate);
-        Metric totalCostMetric = Metric.builder()
-                .team(team)
-                .type(MetricType.COST)
+        CostData totalCost = snapshot.getTotalCost();
+        metrics.add(Metric.builder()
+                .type(MetricType.AWS_COST)
                 .name("total_cost")
                 .value(totalCost.getTotalAmount())
                 .unit(totalCost.getCurrency())
-                .timestamp(LocalDateTime.now())
+                .source(COST_SOURCE)
+                .timestamp(now)
                 .metadata(Map.of(
-                        "start_date", startDate.toString(),
-                        "end_date", endDate.toString()
+                        "start_date", startDate,
+                        "end_date", endDate
                 ))
-                .build();
-        savedMetrics.add(metricRepository.save(totalCostMetric));
+                .build());
 
         // Cost by service
-        Map<String, CostData> costByService = costExplorerClient.getCostByService(startDate, endDate);
-        for (Map.Entry<String, CostData> entry : costByService.entrySet()) {
-            Metric serviceCostMetric = Metric.builder()
-                    .team(team)
-                    .type(MetricType.COST)
+        for (Map.Entry<String, CostData> entry : snapshot.getCostByService().entrySet()) {
+            metrics.add(Metric.builder()
+                    .type(MetricType.COST_PER_SERVICE)
                     .name("service_cost")
                     .value(entry.getValue().getTotalAmount())
                     .unit(entry.getValue().getCurrency())
-                    .timestamp(LocalDateTime.now())
+                    .source(COST_SOURCE)
+                    .timestamp(now)
                     .metadata(Map.of(
                             "service", entry.getKey(),
-                            "start_date", startDate.toString(),
-                            "end_date", endDate.toString()
+                            "start_date", startDate,
+                            "end_date", endDate
                     ))
-                    .build();
-            savedMetrics.add(metricRepository.save(serviceCostMetric));
+                    .build());
         }
 
-        log.info("Collected {} cost metrics", savedMetrics.size());
-        return new CollectionResult(savedMetrics.size(), 0);
+        return metrics;
     }
 
-    @Transactional
-    public CostForecast getCostForecast(LocalDate startDate, LocalDate endDate) {
-        log.info("Getting cost forecast from {} to {}", startDate, endDate);
-        return costExplorerClient.getCostForecast(startDate, endDate);
+    // A team's tag value defaults to its name; awsResources.cost_tag overrides it
+    private Optional<Metric> teamCostMetric(Team team, AccountCostSnapshot snapshot) {
+        String tagValue = team.getAwsResources() != null
+                ? team.getAwsResources().getOrDefault(COST_TAG_RESOURCE_KEY, team.getName())
+                : team.getName();
+
+        return snapshot.getCostByTeamTag().entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(tagValue))
+                .findFirst()
+                .map(entry -> Metric.builder()
+                        .team(team)
+                        .type(MetricType.AWS_COST)
+                        .name("team_cost")
+                        .value(entry.getValue().getTotalAmount())
+                        .unit(entry.getValue().getCurrency())
+                        .source(COST_SOURCE)
+                        // Fixed per range, so re-collecting it replaces the row (see TeamCostMetricRepository)
+                        .timestamp(snapshot.getStartDate().atStartOfDay())
+                        .metadata(Map.of(
+                                "tag_key", snapshot.getTeamTag(),
+                                "tag_value", entry.getKey(),
+                                "start_date", snapshot.getStartDate().toString(),
+                                "end_date", snapshot.getEndDate().toString()
+                        ))
+                        .build());
     }
 
-    @Transactional(readOnly = true)
-    public List<CostData.ResourceCost> getTopCostResources(LocalDate startDate, LocalDate endDate, int limit) {
-        log.info("Getting top {} cost resources from {} to {}", limit, startDate, endDate);
-        return costExplorerClient.getTopCostResources(startDate, endDate, limit);
+    // Refreshes [startDate, endDate) of the cost_daily cube; recent days are revised by AWS, so they are replaced whole
+    public CollectionResult loadCostDays(LocalDate startDate, LocalDate endDate) {
+        String tagKey = properties.getAws().getCost().getTeamTag();
+        log.info("Loading daily costs by service and {} tag from {} to {}", tagKey, startDate, endDate);
+
+        List<DailyServiceCost> costs = join(collectionExecutor.callAsync(AwsCollectionExecutor.AwsApi.COST_EXPLORER,
+                () -> costExplorerClient.getDailyCostByServiceAndTagAsync(tagKey, startDate, endDate)));
+
+        transactionTemplate.executeWithoutResult(status ->
+                costDailyRepository.replaceDays(tagKey, startDate, endDate, costs));
+
+        log.info("Loaded {} daily cost rows", costs.size());
+        return new CollectionResult(costs.size(), 0);
     }
 
-    private Metric createMetric(CloudWatchMetric cwMetric, Team team, String resourceId) {
-        MetricType metricType = mapToMetricType(cwMetric.getNamespace(), cwMetric.getMetricName());
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
 
-        return Metric.builder()
-                .team(team)
-                .type(metricType)
-                .name(cwMetric.getMetricName().toLowerCase())
-                .value(cwMetric.getAverageValue())
-                .unit(cwMetric.getUnit())
-                .timestamp(LocalDateTime.now())
-                .metadata(Map.of(
-                        "namespace", cwMetric.getNamespace(),
-                        "resource_id", resourceId,
-                        "dimension_name", cwMetric.getDimensionName() != null ? cwMetric.getDimensionName() : "",
-                        "dimension_value", cwMetric.getDimensionValue() != null ? cwMetric.getDimensionValue() : "",
-                        "max_value", String.valueOf(cwMetric.getMaximumValue()),
-                        "min_value", String.valueOf(cwMetric.getMinimumValue()),
-                        "data_point_count", String.valueOf(cwMetric.getDataPointCount())
-                ))
-                .build();
-    }
-
-    private MetricType mapToMetricType(String namespace, String metricName) {
-        if (metricName.toLowerCase().contains("cpu")) {
-            return MetricType.CPU_UTILIZATION;
-        } else if (metricName.toLowerCase().contains("memory")) {
-            return MetricType.MEMORY_UTILIZATION;
-        } else if (metricName.toLowerCase().contains("network")) {
-            return MetricType.NETWORK_THROUGHPUT;
-        } else if (metricName.toLowerCase().contains("error")) {
-            return MetricType.ERROR_RATE;
-        } else if (metricName.toLowerCase().contains("latency") || metricName.toLowerCase().contains("duration")) {
-            return MetricType.LATENCY;
-        } else if (metricName.toLowerCase().contains("request") || metricName.toLowerCase().contains("invocation")) {
-            return MetricType.REQUEST_COUNT;
-        }
-
-        return switch (namespace) {
-            case "AWS/EC2", "AWS/ECS", "AWS/Lambda" -> MetricType.CPU_UTILIZATION;
-            case "AWS/RDS" -> MetricType.DATABASE_CONNECTIONS;
-            case "AWS/ApplicationELB" -> MetricType.REQUEST_COUNT;
+    // DashboardService reads infrastructure series back by these types. Each type holds a single unit, so
+    // byte counts, IOPS and the like stay CUSTOM rather than being averaged in with percentages.
+    public static MetricType mapToMetricType(String metricName) {
+        return switch (metricName) {
+            case "CPUUtilization" -> MetricType.CPU_UTILIZATION;
+            case "MemoryUtilization" -> MetricType.MEMORY_UTILIZATION;
+            case "NetworkIn", "NetworkOut" -> MetricType.NETWORK_THROUGHPUT;
+            case "Errors" -> MetricType.ERROR_RATE;
+            case "Duration" -> MetricType.LATENCY;
+            case "Invocations", "RequestCount" -> MetricType.REQUEST_COUNT;
+            case "DatabaseConnections" -> MetricType.DATABASE_CONNECTIONS;
             default -> MetricType.CUSTOM;
         };
     }
 
+    // Which metrics the scheduled pass collects for each kind of awsResources entry
+    private enum ResourceType {
+        EC2("ec2_instances", "ec2", "AWS/EC2", List.of("InstanceId"),
+                List.of("CPUUtilization", "NetworkIn", "NetworkOut", "DiskReadBytes", "DiskWriteBytes")),
+        RDS("rds_instances", "rds", "AWS/RDS", List.of("DBInstanceIdentifier"),
+                List.of("CPUUtilization", "DatabaseConnections", "FreeableMemory", "ReadIOPS", "WriteIOPS", "FreeStorageSpace")),
+        ECS("ecs_services", "ecs", "AWS/ECS", List.of("ClusterName", "ServiceName"),
+                List.of("CPUUtilization", "MemoryUtilization")),
+        LAMBDA("lambda_functions", "lambda", "AWS/Lambda", List.of("FunctionName"),
+                List.of("Invocations", "Duration", "Errors", "Throttles", "ConcurrentExecutions"));
+
+        private final String resourceKey;
+        private final String prefix;
+        private final String namespace;
+        private final List<String> dimensionNames;
+        private final List<String> metricNames;
+
+        ResourceType(String resourceKey, String prefix, String namespace,
+                     List<String> dimensionNames, List<String> metricNames) {
+            this.resourceKey = resourceKey;
+            this.prefix = prefix;
+            this.namespace = namespace;
+            this.dimensionNames = dimensionNames;
+            this.metricNames = metricNames;
+        }
+
+        String resourceKey() { return resourceKey; }
+        String prefix() { return prefix; }
+        String namespace() { return namespace; }
+        List<String> dimensionNames() { return dimensionNames; }
+        List<String> metricNames() { return metricNames; }
+    }
+
+    private record ResourceTarget(Team team, ResourceType type, String resourceId, Map<String, String> dimensions) {
+        // The same resource may be listed by more than one team
+        String scopeKey() {
+            return team.getId() + "/" + resourceId;
+        }
+
+        String teamName() {
+            return team != null ? team.getName() : "unassigned";
+        }
+    }
+
     public record CollectionResult(int collected, int errors) {}
 }
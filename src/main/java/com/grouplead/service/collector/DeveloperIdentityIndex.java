@@ -0,0 +1,154 @@
+package com.grouplead.service.collector;
+
+import com.grouplead.domain.entity.Developer;
+import com.grouplead.domain.event.DeveloperChangedEvent;
+import com.grouplead.repository.DeveloperRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resolves developer ids from emails and external ids without hitting the database per record
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeveloperIdentityIndex {
+
+    public static final String SOURCE_JIRA = "jira";
+    public static final String SOURCE_GITLAB = "gitlab";
+
+    private final DeveloperRepository developerRepository;
+
+    private volatile Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    private volatile Map<String, Long> idsByExternalId = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    private volatile long loadedAt;
+
+    // Change events only reach this replica; developers created elsewhere show up on the next reload
+    @Value("${ingestion.developer-identity.refresh-interval:5m}")
+    private Duration refreshInterval;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Retried lazily on the first lookup
+            log.error("Error loading developer identity index", e);
+        }
+    }
+
+    public synchronized void refresh() {
+        List<Developer> developers = developerRepository.findAllWithExternalIds();
+
+        Map<String, Long> emails = new ConcurrentHashMap<>();
+        Map<String, Long> externalIds = new ConcurrentHashMap<>();
+        for (Developer developer : developers) {
+            index(developer, emails, externalIds);
+        }
+
+        idsByEmail = emails;
+        idsByExternalId = externalIds;
+        loadedAt = System.nanoTime();
+        loaded = true;
+        log.info("Developer identity index loaded with {} developers", developers.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onDeveloperChanged(DeveloperChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+
+        Long developerId = event.developerId();
+        idsByEmail.values().removeIf(developerId::equals);
+        idsByExternalId.values().removeIf(developerId::equals);
+
+        developerRepository.findByIdWithExternalIds(developerId)
+                .ifPresent(developer -> index(developer, idsByEmail, idsByExternalId));
+        log.debug("Developer identity index refreshed for developer {}", developerId);
+    }
+
+    public Optional<Long> findByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        ensureLoaded();
+        return Optional.ofNullable(idsByEmail.get(normalize(email)));
+    }
+
+    public Optional<Long> findByExternalId(String source, String externalId) {
+        if (externalId == null || externalId.isBlank()) {
+            return Optional.empty();
+        }
+        ensureLoaded();
+        return Optional.ofNullable(idsByExternalId.get(key(source, externalId)));
+    }
+
+    // External ids are more reliable than emails, which providers often hide
+    public Optional<Long> resolve(String source, String externalId, String email) {
+        return findByExternalId(source, externalId).or(() -> findByEmail(email));
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    refresh();
+                }
+            }
+        } else if (isStale()) {
+            synchronized (this) {
+                if (isStale()) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private boolean isStale() {
+        return System.nanoTime() - loadedAt > refreshInterval.toNanos();
+    }
+
+    // A failed reload keeps serving the previous index and tries again one interval later
+    private void reload() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            loadedAt = System.nanoTime();
+            log.error("Error reloading developer identity index", e);
+        }
+    }
+
+    private void index(Developer developer, Map<String, Long> emails, Map<String, Long> externalIds) {
+        if (developer.getEmail() != null) {
+            emails.put(normalize(developer.getEmail()), developer.getId());
+        }
+        if (developer.getExternalIds() != null) {
+            developer.getExternalIds().forEach((source, externalId) -> {
+                if (source != null && externalId != null) {
+                    externalIds.put(key(source, externalId), developer.getId());
+                }
+            });
+        }
+    }
+
+    private String key(String source, String externalId) {
+        return normalize(source) + ":" + externalId.trim();
+    }
+
+    private String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
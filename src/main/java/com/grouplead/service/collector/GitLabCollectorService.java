@@ -1,138 +1,306 @@
 package com.grouplead.service.collector;
 
+import com.grouplead.config.IntegrationProperties;
 import com.grouplead.domain.entity.Commit;
-import com.grouplead.domain.entity.Developer;
+import com.grouplead.domain.entity.Deployment;
 import com.grouplead.domain.entity.MergeRequest;
+import com.grouplead.domain.enums.SyncSource;
+import com.grouplead.domain.event.DoraDataChangedEvent;
 import com.grouplead.integration.gitlab.GitLabClient;
 import com.grouplead.integration.gitlab.GitLabMapper;
 import com.grouplead.integration.gitlab.dto.GitLabCommit;
 import com.grouplead.integration.gitlab.dto.GitLabMergeRequest;
+import com.grouplead.repository.CommitBulkRepository;
 import com.grouplead.repository.CommitRepository;
+import com.grouplead.repository.DeploymentBulkRepository;
 import com.grouplead.repository.DeveloperRepository;
-import com.grouplead.repository.MergeRequestRepository;
+import com.grouplead.repository.MergeRequestBulkRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GitLabCollectorService {
 
+    private static final int WRITE_BATCH_SIZE = 500;
+
     private final GitLabClient gitLabClient;
     private final GitLabMapper gitLabMapper;
     private final CommitRepository commitRepository;
-    private final MergeRequestRepository mergeRequestRepository;
+    private final CommitBulkRepository commitBulkRepository;
+    private final MergeRequestBulkRepository mergeRequestBulkRepository;
+    private final DeploymentBulkRepository deploymentBulkRepository;
     private final DeveloperRepository developerRepository;
+    private final SyncCheckpointService syncCheckpointService;
+    private final DeveloperIdentityIndex developerIdentityIndex;
+    private final IntegrationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Transactional
-    public CollectionResult collectCommits(LocalDateTime since) {
-        log.info("Starting GitLab commit collection since {}", since);
+    public List<String> getProjectIds() {
+        return gitLabClient.getProjectIds();
+    }
 
-        int totalSaved = 0;
-        List<String> projectIds = gitLabClient.getProjectIds();
+    // Collects every configured project, a few projects at a time
+    public CollectionResult collectCommits() {
+        Integer totalSaved = Flux.fromIterable(getProjectIds())
+                .flatMap(projectId -> commitPipeline(projectId)
+                        .onErrorResume(e -> {
+                            log.error("Error collecting commits for project {}", projectId, e);
+                            return Mono.just(0);
+                        }), projectConcurrency())
+                .reduce(0, Integer::sum)
+                .block();
 
-        for (String projectId : projectIds) {
-            try {
-                List<GitLabCommit> commits = gitLabClient.getCommits(projectId, since);
-
-                for (GitLabCommit gitLabCommit : commits) {
-                    if (!commitRepository.existsBySha(gitLabCommit.getId())) {
-                        // Get commit details with stats
-                        GitLabCommit details = gitLabClient.getCommitDetails(projectId, gitLabCommit.getId());
-                        if (details == null) {
-                            details = gitLabCommit;
-                        }
-
-                        Commit commit = gitLabMapper.toCommit(details, projectId);
-
-                        // Link to developer
-                        String email = details.getAuthorEmail();
-                        developerRepository.findByEmail(email)
-                                .ifPresent(commit::setDeveloper);
-
-                        commitRepository.save(commit);
-                        totalSaved++;
-                    }
-                }
-            } catch (Exception e) {
-                log.error("Error collecting commits for project {}", projectId, e);
-            }
-        }
+        return new CollectionResult("commits", totalSaved != null ? totalSaved : 0);
+    }
 
-        log.info("Collected {} commits from GitLab", totalSaved);
-        return new CollectionResult("commits", totalSaved);
+    public CollectionResult collectCommits(String projectId) {
+        Integer saved = commitPipeline(projectId).block();
+        return new CollectionResult("commits", saved != null ? saved : 0);
     }
 
-    @Transactional
-    public CollectionResult collectMergeRequests(LocalDateTime since) {
-        log.info("Starting GitLab merge request collection since {}", since);
+    public CollectionResult collectMergeRequests() {
+        Integer totalSaved = Flux.fromIterable(getProjectIds())
+                .flatMap(projectId -> mergeRequestPipeline(projectId)
+                        .onErrorResume(e -> {
+                            log.error("Error collecting merge requests for project {}", projectId, e);
+                            return Mono.just(0);
+                        }), projectConcurrency())
+                .reduce(0, Integer::sum)
+                .block();
 
-        int totalSaved = 0;
-        List<String> projectIds = gitLabClient.getProjectIds();
+        return new CollectionResult("merge_requests", totalSaved != null ? totalSaved : 0);
+    }
 
-        for (String projectId : projectIds) {
-            try {
-                // Collect merged MRs
-                List<GitLabMergeRequest> mergedMRs = gitLabClient.getMergedMergeRequests(projectId, since);
-                totalSaved += processMergeRequests(mergedMRs);
+    public CollectionResult collectMergeRequests(String projectId) {
+        Integer saved = mergeRequestPipeline(projectId).block();
+        return new CollectionResult("merge_requests", saved != null ? saved : 0);
+    }
 
-                // Collect open MRs
-                List<GitLabMergeRequest> openMRs = gitLabClient.getMergeRequests(projectId, "opened");
-                totalSaved += processMergeRequests(openMRs);
-            } catch (Exception e) {
-                log.error("Error collecting merge requests for project {}", projectId, e);
+    // Pages are consumed as they stream in; detail lookups run concurrently within each batch
+    private Mono<Integer> commitPipeline(String projectId) {
+        AtomicReference<LocalDateTime> highWaterMark = new AtomicReference<>();
+
+        return blocking(() -> syncCheckpointService.getHighWaterMark(SyncSource.GITLAB_COMMITS, projectId))
+                .flatMap(since -> {
+                    log.info("Starting GitLab commit collection for project {} since {}", projectId, since);
+                    return gitLabClient.getCommits(projectId, since)
+                            .doOnNext(gitLabCommit -> highWaterMark.accumulateAndGet(
+                                    gitLabMapper.parseDateTime(gitLabCommit.getCommittedDate()), this::latest))
+                            .buffer(WRITE_BATCH_SIZE)
+                            .concatMap(batch -> writeCommitBatch(projectId, batch))
+                            .reduce(0, Integer::sum);
+                })
+                // Only reached when every page was read and written
+                .flatMap(saved -> blocking(() -> advanceCheckpoint(
+                        SyncSource.GITLAB_COMMITS, projectId, highWaterMark.get(), saved)))
+                .doOnNext(saved -> log.info("Collected {} commits from GitLab project {}", saved, projectId));
+    }
+
+    // Webhook entry point: same write path as polling, the checkpoint is left to reconciliation
+    public int ingestCommits(String projectId, List<GitLabCommit> commits) {
+        Integer saved = Flux.fromIterable(commits)
+                .buffer(WRITE_BATCH_SIZE)
+                .concatMap(batch -> writeCommitBatch(projectId, batch))
+                .reduce(0, Integer::sum)
+                .block();
+        return saved != null ? saved : 0;
+    }
+
+    public int ingestMergeRequests(List<GitLabMergeRequest> mergeRequests) {
+        ProcessedMergeRequests processed = transactionTemplate.execute(status -> processMergeRequests(mergeRequests));
+        return processed != null ? processed.saved() : 0;
+    }
+
+    public void ingestDeployment(Deployment deployment) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (deployment.getDeployedAt() == null) {
+                deployment.setDeployedAt(LocalDateTime.now(ZoneOffset.UTC));
             }
-        }
 
-        log.info("Collected {} merge requests from GitLab", totalSaved);
-        return new CollectionResult("merge_requests", totalSaved);
+            // Redeliveries and concurrent status events resolve in the upsert rather than a find-then-save
+            deploymentBulkRepository.upsert(deployment).ifPresent(upserted -> {
+                Set<LocalDate> doraDays = new HashSet<>();
+                addDay(doraDays, upserted.previousDeployedAt());
+                addDay(doraDays, upserted.deployedAt());
+                eventPublisher.publishEvent(new DoraDataChangedEvent(doraDays));
+            });
+        });
     }
 
-    private int processMergeRequests(List<GitLabMergeRequest> mergeRequests) {
-        int saved = 0;
+    // Skips known SHAs, fetches details for the rest concurrently and writes them in one batch
+    private Mono<Integer> writeCommitBatch(String projectId, List<GitLabCommit> batch) {
+        return blocking(() -> filterNewCommits(batch))
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(gitLabCommit -> gitLabClient.fetchCommitDetails(projectId, gitLabCommit.getId())
+                        .onErrorResume(e -> {
+                            log.warn("Error fetching GitLab commit details for {}: {}",
+                                    gitLabCommit.getId(), e.getMessage());
+                            return Mono.empty();
+                        })
+                        .defaultIfEmpty(gitLabCommit), detailConcurrency())
+                .collectList()
+                .flatMap(details -> blocking(() -> saveCommits(projectId, details)));
+    }
 
-        for (GitLabMergeRequest gitLabMR : mergeRequests) {
-            try {
-                String externalId = String.valueOf(gitLabMR.getIid());
-                String projectId = String.valueOf(gitLabMR.getProjectId());
+    private List<GitLabCommit> filterNewCommits(List<GitLabCommit> batch) {
+        Set<String> existing = commitRepository.findExistingShas(
+                batch.stream().map(GitLabCommit::getId).toList());
+        return batch.stream()
+                .filter(gitLabCommit -> !existing.contains(gitLabCommit.getId()))
+                .toList();
+    }
 
-                var existingMR = mergeRequestRepository.findByExternalIdAndProjectId(externalId, projectId);
+    private Integer saveCommits(String projectId, List<GitLabCommit> details) {
+        return transactionTemplate.execute(status -> {
+            List<Commit> commits = new ArrayList<>(details.size());
+            for (GitLabCommit gitLabCommit : details) {
+                Commit commit = gitLabMapper.toCommit(gitLabCommit, projectId);
 
-                if (existingMR.isPresent()) {
-                    // Update existing MR
-                    MergeRequest existing = existingMR.get();
-                    MergeRequest updated = gitLabMapper.toMergeRequest(gitLabMR);
+                // Link to developer
+                developerIdentityIndex.findByEmail(gitLabCommit.getAuthorEmail())
+                        .map(developerRepository::getReferenceById)
+                        .ifPresent(commit::setDeveloper);
 
-                    existing.setStatus(updated.getStatus());
-                    existing.setMergedAt(updated.getMergedAt());
-                    existing.setClosedAt(updated.getClosedAt());
-                    existing.setCommentsCount(updated.getCommentsCount());
+                commits.add(commit);
+            }
 
-                    mergeRequestRepository.save(existing);
-                } else {
-                    MergeRequest mr = gitLabMapper.toMergeRequest(gitLabMR);
+            return commitBulkRepository.insert(commits);
+        });
+    }
+
+    private Mono<Integer> mergeRequestPipeline(String projectId) {
+        AtomicReference<LocalDateTime> highWaterMark = new AtomicReference<>();
+        AtomicReference<LocalDateTime> oldestFailure = new AtomicReference<>();
 
-                    // Link to developer
-                    if (gitLabMR.getAuthor() != null && gitLabMR.getAuthor().getEmail() != null) {
-                        developerRepository.findByEmail(gitLabMR.getAuthor().getEmail())
-                                .ifPresent(mr::setDeveloper);
-                    }
+        return blocking(() -> syncCheckpointService.getHighWaterMark(SyncSource.GITLAB_MERGE_REQUESTS, projectId))
+                .flatMap(since -> {
+                    log.info("Starting GitLab merge request collection for project {} since {}", projectId, since);
+                    // Merged MRs first, then open MRs, each fully paginated
+                    return Flux.concat(
+                                    gitLabClient.getMergedMergeRequests(projectId, since),
+                                    gitLabClient.getMergeRequests(projectId, "opened", since))
+                            .doOnNext(gitLabMR -> highWaterMark.accumulateAndGet(
+                                    gitLabMapper.parseDateTime(gitLabMR.getUpdatedAt()), this::latest))
+                            .buffer(WRITE_BATCH_SIZE)
+                            .concatMap(batch -> blocking(() -> {
+                                ProcessedMergeRequests processed = transactionTemplate.execute(
+                                        status -> processMergeRequests(batch));
+                                // A merge request without a usable update time is only found again from the start
+                                for (GitLabMergeRequest gitLabMR : processed.failed()) {
+                                    LocalDateTime updatedAt = gitLabMapper.parseDateTime(gitLabMR.getUpdatedAt());
+                                    oldestFailure.accumulateAndGet(updatedAt != null ? updatedAt : since, this::earliest);
+                                }
+                                return processed.saved();
+                            }))
+                            .reduce(0, Integer::sum);
+                })
+                // Do not move past a merge request that failed, so the next run picks it up again
+                .flatMap(saved -> blocking(() -> advanceCheckpoint(SyncSource.GITLAB_MERGE_REQUESTS, projectId,
+                        oldestFailure.get() != null && highWaterMark.get() != null
+                                ? earliest(highWaterMark.get(), oldestFailure.get())
+                                : highWaterMark.get(),
+                        saved)))
+                .doOnNext(saved -> log.info("Collected {} merge requests from GitLab project {}", saved, projectId));
+    }
 
-                    mergeRequestRepository.save(mr);
+    private Integer advanceCheckpoint(SyncSource source, String projectId, LocalDateTime highWaterMark, int saved) {
+        transactionTemplate.executeWithoutResult(status ->
+                syncCheckpointService.advance(source, projectId, highWaterMark));
+        return saved;
+    }
+
+    // Stale merge requests are skipped, not failed
+    private ProcessedMergeRequests processMergeRequests(List<GitLabMergeRequest> mergeRequests) {
+        int saved = 0;
+        List<GitLabMergeRequest> failed = new ArrayList<>();
+        Set<LocalDate> doraDays = new HashSet<>();
+
+        for (GitLabMergeRequest gitLabMR : mergeRequests) {
+            try {
+                MergeRequest mr = gitLabMapper.toMergeRequest(gitLabMR);
+
+                // Only used if the merge request is new
+                if (gitLabMR.getAuthor() != null) {
+                    developerIdentityIndex.resolve(DeveloperIdentityIndex.SOURCE_GITLAB,
+                                    gitLabMR.getAuthor().getUsername(), gitLabMR.getAuthor().getEmail())
+                            .map(developerRepository::getReferenceById)
+                            .ifPresent(mr::setDeveloper);
+                }
+
+                // A page or delivery older than the stored merge request is skipped
+                var upserted = mergeRequestBulkRepository.upsert(mr);
+                if (upserted.isEmpty()) {
+                    continue;
                 }
+                addDay(doraDays, upserted.get().previousMergedAt());
+                addDay(doraDays, upserted.get().mergedAt());
                 saved++;
             } catch (Exception e) {
                 log.error("Error processing merge request {}", gitLabMR.getIid(), e);
+                failed.add(gitLabMR);
             }
         }
 
-        return saved;
+        if (!doraDays.isEmpty()) {
+            eventPublisher.publishEvent(new DoraDataChangedEvent(doraDays));
+        }
+        return new ProcessedMergeRequests(saved, failed);
+    }
+
+    // Entity timestamps are UTC (hibernate.jdbc.time_zone), so the local date is the UTC day dora_daily uses
+    private void addDay(Set<LocalDate> days, LocalDateTime timestamp) {
+        if (timestamp != null) {
+            days.add(timestamp.toLocalDate());
+        }
+    }
+
+    // Repository and checkpoint calls block, so keep them off the HTTP event loop
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private int projectConcurrency() {
+        return Math.max(1, properties.getGitlab().getProjectConcurrency());
+    }
+
+    private int detailConcurrency() {
+        return Math.max(1, properties.getGitlab().getDetailConcurrency());
+    }
+
+    private LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isBefore(current) ? candidate : current;
     }
 
     public record CollectionResult(String type, int count) {}
+
+    private record ProcessedMergeRequests(int saved, List<GitLabMergeRequest> failed) {}
 }
@@ -1,24 +1,32 @@
 package com.grouplead.service.collector;
 
-import com.grouplead.domain.entity.Developer;
 import com.grouplead.domain.entity.Sprint;
 import com.grouplead.domain.entity.Ticket;
+import com.grouplead.domain.enums.SyncSource;
 import com.grouplead.domain.enums.TicketSource;
 import com.grouplead.domain.enums.TicketStatus;
-import com.grouplead.domain.vo.SprintMetrics;
+import com.grouplead.domain.vo.SprintProgress;
+import com.grouplead.domain.vo.SprintTicketStats;
 import com.grouplead.integration.jira.JiraClient;
 import com.grouplead.integration.jira.JiraMapper;
 import com.grouplead.integration.jira.dto.JiraIssue;
 import com.grouplead.repository.DeveloperRepository;
 import com.grouplead.repository.SprintRepository;
-import com.grouplead.repository.TicketRepository;
+import com.grouplead.repository.SprintStatsRepository;
+import com.grouplead.repository.TicketBulkRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -27,58 +35,115 @@ public class JiraCollectorService {
 
     private final JiraClient jiraClient;
     private final JiraMapper jiraMapper;
-    private final TicketRepository ticketRepository;
+    private final TicketBulkRepository ticketBulkRepository;
     private final SprintRepository sprintRepository;
+    private final SprintStatsRepository sprintStatsRepository;
     private final DeveloperRepository developerRepository;
+    private final SyncCheckpointService syncCheckpointService;
+    private final DeveloperIdentityIndex developerIdentityIndex;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
-    public CollectionResult collectTickets(LocalDateTime since) {
-        log.info("Starting JIRA ticket collection since {}", since);
+    public List<String> getProjectKeys() {
+        return jiraClient.getProjectKeys();
+    }
+
+    // Each page commits on its own, so ticket and sprint_stats row locks are held for one page rather than the
+    // whole sync, and webhook deliveries and the reconcile job only ever wait on a single batch
+    public CollectionResult collectTickets(String projectKey) {
+        LocalDateTime since = syncCheckpointService.getHighWaterMark(SyncSource.JIRA_TICKETS, projectKey);
+        log.info("Starting JIRA ticket collection for project {} since {}", projectKey, since);
 
-        var jiraIssues = jiraClient.getUpdatedIssues(since);
         int savedCount = 0;
+        LocalDateTime highWaterMark = null;
+        LocalDateTime oldestFailure = null;
+
+        // Pages are processed as they arrive instead of buffering the whole result set
+        for (List<JiraIssue> chunk : jiraClient.streamUpdatedIssues(projectKey, since).toIterable()) {
+            SavedIssues page = transactionTemplate.execute(status -> saveIssues(chunk));
+            savedCount += page.tickets().size();
+            for (Ticket ticket : page.tickets()) {
+                highWaterMark = latest(highWaterMark, ticket.getExternalUpdatedAt());
+            }
+            // An issue without a usable update time can only be found again by re-reading the whole window
+            for (JiraIssue issue : page.failed()) {
+                LocalDateTime updatedAt = jiraMapper.updatedAt(issue);
+                oldestFailure = earliest(oldestFailure, updatedAt != null ? updatedAt : since);
+            }
+        }
+
+        // Do not move past an issue that failed, so the next run picks it up again
+        if (oldestFailure != null && highWaterMark != null) {
+            highWaterMark = earliest(highWaterMark, oldestFailure);
+        }
+
+        // Only reached once every page has committed; a failed run re-reads its window, and rewriting the pages
+        // that did commit is harmless
+        LocalDateTime mark = highWaterMark;
+        transactionTemplate.executeWithoutResult(status ->
+                syncCheckpointService.advance(SyncSource.JIRA_TICKETS, projectKey, mark));
 
-        for (JiraIssue issue : jiraIssues) {
+        log.info("Collected {} tickets from JIRA project {}", savedCount, projectKey);
+        return new CollectionResult(TicketSource.JIRA, savedCount);
+    }
+
+    // Webhook entry point: same write path as polling, the checkpoint is left to reconciliation
+    @Transactional
+    public int ingestIssues(List<JiraIssue> issues) {
+        return saveIssues(issues).tickets().size();
+    }
+
+    private SavedIssues saveIssues(List<JiraIssue> issues) {
+        List<Ticket> tickets = new ArrayList<>(issues.size());
+        List<JiraIssue> failed = new ArrayList<>();
+        Map<String, JiraIssue.JiraAssignee> assignees = new HashMap<>();
+
+        for (JiraIssue issue : issues) {
             try {
                 Ticket ticket = jiraMapper.toTicket(issue);
-
-                // Check if ticket exists
-                var existingTicket = ticketRepository.findByExternalIdAndSource(
-                        ticket.getExternalId(), TicketSource.JIRA);
-
-                if (existingTicket.isPresent()) {
-                    // Update existing ticket
-                    Ticket existing = existingTicket.get();
-                    existing.setTitle(ticket.getTitle());
-                    existing.setDescription(ticket.getDescription());
-                    existing.setStatus(ticket.getStatus());
-                    existing.setPriority(ticket.getPriority());
-                    existing.setStoryPoints(ticket.getStoryPoints());
-                    existing.setLabels(ticket.getLabels());
-                    existing.setExternalUpdatedAt(ticket.getExternalUpdatedAt());
-
-                    // Update status timestamps
-                    updateStatusTimestamps(existing, ticket.getStatus());
-
-                    ticketRepository.save(existing);
-                } else {
-                    // Link to developer if assignee exists
-                    if (issue.getFields().getAssignee() != null) {
-                        String email = issue.getFields().getAssignee().getEmailAddress();
-                        developerRepository.findByEmail(email)
-                                .ifPresent(ticket::setDeveloper);
-                    }
-
-                    ticketRepository.save(ticket);
+                tickets.add(ticket);
+                if (issue.getFields().getAssignee() != null) {
+                    assignees.put(ticket.getExternalId(), issue.getFields().getAssignee());
                 }
-                savedCount++;
             } catch (Exception e) {
                 log.error("Error processing JIRA issue {}", issue.getKey(), e);
+                failed.add(issue);
             }
         }
 
-        log.info("Collected {} tickets from JIRA", savedCount);
-        return new CollectionResult(TicketSource.JIRA, savedCount);
+        saveTickets(tickets, assignees);
+        return new SavedIssues(tickets, failed);
+    }
+
+    // One lookup for existing rows, then a batched upsert
+    private int saveTickets(List<Ticket> tickets, Map<String, JiraIssue.JiraAssignee> assignees) {
+        if (tickets.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, TicketBulkRepository.ExistingTicket> existing = ticketBulkRepository.findExisting(
+                TicketSource.JIRA, tickets.stream().map(Ticket::getExternalId).toList());
+
+        for (Ticket ticket : tickets) {
+            var current = existing.get(ticket.getExternalId());
+            if (current != null) {
+                ticket.setStartedAt(current.startedAt());
+                ticket.setCompletedAt(current.completedAt());
+
+                // Update status timestamps
+                updateStatusTimestamps(ticket, ticket.getStatus());
+            } else {
+                // Link to developer if assignee exists
+                var assignee = assignees.get(ticket.getExternalId());
+                if (assignee != null) {
+                    developerIdentityIndex.resolve(DeveloperIdentityIndex.SOURCE_JIRA,
+                                    assignee.getAccountId(), assignee.getEmailAddress())
+                            .map(developerRepository::getReferenceById)
+                            .ifPresent(ticket::setDeveloper);
+                }
+            }
+        }
+
+        return ticketBulkRepository.upsert(tickets);
     }
 
     @Transactional
@@ -106,60 +171,53 @@ public class JiraCollectorService {
         return savedCount;
     }
 
-    public SprintMetrics calculateSprintMetrics(String sprintId) {
-        var sprint = sprintRepository.findByExternalId(sprintId)
+    // Reads the sprint's counters rather than its tickets, so the cost does not grow with sprint size
+    public SprintProgress calculateSprintMetrics(String sprintId) {
+        SprintTicketStats sprint = sprintStatsRepository.findByExternalId(sprintId)
                 .orElseThrow(() -> new RuntimeException("Sprint not found: " + sprintId));
 
-        var tickets = ticketRepository.findBySprintId(sprint.getId());
-
-        int totalTickets = tickets.size();
-        int completedTickets = (int) tickets.stream()
-                .filter(t -> t.getStatus() == TicketStatus.DONE || t.getStatus() == TicketStatus.CLOSED)
-                .count();
-        int inProgressTickets = (int) tickets.stream()
-                .filter(t -> t.getStatus() == TicketStatus.IN_PROGRESS)
-                .count();
-        int todoTickets = (int) tickets.stream()
-                .filter(t -> t.getStatus() == TicketStatus.TODO || t.getStatus() == TicketStatus.BACKLOG)
-                .count();
-        int blockedTickets = (int) tickets.stream()
-                .filter(t -> t.getStatus() == TicketStatus.BLOCKED)
-                .count();
-
-        int totalStoryPoints = tickets.stream()
-                .filter(t -> t.getStoryPoints() != null)
-                .mapToInt(Ticket::getStoryPoints)
-                .sum();
-        int completedStoryPoints = tickets.stream()
-                .filter(t -> t.isCompleted() && t.getStoryPoints() != null)
-                .mapToInt(Ticket::getStoryPoints)
-                .sum();
-
-        Double averageCycleTime = tickets.stream()
-                .filter(t -> t.getCycleTimeHours() != null)
-                .mapToLong(Ticket::getCycleTimeHours)
-                .average()
-                .orElse(0);
+        int totalTickets = sprint.totalTickets();
+        int completedTickets = sprint.tickets(TicketStatus.DONE, TicketStatus.CLOSED);
+
+        int daysRemaining = 0;
+        LocalDate today = LocalDate.now();
+        if (sprint.endDate() != null && today.isBefore(sprint.endDate())) {
+            daysRemaining = (int) ChronoUnit.DAYS.between(today, sprint.endDate());
+        }
 
         double completionRate = totalTickets > 0 ? (double) completedTickets / totalTickets * 100 : 0;
 
-        return new SprintMetrics(
+        return new SprintProgress(
                 sprintId,
-                sprint.getName(),
+                sprint.name(),
                 totalTickets,
                 completedTickets,
-                inProgressTickets,
-                todoTickets,
-                blockedTickets,
-                totalStoryPoints,
-                completedStoryPoints,
-                averageCycleTime,
-                sprint.getDaysRemaining(),
+                sprint.tickets(TicketStatus.IN_PROGRESS),
+                sprint.tickets(TicketStatus.TODO, TicketStatus.BACKLOG),
+                sprint.tickets(TicketStatus.BLOCKED),
+                sprint.totalPoints(),
+                sprint.points(TicketStatus.DONE, TicketStatus.CLOSED),
+                sprint.averageCycleTimeHours(),
+                daysRemaining,
                 completionRate,
                 0.0 // velocity trend calculated separately
         );
     }
 
+    private LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+
     private void updateStatusTimestamps(Ticket ticket, TicketStatus newStatus) {
         if (newStatus == TicketStatus.IN_PROGRESS && ticket.getStartedAt() == null) {
             ticket.setStartedAt(LocalDateTime.now());
@@ -171,4 +229,6 @@ public class JiraCollectorService {
     }
 
     public record CollectionResult(TicketSource source, int count) {}
+
+    private record SavedIssues(List<Ticket> tickets, List<JiraIssue> failed) {}
 }
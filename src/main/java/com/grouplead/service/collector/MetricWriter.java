@@ -0,0 +1,418 @@
+package com.grouplead.service.collector;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grouplead.domain.entity.Metric;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Write-behind buffer for the metrics table: callers append, one background thread COPYs batches in
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MetricWriter {
+
+    // PGCOPY binary signature; followed by a zero flags field and a zero header extension length
+    private static final byte[] COPY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final LocalDateTime POSTGRES_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final byte JSONB_VERSION = 1;
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    // IDs are taken up front so metric_tags rows can reference them without a RETURNING round trip
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval('metrics_id_seq') FROM generate_series(1, ?)";
+
+    private static final String COPY_METRICS_SQL =
+            "COPY metrics (id, team_id, type, name, value, unit, source, timestamp, metadata, created_at) " +
+            "FROM STDIN (FORMAT BINARY)";
+
+    private static final String COPY_TAGS_SQL =
+            "COPY metric_tags (metric_id, metric_timestamp, tag_key, tag_value) FROM STDIN (FORMAT BINARY)";
+
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${ingestion.metric-writer.buffer-capacity:100000}")
+    private int bufferCapacity;
+
+    @Value("${ingestion.metric-writer.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${ingestion.metric-writer.flush-interval:500ms}")
+    private Duration flushInterval;
+
+    @Value("${ingestion.metric-writer.offer-timeout:5s}")
+    private Duration offerTimeout;
+
+    @Value("${ingestion.metric-writer.shutdown-timeout:30s}")
+    private Duration shutdownTimeout;
+
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private BlockingQueue<Pending> buffer;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        running = true;
+        flusher = Thread.ofPlatform().name("metric-writer").daemon(true).start(this::runFlusher);
+    }
+
+    // Drains whatever is buffered before the DataSource goes away
+    @PreDestroy
+    void stop() {
+        running = false;
+        try {
+            flusher.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> unflushed = new ArrayList<>();
+        buffer.drainTo(unflushed);
+        if (flusher.isAlive() || !unflushed.isEmpty()) {
+            log.warn("Metric writer stopped with {} rows still buffered", unflushed.size());
+        }
+        settle(unflushed, false);
+    }
+
+    // Rows written and rows given up on since startup
+    public WriteResult totals() {
+        return new WriteResult(persisted.get(), dropped.get());
+    }
+
+    // Blocks while the buffer is full, so producers slow down to the rate the database accepts
+    public void append(Metric metric) {
+        offer(new Pending(metric, null));
+    }
+
+    // Completes once every row has been persisted or dropped. Rows still buffered when this throws are
+    // written as usual; the rest count as dropped.
+    public CompletableFuture<WriteResult> appendAll(Collection<Metric> metrics) {
+        if (metrics.isEmpty()) {
+            return CompletableFuture.completedFuture(new WriteResult(0, 0));
+        }
+
+        Receipt receipt = new Receipt(metrics.size());
+        int buffered = 0;
+        try {
+            for (Metric metric : metrics) {
+                offer(new Pending(metric, receipt));
+                buffered++;
+            }
+        } catch (RuntimeException e) {
+            receipt.settle(metrics.size() - buffered, false);
+            throw e;
+        }
+        return receipt.result;
+    }
+
+    private void offer(Pending pending) {
+        validate(pending.metric());
+        if (!running) {
+            throw new IllegalStateException("Metric writer is shut down");
+        }
+        try {
+            if (!buffer.offer(pending, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new IllegalStateException("Metric buffer still full after " + offerTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while buffering metric " + pending.metric().getName(), e);
+        }
+    }
+
+    // A single bad row would fail the whole COPY, so reject it before it is buffered
+    private void validate(Metric metric) {
+        if (metric.getType() == null || metric.getName() == null
+                || metric.getValue() == null || metric.getSource() == null) {
+            throw new IllegalArgumentException("Metric requires type, name, value and source: " + metric.getName());
+        }
+    }
+
+    private void runFlusher() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                fill(batch);
+            } catch (InterruptedException e) {
+                // Not expected; keep draining until stop() clears the running flag
+                log.warn("Metric writer interrupted while waiting for rows");
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Collects until the batch is full or the flush interval has passed since the first poll
+    private void fill(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending pending = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (pending == null) {
+                return;
+            }
+            batch.add(pending);
+            buffer.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<Metric> metrics = batch.stream().map(Pending::metric).toList();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long started = System.nanoTime();
+                transactionTemplate.executeWithoutResult(status -> copy(metrics));
+                settle(batch, true);
+                log.debug("Flushed {} metric rows in {} ms", batch.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_FLUSH_ATTEMPTS) {
+                    settle(batch, false);
+                    log.error("Dropping {} metric rows after {} failed flushes ({} dropped since startup)",
+                            batch.size(), attempt, dropped.get(), e);
+                    return;
+                }
+                log.warn("Metric flush attempt {} failed, retrying: {}", attempt, e.getMessage());
+                try {
+                    Thread.sleep(Duration.ofSeconds(attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void settle(List<Pending> rows, boolean written) {
+        (written ? persisted : dropped).addAndGet(rows.size());
+        for (Pending pending : rows) {
+            if (pending.receipt() != null) {
+                pending.receipt().settle(1, written);
+            }
+        }
+    }
+
+    // Runs inside the flush transaction, so the connection is the one bound to it
+    private void copy(List<Metric> batch) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            long[] ids = allocateIds(connection, batch.size());
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            LocalDateTime createdAt = LocalDateTime.now(ZoneOffset.UTC);
+            copyManager.copyIn(COPY_METRICS_SQL, new ByteArrayInputStream(encodeMetrics(batch, ids, createdAt)));
+
+            byte[] tags = encodeTags(batch, ids, createdAt);
+            if (tags != null) {
+                copyManager.copyIn(COPY_TAGS_SQL, new ByteArrayInputStream(tags));
+            }
+        } catch (SQLException | IOException e) {
+            throw new DataAccessResourceFailureException("COPY into metrics failed", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private long[] allocateIds(Connection connection, int count) throws SQLException {
+        long[] ids = new long[count];
+        try (PreparedStatement statement = connection.prepareStatement(ALLOCATE_IDS_SQL)) {
+            statement.setInt(1, count);
+            try (ResultSet rs = statement.executeQuery()) {
+                for (int i = 0; i < count && rs.next(); i++) {
+                    ids[i] = rs.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private byte[] encodeMetrics(List<Metric> batch, long[] ids, LocalDateTime createdAt) throws IOException {
+        BinaryCopy copy = new BinaryCopy();
+
+        for (int i = 0; i < batch.size(); i++) {
+            Metric metric = batch.get(i);
+            copy.startRow(10);
+            copy.writeLong(ids[i]);
+            copy.writeLong(metric.getTeam() != null ? metric.getTeam().getId() : null);
+            copy.writeText(metric.getType().name());
+            copy.writeText(metric.getName());
+            copy.writeDouble(metric.getValue());
+            copy.writeText(metric.getUnit());
+            copy.writeText(metric.getSource());
+            copy.writeTimestamp(timestampOf(metric, createdAt));
+            copy.writeJsonb(toJson(metric.getMetadata()));
+            copy.writeTimestamp(createdAt);
+        }
+        return copy.finish();
+    }
+
+    // Null when no row in the batch carries tags, which is the common case
+    private byte[] encodeTags(List<Metric> batch, long[] ids, LocalDateTime createdAt) throws IOException {
+        BinaryCopy copy = null;
+        for (int i = 0; i < batch.size(); i++) {
+            Map<String, String> tags = batch.get(i).getTags();
+            if (tags == null || tags.isEmpty()) {
+                continue;
+            }
+            if (copy == null) {
+                copy = new BinaryCopy();
+            }
+            // Tags share the metric's timestamp so they land in the same monthly partition
+            LocalDateTime timestamp = timestampOf(batch.get(i), createdAt);
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                copy.startRow(4);
+                copy.writeLong(ids[i]);
+                copy.writeTimestamp(timestamp);
+                copy.writeText(tag.getKey());
+                copy.writeText(tag.getValue());
+            }
+        }
+        return copy != null ? copy.finish() : null;
+    }
+
+    private LocalDateTime timestampOf(Metric metric, LocalDateTime fallback) {
+        return metric.getTimestamp() != null ? metric.getTimestamp() : fallback;
+    }
+
+    private String toJson(Map<String, String> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return "{}";
+        }
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable metric metadata", e);
+        }
+    }
+
+    public record WriteResult(long persisted, long dropped) {}
+
+    private record Pending(Metric metric, Receipt receipt) {}
+
+    // Tracks the rows of one appendAll call through however many batches they end up in
+    private static final class Receipt {
+
+        private final CompletableFuture<WriteResult> result = new CompletableFuture<>();
+        private final AtomicInteger remaining;
+        private final AtomicInteger persisted = new AtomicInteger();
+        private final AtomicInteger dropped = new AtomicInteger();
+
+        Receipt(int rows) {
+            this.remaining = new AtomicInteger(rows);
+        }
+
+        void settle(int rows, boolean written) {
+            if (rows == 0) {
+                return;
+            }
+            (written ? persisted : dropped).addAndGet(rows);
+            if (remaining.addAndGet(-rows) == 0) {
+                result.complete(new WriteResult(persisted.get(), dropped.get()));
+            }
+        }
+    }
+
+    // PostgreSQL binary COPY framing: per row a field count, then a length-prefixed value per field
+    private static final class BinaryCopy {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        BinaryCopy() throws IOException {
+            out.write(COPY_SIGNATURE);
+            out.writeInt(0);
+            out.writeInt(0);
+        }
+
+        void startRow(int fields) throws IOException {
+            out.writeShort(fields);
+        }
+
+        void writeLong(Long value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            out.writeInt(8);
+            out.writeLong(value);
+        }
+
+        void writeDouble(double value) throws IOException {
+            out.writeInt(8);
+            out.writeDouble(value);
+        }
+
+        void writeText(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(encoded.length);
+            out.write(encoded);
+        }
+
+        // timestamptz travels as microseconds since 2000-01-01 UTC; LocalDateTime values are UTC here
+        void writeTimestamp(LocalDateTime value) throws IOException {
+            out.writeInt(8);
+            out.writeLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH, value));
+        }
+
+        void writeJsonb(String json) throws IOException {
+            byte[] encoded = json.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(encoded.length + 1);
+            out.writeByte(JSONB_VERSION);
+            out.write(encoded);
+        }
+
+        byte[] finish() throws IOException {
+            out.writeShort(-1);
+            out.flush();
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.grouplead.service.collector;
+
+import com.grouplead.domain.entity.SyncCheckpoint;
+import com.grouplead.domain.enums.SyncSource;
+import com.grouplead.repository.SyncCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SyncCheckpointService {
+
+    private final SyncCheckpointRepository syncCheckpointRepository;
+
+    @Value("${scheduler.data-collection.initial-lookback-hours:24}")
+    private long initialLookbackHours;
+
+    @Transactional(readOnly = true)
+    public LocalDateTime getHighWaterMark(SyncSource source, String scopeKey) {
+        return getHighWaterMark(source, scopeKey, initialHighWaterMark(LocalDateTime.now()));
+    }
+
+    // For callers reading many scopes in one pass: every scope without a checkpoint gets the same first-run mark
+    @Transactional(readOnly = true)
+    public LocalDateTime getHighWaterMark(SyncSource source, String scopeKey, LocalDateTime initialHighWaterMark) {
+        return syncCheckpointRepository.findBySourceAndScopeKey(source, scopeKey)
+                .map(SyncCheckpoint::getHighWaterMark)
+                .orElse(initialHighWaterMark);
+    }
+
+    public LocalDateTime initialHighWaterMark(LocalDateTime now) {
+        return now.minusHours(initialLookbackHours);
+    }
+
+    // Must join the collector's transaction so the mark only moves if the data commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void advance(SyncSource source, String scopeKey, LocalDateTime highWaterMark) {
+        if (highWaterMark == null) {
+            return;
+        }
+        syncCheckpointRepository.advance(source.name(), scopeKey, highWaterMark);
+        log.debug("Advanced {} checkpoint for {} to {}", source, scopeKey, highWaterMark);
+    }
+}
@@ -0,0 +1,94 @@
+package com.grouplead.service.collector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grouplead.config.AsyncConfig;
+import com.grouplead.integration.gitlab.GitLabMapper;
+import com.grouplead.integration.gitlab.dto.GitLabDeploymentEvent;
+import com.grouplead.integration.gitlab.dto.GitLabMergeRequestEvent;
+import com.grouplead.integration.gitlab.dto.GitLabPushEvent;
+import com.grouplead.integration.jira.dto.JiraWebhookEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Applies webhook payloads off the request thread; anything missed is picked up by the polling reconciliation
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookIngestionService {
+
+    public static final String GITLAB_PUSH = "Push Hook";
+    public static final String GITLAB_MERGE_REQUEST = "Merge Request Hook";
+    public static final String GITLAB_PIPELINE = "Pipeline Hook";
+    public static final String GITLAB_DEPLOYMENT = "Deployment Hook";
+
+    private static final List<String> JIRA_ISSUE_EVENTS = List.of("jira:issue_updated", "jira:issue_created");
+
+    private final ObjectMapper objectMapper;
+    private final GitLabMapper gitLabMapper;
+    private final GitLabCollectorService gitLabCollectorService;
+    private final JiraCollectorService jiraCollectorService;
+
+    @Async(AsyncConfig.WEBHOOK_EXECUTOR)
+    public void processGitLabEvent(String eventType, String payload) {
+        try {
+            switch (eventType) {
+                case GITLAB_PUSH -> processPush(objectMapper.readValue(payload, GitLabPushEvent.class));
+                case GITLAB_MERGE_REQUEST ->
+                        processMergeRequest(objectMapper.readValue(payload, GitLabMergeRequestEvent.class));
+                case GITLAB_DEPLOYMENT ->
+                        processDeployment(objectMapper.readValue(payload, GitLabDeploymentEvent.class));
+                // There is no pipeline store yet; deployments carry what DORA needs
+                case GITLAB_PIPELINE -> log.debug("Ignoring GitLab pipeline event");
+                default -> log.debug("Ignoring unsupported GitLab event {}", eventType);
+            }
+        } catch (Exception e) {
+            log.error("Error processing GitLab {} webhook", eventType, e);
+        }
+    }
+
+    @Async(AsyncConfig.WEBHOOK_EXECUTOR)
+    public void processJiraEvent(String payload) {
+        try {
+            JiraWebhookEvent event = objectMapper.readValue(payload, JiraWebhookEvent.class);
+            if (!JIRA_ISSUE_EVENTS.contains(event.getWebhookEvent()) || event.getIssue() == null) {
+                log.debug("Ignoring unsupported JIRA event {}", event.getWebhookEvent());
+                return;
+            }
+
+            int saved = jiraCollectorService.ingestIssues(List.of(event.getIssue()));
+            log.debug("JIRA webhook {} applied to {} tickets", event.getWebhookEvent(), saved);
+        } catch (Exception e) {
+            log.error("Error processing JIRA webhook", e);
+        }
+    }
+
+    private void processPush(GitLabPushEvent event) {
+        if (event.getCommits() == null || event.getCommits().isEmpty() || event.getProjectId() == null) {
+            return;
+        }
+
+        var commits = event.getCommits().stream()
+                .map(gitLabMapper::fromPushCommit)
+                .toList();
+        int saved = gitLabCollectorService.ingestCommits(String.valueOf(event.getProjectId()), commits);
+        log.debug("GitLab push webhook saved {} commits for project {}", saved, event.getProjectId());
+    }
+
+    private void processMergeRequest(GitLabMergeRequestEvent event) {
+        if (event.getObjectAttributes() == null) {
+            return;
+        }
+        gitLabCollectorService.ingestMergeRequests(List.of(gitLabMapper.fromMergeRequestEvent(event)));
+    }
+
+    private void processDeployment(GitLabDeploymentEvent event) {
+        if (event.getDeploymentId() == null || event.getEnvironment() == null) {
+            return;
+        }
+        gitLabCollectorService.ingestDeployment(gitLabMapper.toDeployment(event));
+    }
+}
@@ -296,22 +296,6 @@ public class AlertService {
     }
 
     private AlertResponse mapToResponse(Alert alert) {
-        return AlertResponse.builder()
-                .id(alert.getId())
-                .teamId(alert.getTeam() != null ? alert.getTeam().getId() : null)
-                .teamName(alert.getTeam() != null ? alert.getTeam().getName() : null)
-                .type(alert.getType())
-                .severity(alert.getSeverity())
-                .title(alert.getTitle())
-                .message(alert.getMessage())
-                .source(alert.getSource())
-                .metadata(alert.getMetadata())
-                .resolved(alert.isResolved())
-                .acknowledged(alert.isAcknowledged())
-                .resolution(alert.getResolution())
-                .createdAt(alert.getCreatedAt())
-                .acknowledgedAt(alert.getAcknowledgedAt())
-                .resolvedAt(alert.getResolvedAt())
-                .build();
+        return AlertResponse.from(alert);
     }
 }
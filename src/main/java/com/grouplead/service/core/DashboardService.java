@@ -1,94 +1,155 @@
 package com.grouplead.service.core;
 
+import com.grouplead.config.AsyncConfig;
+import com.grouplead.domain.enums.MetricType;
 import com.grouplead.domain.enums.PeriodType;
 import com.grouplead.domain.enums.SprintStatus;
 import com.grouplead.domain.enums.TicketStatus;
 import com.grouplead.domain.vo.DateRange;
 import com.grouplead.dto.response.*;
 import com.grouplead.repository.AlertRepository;
+import com.grouplead.repository.DeploymentRepository;
+import com.grouplead.repository.MetricPointRepository;
 import com.grouplead.repository.SprintRepository;
+import com.grouplead.repository.SprintStatsRepository;
 import com.grouplead.repository.TicketRepository;
 import com.grouplead.service.collector.JiraCollectorService;
 import com.grouplead.service.processor.DoraMetricsService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DashboardService {
 
+    private static final int VELOCITY_HISTORY_SPRINTS = 6;
+    private static final int RECENT_ALERTS = 5;
+
+    // The types CloudWatchCollectorService stores, and within them the CloudWatch metrics in each column's unit
+    private static final List<MetricType> INFRASTRUCTURE_TYPES = List.of(
+            MetricType.LATENCY, MetricType.ERROR_RATE, MetricType.CPU_UTILIZATION,
+            MetricType.MEMORY_UTILIZATION, MetricType.REQUEST_COUNT);
+
     private final SprintRepository sprintRepository;
     private final TicketRepository ticketRepository;
     private final AlertRepository alertRepository;
+    private final DeploymentRepository deploymentRepository;
+    private final SprintStatsRepository sprintStatsRepository;
+    private final MetricPointRepository metricPointRepository;
     private final JiraCollectorService jiraCollectorService;
     private final DoraMetricsService doraMetricsService;
+    private final Executor dashboardExecutor;
+    private final TransactionTemplate widgetTransaction;
+    // Shared by all summary requests, so widgets never hold more than this many pooled connections
+    private final Semaphore widgetQueries;
+
+    // Every summary widget starts at once, so the summary takes as long as the slowest one, capped at this
+    private final Duration widgetTimeout;
+
+    @Value("${alerts.thresholds.latency-p99-ms:500}")
+    private double latencyThresholdMs;
+
+    @Value("${alerts.thresholds.error-rate-percent:1.0}")
+    private double errorRateThresholdPercent;
+
+    public DashboardService(SprintRepository sprintRepository,
+                            TicketRepository ticketRepository,
+                            AlertRepository alertRepository,
+                            DeploymentRepository deploymentRepository,
+                            SprintStatsRepository sprintStatsRepository,
+                            MetricPointRepository metricPointRepository,
+                            JiraCollectorService jiraCollectorService,
+                            DoraMetricsService doraMetricsService,
+                            @Qualifier(AsyncConfig.DASHBOARD_EXECUTOR) Executor dashboardExecutor,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${dashboard.widget-timeout:2s}") Duration widgetTimeout,
+                            @Value("${dashboard.max-concurrent-queries:8}") int maxConcurrentQueries) {
+        this.sprintRepository = sprintRepository;
+        this.ticketRepository = ticketRepository;
+        this.alertRepository = alertRepository;
+        this.deploymentRepository = deploymentRepository;
+        this.sprintStatsRepository = sprintStatsRepository;
+        this.metricPointRepository = metricPointRepository;
+        this.jiraCollectorService = jiraCollectorService;
+        this.doraMetricsService = doraMetricsService;
+        this.dashboardExecutor = dashboardExecutor;
+        this.widgetTimeout = widgetTimeout;
+        this.widgetQueries = new Semaphore(maxConcurrentQueries);
+
+        // The transaction timeout becomes each statement's query timeout, so the database cancels a widget's
+        // query once its result could no longer be used
+        this.widgetTransaction = new TransactionTemplate(transactionManager);
+        this.widgetTransaction.setReadOnly(true);
+        this.widgetTransaction.setTimeout((int) Math.max(1, (widgetTimeout.toMillis() + 999) / 1000));
+    }
 
-    @Cacheable(value = "dashboard", key = "#range.start().toString()")
+    // Partial summaries are not cached, so a widget that timed out is retried on the next request
+    @Cacheable(value = "dashboard", key = "@cacheKeys.range(#range)",
+            unless = "!#result.unavailableWidgets().isEmpty()")
     public DashboardSummaryResponse getSummary(DateRange range) {
-        // Get completed tickets
-        var completedTickets = ticketRepository.findCompletedSince(range.start());
-        int ticketsCompleted = completedTickets.size();
-        int storyPointsCompleted = completedTickets.stream()
-                .filter(t -> t.getStoryPoints() != null)
-                .mapToInt(t -> t.getStoryPoints())
-                .sum();
-
-        // Get current sprint (if any active)
-        var activeSprints = sprintRepository.findActiveSprints();
-        SprintProgressResponse currentSprint = null;
-        if (!activeSprints.isEmpty()) {
-            var sprint = activeSprints.get(0);
-            var metrics = jiraCollectorService.calculateSprintMetrics(sprint.getExternalId());
-            currentSprint = new SprintProgressResponse(
-                    sprint.getId(),
-                    sprint.getExternalId(),
-                    sprint.getName(),
-                    sprint.getGoal(),
-                    sprint.getStartDate(),
-                    sprint.getEndDate(),
-                    sprint.getDaysRemaining(),
-                    sprint.getStatus(),
-                    new SprintProgressResponse.ProgressDetails(
-                            metrics.totalTickets(),
-                            metrics.completedTickets(),
-                            metrics.inProgressTickets(),
-                            metrics.todoTickets(),
-                            metrics.blockedTickets(),
-                            metrics.totalStoryPoints(),
-                            metrics.completedStoryPoints(),
-                            metrics.getProgress()
-                    )
-            );
-        }
+        // The period of the same length just before, for the change percentages
+        Duration length = Duration.between(range.start(), range.end());
+        DateRange previous = new DateRange(range.start().minus(length), range.start().minusSeconds(1));
 
-        // Get recent alerts
-        var recentAlerts = alertRepository.findRecentAlerts(LocalDateTime.now().minusDays(7));
-        var alertResponses = recentAlerts.stream()
-                .limit(5)
-                .map(AlertResponse::from)
-                .toList();
+        Set<String> unavailable = ConcurrentHashMap.newKeySet();
+
+        var tickets = widget("tickets", unavailable, () -> new PeriodTotals(
+                ticketRepository.countCompletedInPeriod(range.start(), range.end()),
+                ticketRepository.countCompletedInPeriod(previous.start(), previous.end())), PeriodTotals.EMPTY);
+        var storyPoints = widget("storyPoints", unavailable, () -> new PeriodTotals(
+                ticketRepository.sumStoryPointsCompletedInPeriod(range.start(), range.end()),
+                ticketRepository.sumStoryPointsCompletedInPeriod(previous.start(), previous.end())), PeriodTotals.EMPTY);
+        var deployments = widget("deployments", unavailable, () -> new PeriodTotals(
+                deploymentRepository.countDeploymentsInPeriod(range.start(), range.end()),
+                deploymentRepository.countDeploymentsInPeriod(previous.start(), previous.end())), PeriodTotals.EMPTY);
+        var currentSprint = widget("currentSprint", unavailable, this::loadCurrentSprint, null);
+        CompletableFuture<List<DashboardSummaryResponse.VelocityDataPoint>> velocityHistory =
+                widget("velocityHistory", unavailable, this::loadVelocityHistory, List.of());
+        var infrastructure = widget("infrastructure", unavailable, () -> loadInfrastructure(DateRange.lastDays(1)), null);
+        CompletableFuture<List<AlertResponse>> recentAlerts =
+                widget("recentAlerts", unavailable, this::loadRecentAlerts, List.of());
+
+        CompletableFuture.allOf(tickets, storyPoints, deployments, currentSprint,
+                velocityHistory, infrastructure, recentAlerts).join();
 
         return new DashboardSummaryResponse(
-                ticketsCompleted,
-                0.0, // Change calculation would need previous period
-                storyPointsCompleted,
-                0.0,
-                0, // Deployments - would come from deployment repo
-                0.0,
+                (int) tickets.join().current(),
+                tickets.join().change(),
+                (int) storyPoints.join().current(),
+                storyPoints.join().change(),
+                (int) deployments.join().current(),
+                deployments.join().change(),
                 99.9, // Uptime placeholder
                 0.0,
-                currentSprint,
-                List.of(), // Velocity history
-                storyPointsCompleted,
-                null, // Infrastructure metrics
-                alertResponses,
-                List.of() // AI insights
+                currentSprint.join(),
+                velocityHistory.join(),
+                (int) storyPoints.join().current(),
+                infrastructure.join(),
+                recentAlerts.join(),
+                List.of(), // AI insights
+                unavailable.stream().sorted().toList()
         );
     }
 
@@ -124,19 +185,133 @@ public class DashboardService {
     }
 
     public InfrastructureMetricsResponse getInfrastructureMetrics(PeriodType period) {
-        // Placeholder - would integrate with CloudWatch
+        return loadInfrastructure(getDateRangeForPeriod(period));
+    }
+
+    // Runs the query on its own virtual thread once a query slot is free. A failure or timeout degrades to the
+    // fallback and is reported in the response rather than failing the whole summary.
+    private <T> CompletableFuture<T> widget(String name, Set<String> unavailable, Supplier<T> query, T fallback) {
+        return CompletableFuture.supplyAsync(() -> runQuery(query), dashboardExecutor)
+                .orTimeout(widgetTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        log.warn("Dashboard widget {} timed out after {}", name, widgetTimeout);
+                    } else {
+                        log.error("Dashboard widget {} failed", name, cause);
+                    }
+                    unavailable.add(name);
+                    return fallback;
+                });
+    }
+
+    private <T> T runQuery(Supplier<T> query) {
+        try {
+            if (!widgetQueries.tryAcquire(widgetTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new CompletionException(new TimeoutException("No dashboard query slot within " + widgetTimeout));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+
+        try {
+            return widgetTransaction.execute(status -> query.get());
+        } finally {
+            widgetQueries.release();
+        }
+    }
+
+    private SprintProgressResponse loadCurrentSprint() {
+        var activeSprints = sprintRepository.findActiveSprints();
+        if (activeSprints.isEmpty()) {
+            return null;
+        }
+
+        var sprint = activeSprints.get(0);
+        var metrics = jiraCollectorService.calculateSprintMetrics(sprint.getExternalId());
+        return SprintProgressResponse.from(sprint,
+                new SprintProgressResponse.ProgressDetails(
+                        metrics.totalTickets(),
+                        metrics.completedTickets(),
+                        metrics.inProgressTickets(),
+                        metrics.todoTickets(),
+                        metrics.blockedTickets(),
+                        metrics.totalStoryPoints(),
+                        metrics.completedStoryPoints(),
+                        metrics.getProgress()
+                ));
+    }
+
+    // Oldest first, for charting; planned falls back to the points in the sprint when nothing was committed
+    private List<DashboardSummaryResponse.VelocityDataPoint> loadVelocityHistory() {
+        List<DashboardSummaryResponse.VelocityDataPoint> history = new ArrayList<>();
+        for (var sprint : sprintStatsRepository.findLast(VELOCITY_HISTORY_SPRINTS)) {
+            int planned = sprint.committedPoints() != null ? sprint.committedPoints() : sprint.totalPoints();
+            history.add(0, new DashboardSummaryResponse.VelocityDataPoint(
+                    sprint.name(),
+                    planned,
+                    sprint.points(TicketStatus.DONE, TicketStatus.CLOSED)
+            ));
+        }
+        return history;
+    }
+
+    private List<AlertResponse> loadRecentAlerts() {
+        return alertRepository.findRecentAlertsWithTeam(LocalDateTime.now().minusDays(7), PageRequest.of(0, RECENT_ALERTS))
+                .stream()
+                .map(AlertResponse::from)
+                .toList();
+    }
+
+    // Averages per resource over the range from the collected datapoints. The collector only gives these types
+    // to metrics in the unit a column and its threshold assume; the error rate is derived from error and request
+    // counts.
+    private InfrastructureMetricsResponse loadInfrastructure(DateRange range) {
+        Map<String, ResourceTotals> byResource = new TreeMap<>();
+        metricPointRepository.forEachResourceSummary(INFRASTRUCTURE_TYPES, range.start(), range.end(),
+                (resourceId, type, metricName, average, total) -> byResource
+                        .computeIfAbsent(resourceId, key -> new ResourceTotals())
+                        .add(type, average, total));
+
+        List<InfrastructureMetricsResponse.ServiceMetrics> services = new ArrayList<>(byResource.size());
+        double worstLatency = 0;
+        double errorRateSum = 0;
+        int errorRateCount = 0;
+
+        for (Map.Entry<String, ResourceTotals> entry : byResource.entrySet()) {
+            ResourceTotals totals = entry.getValue();
+            Double latency = totals.latencyMs;
+            Double errorRate = totals.errorRatePercent();
+
+            boolean healthy = (latency == null || latency <= latencyThresholdMs)
+                    && (errorRate == null || errorRate <= errorRateThresholdPercent);
+
+            services.add(new InfrastructureMetricsResponse.ServiceMetrics(
+                    entry.getKey(),
+                    healthy ? "healthy" : "degraded",
+                    latency,
+                    errorRate,
+                    totals.cpuPercent,
+                    totals.memoryPercent,
+                    null, // No disk utilization metric is collected
+                    (int) totals.requests
+            ));
+
+            if (latency != null) {
+                worstLatency = Math.max(worstLatency, latency);
+            }
+            if (errorRate != null) {
+                errorRateSum += errorRate;
+                errorRateCount++;
+            }
+        }
+
         return new InfrastructureMetricsResponse(
-                List.of(
-                        new InfrastructureMetricsResponse.ServiceMetrics(
-                                "api-gateway", "healthy", 89.0, 0.02, 45.0, 62.0, 30.0, 10000
-                        ),
-                        new InfrastructureMetricsResponse.ServiceMetrics(
-                                "backend-api", "healthy", 120.0, 0.05, 55.0, 70.0, 40.0, 8000
-                        )
-                ),
-                99.95,
-                120.0,
-                0.05,
+                services,
+                null, // No availability source is collected yet
+                worstLatency,
+                errorRateCount > 0 ? errorRateSum / errorRateCount : 0.0,
                 (int) alertRepository.countActiveAlerts()
         );
     }
@@ -152,4 +327,37 @@ public class DashboardService {
             default -> DateRange.lastDays(7);
         };
     }
+
+    private record PeriodTotals(long current, long previous) {
+
+        static final PeriodTotals EMPTY = new PeriodTotals(0, 0);
+
+        // Percentage change against the previous period; 0 when there is nothing to compare with
+        double change() {
+            return previous > 0 ? (double) (current - previous) / previous * 100 : 0.0;
+        }
+    }
+
+    private static final class ResourceTotals {
+        private Double latencyMs;
+        private Double cpuPercent;
+        private Double memoryPercent;
+        private Double errors;
+        private double requests;
+
+        void add(MetricType type, double average, double total) {
+            switch (type) {
+                case LATENCY -> latencyMs = average;
+                case CPU_UTILIZATION -> cpuPercent = average;
+                case MEMORY_UTILIZATION -> memoryPercent = average;
+                case ERROR_RATE -> errors = (errors != null ? errors : 0) + total;
+                case REQUEST_COUNT -> requests += total;
+                default -> { }
+            }
+        }
+
+        Double errorRatePercent() {
+            return errors != null && requests > 0 ? errors * 100.0 / requests : null;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.grouplead.service.core;
 
 import com.grouplead.domain.entity.Developer;
 import com.grouplead.domain.entity.Team;
+import com.grouplead.domain.event.DeveloperChangedEvent;
 import com.grouplead.domain.enums.PeriodType;
 import com.grouplead.domain.vo.DateRange;
 import com.grouplead.dto.request.DeveloperRequest;
@@ -15,6 +16,7 @@ import com.grouplead.repository.TeamRepository;
 import com.grouplead.repository.TicketRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +32,7 @@ public class DeveloperService {
     private final TicketRepository ticketRepository;
     private final CommitRepository commitRepository;
     private final MergeRequestRepository mergeRequestRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<DeveloperResponse> getAllDevelopers() {
         return developerRepository.findByActiveTrue().stream()
@@ -70,6 +73,7 @@ public class DeveloperService {
                 .build();
 
         developer = developerRepository.save(developer);
+        eventPublisher.publishEvent(new DeveloperChangedEvent(developer.getId()));
         return DeveloperResponse.from(developer);
     }
 
@@ -94,6 +98,7 @@ public class DeveloperService {
         }
 
         developer = developerRepository.save(developer);
+        eventPublisher.publishEvent(new DeveloperChangedEvent(developer.getId()));
         return DeveloperResponse.from(developer);
     }
 
@@ -106,6 +111,7 @@ public class DeveloperService {
 
         developer.setActive(false);
         developerRepository.save(developer);
+        eventPublisher.publishEvent(new DeveloperChangedEvent(developer.getId()));
     }
 
     public DeveloperMetricsResponse getMetrics(Long developerId, PeriodType period) {
@@ -4,20 +4,27 @@ import com.grouplead.domain.entity.Incident;
 import com.grouplead.domain.entity.Team;
 import com.grouplead.domain.enums.IncidentSeverity;
 import com.grouplead.domain.enums.IncidentStatus;
+import com.grouplead.domain.event.DoraDataChangedEvent;
 import com.grouplead.exception.ResourceNotFoundException;
 import com.grouplead.repository.IncidentRepository;
 import com.grouplead.repository.TeamRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class IncidentService {
@@ -26,11 +33,14 @@ public class IncidentService {
 
     private final IncidentRepository incidentRepository;
     private final TeamRepository teamRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public IncidentService(IncidentRepository incidentRepository,
-                          TeamRepository teamRepository) {
+                          TeamRepository teamRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.incidentRepository = incidentRepository;
         this.teamRepository = teamRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -82,6 +92,7 @@ public class IncidentService {
     public Incident updateIncidentStatus(Long incidentId, IncidentStatus newStatus) {
         Incident incident = getIncident(incidentId);
         IncidentStatus oldStatus = incident.getStatus();
+        LocalDateTime previouslyResolvedAt = incident.getResolvedAt();
 
         incident.setStatus(newStatus);
 
@@ -93,6 +104,7 @@ public class IncidentService {
         }
 
         Incident saved = incidentRepository.save(incident);
+        publishResolvedDays(previouslyResolvedAt, saved.getResolvedAt());
         log.info("Updated incident {} status from {} to {}", incidentId, oldStatus, newStatus);
 
         return saved;
@@ -101,6 +113,7 @@ public class IncidentService {
     @Transactional
     public Incident resolveIncident(Long incidentId, String resolution, String rootCause) {
         Incident incident = getIncident(incidentId);
+        LocalDateTime previouslyResolvedAt = incident.getResolvedAt();
 
         incident.setStatus(IncidentStatus.RESOLVED);
         incident.setResolvedAt(LocalDateTime.now());
@@ -109,6 +122,7 @@ public class IncidentService {
         calculateMTTR(incident);
 
         Incident saved = incidentRepository.save(incident);
+        publishResolvedDays(previouslyResolvedAt, saved.getResolvedAt());
         log.info("Resolved incident: {} - MTTR: {} minutes", saved.getId(), saved.getMttrMinutes());
 
         return saved;
@@ -184,6 +198,25 @@ public class IncidentService {
                 .orElse(0.0);
     }
 
+    // Recovery counts toward the resolution day; re-resolving moves it, so both days are refreshed
+    private void publishResolvedDays(LocalDateTime previous, LocalDateTime current) {
+        Set<LocalDate> days = new HashSet<>();
+        if (previous != null) {
+            days.add(utcDay(previous));
+        }
+        if (current != null) {
+            days.add(utcDay(current));
+        }
+        if (!days.isEmpty()) {
+            eventPublisher.publishEvent(new DoraDataChangedEvent(days));
+        }
+    }
+
+    // Entity times are JVM-zone wall clock, stored as instants; the snapshot is keyed by UTC day
+    private LocalDate utcDay(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+    }
+
     private void calculateMTTR(Incident incident) {
         if (incident.getStartedAt() != null && incident.getResolvedAt() != null) {
             Duration duration = Duration.between(incident.getStartedAt(), incident.getResolvedAt());
@@ -2,14 +2,14 @@ package com.grouplead.service.core;
 
 import com.grouplead.domain.entity.Sprint;
 import com.grouplead.domain.entity.Team;
-import com.grouplead.domain.entity.Ticket;
 import com.grouplead.domain.enums.SprintStatus;
 import com.grouplead.domain.enums.TicketStatus;
 import com.grouplead.domain.vo.SprintMetrics;
+import com.grouplead.domain.vo.SprintTicketStats;
 import com.grouplead.exception.ResourceNotFoundException;
 import com.grouplead.repository.SprintRepository;
+import com.grouplead.repository.SprintStatsRepository;
 import com.grouplead.repository.TeamRepository;
-import com.grouplead.repository.TicketRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -29,14 +29,14 @@ public class SprintService {
 
     private final SprintRepository sprintRepository;
     private final TeamRepository teamRepository;
-    private final TicketRepository ticketRepository;
+    private final SprintStatsRepository sprintStatsRepository;
 
     public SprintService(SprintRepository sprintRepository,
                         TeamRepository teamRepository,
-                        TicketRepository ticketRepository) {
+                        SprintStatsRepository sprintStatsRepository) {
         this.sprintRepository = sprintRepository;
         this.teamRepository = teamRepository;
-        this.ticketRepository = ticketRepository;
+        this.sprintStatsRepository = sprintStatsRepository;
     }
 
     @Transactional(readOnly = true)
@@ -149,27 +149,42 @@ public class SprintService {
 
     @Transactional(readOnly = true)
     public SprintMetrics getSprintMetrics(Long sprintId) {
-        Sprint sprint = getSprint(sprintId);
-        List<Ticket> tickets = ticketRepository.findBySprintId(sprintId);
-
-        int totalTickets = tickets.size();
-        int completedTickets = (int) tickets.stream()
-                .filter(t -> t.getStatus() == TicketStatus.DONE)
-                .count();
-        int inProgressTickets = (int) tickets.stream()
-                .filter(t -> t.getStatus() == TicketStatus.IN_PROGRESS)
-                .count();
-        int todoTickets = (int) tickets.stream()
-                .filter(t -> t.getStatus() == TicketStatus.TODO || t.getStatus() == TicketStatus.BACKLOG)
-                .count();
-
-        int totalPoints = tickets.stream()
-                .mapToInt(t -> t.getStoryPoints() != null ? t.getStoryPoints() : 0)
-                .sum();
-        int completedPoints = tickets.stream()
-                .filter(t -> t.getStatus() == TicketStatus.DONE)
-                .mapToInt(t -> t.getStoryPoints() != null ? t.getStoryPoints() : 0)
-                .sum();
+        SprintTicketStats sprint = sprintStatsRepository.findBySprintId(sprintId)
+                .orElseThrow(() -> new ResourceNotFoundException("Sprint", sprintId));
+        return toSprintMetrics(sprint);
+    }
+
+    @Transactional(readOnly = true)
+    public double calculateAverageVelocity(Long teamId, int lastNSprints) {
+        List<Sprint> completedSprints = sprintRepository.findByTeamIdAndStatusOrderByEndDateDesc(
+                teamId, SprintStatus.COMPLETED, Pageable.ofSize(lastNSprints));
+
+        if (completedSprints.isEmpty()) {
+            return 0;
+        }
+
+        return completedSprints.stream()
+                .mapToInt(s -> s.getCompletedPoints() != null ? s.getCompletedPoints() : 0)
+                .average()
+                .orElse(0);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SprintMetrics> getSprintHistory(Long teamId, int lastNSprints) {
+        return sprintStatsRepository.findLastByTeam(teamId, lastNSprints).stream()
+                .map(this::toSprintMetrics)
+                .toList();
+    }
+
+    private SprintMetrics toSprintMetrics(SprintTicketStats sprint) {
+        int totalTickets = sprint.totalTickets();
+        int completedTickets = sprint.tickets(TicketStatus.DONE);
+        int inProgressTickets = sprint.tickets(TicketStatus.IN_PROGRESS);
+        int todoTickets = sprint.tickets(TicketStatus.TODO, TicketStatus.BACKLOG);
+        int blockedTickets = sprint.tickets(TicketStatus.BLOCKED);
+
+        int totalPoints = sprint.totalPoints();
+        int completedPoints = sprint.points(TicketStatus.DONE);
 
         double completionRate = totalTickets > 0 ?
                 (double) completedTickets / totalTickets * 100 : 0;
@@ -179,88 +194,61 @@ public class SprintService {
         long totalDays = 0;
         double progressPercentage = 0;
 
-        if (sprint.getStartDate() != null && sprint.getEndDate() != null) {
+        if (sprint.startDate() != null && sprint.endDate() != null) {
             LocalDate today = LocalDate.now();
-            totalDays = ChronoUnit.DAYS.between(sprint.getStartDate(), sprint.getEndDate());
+            totalDays = ChronoUnit.DAYS.between(sprint.startDate(), sprint.endDate());
 
-            if (today.isBefore(sprint.getEndDate())) {
-                daysRemaining = ChronoUnit.DAYS.between(today, sprint.getEndDate());
+            if (today.isBefore(sprint.endDate())) {
+                daysRemaining = ChronoUnit.DAYS.between(today, sprint.endDate());
             }
 
-            long daysElapsed = ChronoUnit.DAYS.between(sprint.getStartDate(), today);
+            long daysElapsed = ChronoUnit.DAYS.between(sprint.startDate(), today);
             progressPercentage = totalDays > 0 ?
                     Math.min(100, (double) daysElapsed / totalDays * 100) : 0;
         }
 
         // Calculate velocity (points per day)
         double velocity = 0;
-        if (sprint.getStatus() == SprintStatus.COMPLETED && totalDays > 0) {
+        if (sprint.status() == SprintStatus.COMPLETED && totalDays > 0) {
             velocity = (double) completedPoints / totalDays;
-        } else if (sprint.getStartDate() != null) {
-            long daysElapsed = ChronoUnit.DAYS.between(sprint.getStartDate(), LocalDate.now());
+        } else if (sprint.startDate() != null) {
+            long daysElapsed = ChronoUnit.DAYS.between(sprint.startDate(), LocalDate.now());
             if (daysElapsed > 0) {
                 velocity = (double) completedPoints / daysElapsed;
             }
         }
 
         return SprintMetrics.builder()
-                .sprintId(sprintId)
-                .sprintName(sprint.getName())
-                .status(sprint.getStatus())
+                .sprintId(sprint.sprintId())
+                .sprintName(sprint.name())
+                .status(sprint.status())
                 .totalTickets(totalTickets)
                 .completedTickets(completedTickets)
                 .inProgressTickets(inProgressTickets)
                 .todoTickets(todoTickets)
+                .blockedTickets(blockedTickets)
                 .totalPoints(totalPoints)
                 .completedPoints(completedPoints)
-                .committedPoints(sprint.getCommittedPoints() != null ? sprint.getCommittedPoints() : totalPoints)
+                .committedPoints(sprint.committedPoints() != null ? sprint.committedPoints() : totalPoints)
                 .completionRate(completionRate)
                 .daysRemaining((int) daysRemaining)
                 .totalDays((int) totalDays)
                 .progressPercentage(progressPercentage)
                 .velocity(velocity)
-                .startDate(sprint.getStartDate())
-                .endDate(sprint.getEndDate())
+                .startDate(sprint.startDate())
+                .endDate(sprint.endDate())
                 .build();
     }
 
-    @Transactional(readOnly = true)
-    public double calculateAverageVelocity(Long teamId, int lastNSprints) {
-        List<Sprint> completedSprints = sprintRepository.findByTeamIdAndStatusOrderByEndDateDesc(
-                teamId, SprintStatus.COMPLETED, Pageable.ofSize(lastNSprints));
-
-        if (completedSprints.isEmpty()) {
-            return 0;
-        }
-
-        return completedSprints.stream()
-                .mapToInt(s -> s.getCompletedPoints() != null ? s.getCompletedPoints() : 0)
-                .average()
-                .orElse(0);
-    }
-
-    @Transactional(readOnly = true)
-    public List<SprintMetrics> getSprintHistory(Long teamId, int lastNSprints) {
-        List<Sprint> sprints = sprintRepository.findByTeamIdOrderByEndDateDesc(
-                teamId, Pageable.ofSize(lastNSprints));
-
-        return sprints.stream()
-                .map(s -> getSprintMetrics(s.getId()))
-                .toList();
-    }
-
     private int calculateCommittedPoints(Long sprintId) {
-        List<Ticket> tickets = ticketRepository.findBySprintId(sprintId);
-        return tickets.stream()
-                .mapToInt(t -> t.getStoryPoints() != null ? t.getStoryPoints() : 0)
-                .sum();
+        return sprintStatsRepository.findBySprintId(sprintId)
+                .map(SprintTicketStats::totalPoints)
+                .orElse(0);
     }
 
     private int calculateCompletedPoints(Long sprintId) {
-        List<Ticket> tickets = ticketRepository.findBySprintId(sprintId);
-        return tickets.stream()
-                .filter(t -> t.getStatus() == TicketStatus.DONE)
-                .mapToInt(t -> t.getStoryPoints() != null ? t.getStoryPoints() : 0)
-                .sum();
+        return sprintStatsRepository.findBySprintId(sprintId)
+                .map(sprint -> sprint.points(TicketStatus.DONE))
+                .orElse(0);
     }
 }
@@ -0,0 +1,237 @@
+package com.grouplead.service.processor;
+
+import com.grouplead.config.IntegrationProperties;
+import com.grouplead.exception.IntegrationException;
+import com.grouplead.integration.aws.dto.CostData;
+import com.grouplead.integration.aws.dto.CostForecast;
+import com.grouplead.repository.CostDailyRepository;
+import com.grouplead.service.collector.CloudWatchCollectorService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Answers cost questions from the cost_daily cube; Cost Explorer is only called for days never loaded
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CostQueryService {
+
+    private static final String CURRENCY = "USD";
+    private static final int FORECAST_HISTORY_DAYS = 56;
+    private static final double Z_95 = 1.96;
+
+    private final CostDailyRepository costDailyRepository;
+    private final CloudWatchCollectorService cloudWatchCollectorService;
+    private final IntegrationProperties properties;
+
+    // Cost Explorer fetches in progress by missing range; a request needing the same days waits for that fetch
+    // while requests for other days load their own in parallel
+    private final Map<String, CompletableFuture<Void>> inFlightLoads = new ConcurrentHashMap<>();
+
+    public List<CostData.DailyCost> getDailyTrend(LocalDate startDate, LocalDate endDate) {
+        ensureLoaded(startDate, endDate);
+        Map<LocalDate, Double> totals = costDailyRepository.findDailyTotals(tagKey(), startDate, endDate);
+
+        List<CostData.DailyCost> trend = new ArrayList<>();
+        for (LocalDate day = startDate; day.isBefore(endDate); day = day.plusDays(1)) {
+            trend.add(CostData.DailyCost.builder()
+                    .date(day)
+                    .amount(totals.getOrDefault(day, 0.0))
+                    .currency(CURRENCY)
+                    .build());
+        }
+        return trend;
+    }
+
+    // Ranked by service; the cube is grouped by service and team tag, not usage type
+    public List<CostData.ResourceCost> getTopServices(LocalDate startDate, LocalDate endDate, int limit) {
+        ensureLoaded(startDate, endDate);
+        return costDailyRepository.findTopServices(tagKey(), startDate, endDate, limit).stream()
+                .map(total -> CostData.ResourceCost.builder()
+                        .service(total.service())
+                        .amount(total.amount())
+                        .currency(total.currency())
+                        .build())
+                .toList();
+    }
+
+    public CostData getMonthToDate() {
+        LocalDate today = LocalDate.now();
+        LocalDate startDate = today.withDayOfMonth(1);
+        List<CostData.DailyCost> dailyCosts = getDailyTrend(startDate, today.plusDays(1));
+
+        return CostData.builder()
+                .totalAmount(dailyCosts.stream().mapToDouble(CostData.DailyCost::getAmount).sum())
+                .currency(CURRENCY)
+                .startDate(startDate)
+                .endDate(today)
+                .dailyCosts(dailyCosts)
+                .build();
+    }
+
+    // Linear trend over recent daily totals, scaled by a day-of-week factor and summed per month
+    public CostForecast getForecast(LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate historyStart = today.minusDays(FORECAST_HISTORY_DAYS);
+        ensureLoaded(historyStart, today);
+        Map<LocalDate, Double> totals = costDailyRepository.findDailyTotals(tagKey(), historyStart, today);
+
+        int n = FORECAST_HISTORY_DAYS;
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = totals.getOrDefault(historyStart.plusDays(i), 0.0);
+        }
+
+        // Least squares fit of y = intercept + slope * x
+        double meanX = (n - 1) / 2.0;
+        double meanY = 0;
+        for (double value : y) {
+            meanY += value;
+        }
+        meanY /= n;
+
+        double sxy = 0;
+        double sxx = 0;
+        for (int i = 0; i < n; i++) {
+            sxy += (i - meanX) * (y[i] - meanY);
+            sxx += (i - meanX) * (i - meanX);
+        }
+        double slope = sxx == 0 ? 0 : sxy / sxx;
+        double intercept = meanY - slope * meanX;
+
+        // Ratio of actual to trend per weekday, normalised so a full week keeps the trend's total
+        double[] seasonal = new double[7];
+        int[] seasonalCount = new int[7];
+        for (int i = 0; i < n; i++) {
+            double fitted = intercept + slope * i;
+            if (fitted > 0) {
+                int dow = historyStart.plusDays(i).getDayOfWeek().getValue() - 1;
+                seasonal[dow] += y[i] / fitted;
+                seasonalCount[dow]++;
+            }
+        }
+        double seasonalSum = 0;
+        for (int d = 0; d < 7; d++) {
+            seasonal[d] = seasonalCount[d] > 0 ? seasonal[d] / seasonalCount[d] : 1.0;
+            seasonalSum += seasonal[d];
+        }
+        for (int d = 0; d < 7; d++) {
+            seasonal[d] = seasonalSum > 0 ? seasonal[d] * 7 / seasonalSum : 1.0;
+        }
+
+        double sse = 0;
+        for (int i = 0; i < n; i++) {
+            double residual = y[i] - predict(intercept, slope, seasonal, historyStart, i);
+            sse += residual * residual;
+        }
+        double sigma = Math.sqrt(sse / (n - 2));
+
+        // Days already past are actuals, not forecasts
+        LocalDate from = startDate.isBefore(today) ? today : startDate;
+        List<CostForecast.ForecastPeriod> periods = new ArrayList<>();
+        double total = 0;
+
+        LocalDate periodStart = from;
+        while (periodStart.isBefore(endDate)) {
+            LocalDate nextMonth = periodStart.withDayOfMonth(1).plusMonths(1);
+            LocalDate periodEnd = nextMonth.isBefore(endDate) ? nextMonth : endDate;
+
+            double mean = 0;
+            for (LocalDate day = periodStart; day.isBefore(periodEnd); day = day.plusDays(1)) {
+                int x = (int) ChronoUnit.DAYS.between(historyStart, day);
+                mean += Math.max(0, predict(intercept, slope, seasonal, historyStart, x));
+            }
+            double margin = Z_95 * sigma * Math.sqrt(ChronoUnit.DAYS.between(periodStart, periodEnd));
+
+            periods.add(CostForecast.ForecastPeriod.builder()
+                    .startDate(periodStart)
+                    .endDate(periodEnd)
+                    .meanValue(mean)
+                    .predictionIntervalLowerBound(Math.max(0, mean - margin))
+                    .predictionIntervalUpperBound(mean + margin)
+                    .build());
+            total += mean;
+            periodStart = periodEnd;
+        }
+
+        return CostForecast.builder()
+                .totalForecastedAmount(total)
+                .currency(CURRENCY)
+                .forecastPeriods(periods)
+                .build();
+    }
+
+    private double predict(double intercept, double slope, double[] seasonal, LocalDate origin, int x) {
+        DayOfWeek dow = origin.plusDays(x).getDayOfWeek();
+        return (intercept + slope * x) * seasonal[dow.getValue() - 1];
+    }
+
+    // Fetches only the missing runs of days. Today counts once loaded; the scheduled refresh keeps re-reading it
+    // while it is still accruing.
+    private void ensureLoaded(LocalDate startDate, LocalDate endDate) {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        LocalDate end = endDate.isAfter(tomorrow) ? tomorrow : endDate;
+        if (!startDate.isBefore(end)) {
+            return;
+        }
+
+        for (LocalDate[] range : missingRanges(startDate, end)) {
+            load(range[0], range[1]);
+        }
+    }
+
+    private void load(LocalDate startDate, LocalDate endDate) {
+        String key = startDate + "/" + endDate;
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlightLoads.putIfAbsent(key, mine);
+        if (running != null) {
+            running.join();
+            return;
+        }
+
+        try {
+            cloudWatchCollectorService.loadCostDays(startDate, endDate);
+        } catch (IntegrationException e) {
+            log.warn("Could not load costs from {} to {}, serving what is stored: {}",
+                    startDate, endDate, e.getMessage());
+        } finally {
+            inFlightLoads.remove(key);
+            mine.complete(null);
+        }
+    }
+
+    private List<LocalDate[]> missingRanges(LocalDate startDate, LocalDate endDate) {
+        Set<LocalDate> loaded = costDailyRepository.findLoadedDays(tagKey(), startDate, endDate);
+        List<LocalDate[]> ranges = new ArrayList<>();
+
+        LocalDate rangeStart = null;
+        for (LocalDate day = startDate; day.isBefore(endDate); day = day.plusDays(1)) {
+            if (!loaded.contains(day)) {
+                if (rangeStart == null) {
+                    rangeStart = day;
+                }
+            } else if (rangeStart != null) {
+                ranges.add(new LocalDate[]{rangeStart, day});
+                rangeStart = null;
+            }
+        }
+        if (rangeStart != null) {
+            ranges.add(new LocalDate[]{rangeStart, endDate});
+        }
+        return ranges;
+    }
+
+    private String tagKey() {
+        return properties.getAws().getCost().getTeamTag();
+    }
+}
@@ -0,0 +1,89 @@
+package com.grouplead.service.processor;
+
+import com.grouplead.domain.event.DoraDataChangedEvent;
+import com.grouplead.repository.DoraDailyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.TreeSet;
+
+// Keeps dora_daily in step with the source tables, one touched day at a time
+@Service
+@Slf4j
+public class DoraSnapshotService {
+
+    // Bounds the size of a single rebuild transaction during backfill
+    private static final int BACKFILL_CHUNK_DAYS = 31;
+
+    private final DoraDailyRepository doraDailyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DoraSnapshotService(DoraDailyRepository doraDailyRepository, PlatformTransactionManager transactionManager) {
+        this.doraDailyRepository = doraDailyRepository;
+        // Listeners run after the writer's commit while its resources are still bound, so rebuilds need their own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // DORA results are served from the snapshot, so cached ones are stale once it changes
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @CacheEvict(value = "dora-metrics", allEntries = true)
+    public void onDoraDataChanged(DoraDataChangedEvent event) {
+        try {
+            // Runs of consecutive days, e.g. from a backfilled batch of merge requests, rebuild as one range
+            LocalDate rangeStart = null;
+            LocalDate rangeEnd = null;
+            for (LocalDate day : new TreeSet<>(event.days())) {
+                if (rangeStart != null && !day.equals(rangeEnd)) {
+                    rebuild(rangeStart, rangeEnd);
+                    rangeStart = null;
+                }
+                if (rangeStart == null) {
+                    rangeStart = day;
+                }
+                rangeEnd = day.plusDays(1);
+            }
+            if (rangeStart != null) {
+                rebuild(rangeStart, rangeEnd);
+            }
+            log.debug("DORA snapshot refreshed for {}", event.days());
+        } catch (Exception e) {
+            // The reconcile job rebuilds recent days, so a missed refresh heals on its next run
+            log.error("Error refreshing DORA snapshot for {}", event.days(), e);
+        }
+    }
+
+    @CacheEvict(value = "dora-metrics", allEntries = true)
+    public int rebuild(LocalDate from, LocalDate to) {
+        Integer rows = transactionTemplate.execute(status -> doraDailyRepository.rebuild(from, to));
+        return rows != null ? rows : 0;
+    }
+
+    // Fills the table from history the first time; later starts find it populated and skip
+    @CacheEvict(value = "dora-metrics", allEntries = true)
+    public void backfillIfEmpty() {
+        if (!doraDailyRepository.isEmpty()) {
+            return;
+        }
+        LocalDate earliest = doraDailyRepository.findEarliestSourceDay();
+        if (earliest == null) {
+            return;
+        }
+
+        LocalDate end = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        int rows = 0;
+        for (LocalDate from = earliest; from.isBefore(end); from = from.plusDays(BACKFILL_CHUNK_DAYS)) {
+            LocalDate to = from.plusDays(BACKFILL_CHUNK_DAYS).isBefore(end) ? from.plusDays(BACKFILL_CHUNK_DAYS) : end;
+            rows += rebuild(from, to);
+        }
+        log.info("DORA snapshot backfilled from {}: {} team-days", earliest, rows);
+    }
+}
@@ -0,0 +1,178 @@
+package com.grouplead.service.processor;
+
+import com.grouplead.domain.enums.MetricType;
+import com.grouplead.domain.enums.TimeGranularity;
+import com.grouplead.domain.vo.MetricPoint;
+import com.grouplead.repository.MetricPointRepository;
+import com.grouplead.repository.MetricRollupRepository;
+import com.grouplead.repository.MetricRollupRepository.Rollup;
+import com.grouplead.repository.MetricSketchRepository;
+import com.grouplead.util.QuantileSketch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.BiFunction;
+
+// Maintains the hourly and daily rollups from their watermarks and routes bucketed reads to them
+@Service
+@Slf4j
+public class MetricRollupService {
+
+    // One transaction per chunk keeps a first run over months of history from holding locks for long
+    private static final Duration HOURLY_CHUNK = Duration.ofDays(1);
+    private static final Duration DAILY_CHUNK = Duration.ofDays(31);
+
+    private final MetricRollupRepository metricRollupRepository;
+    private final MetricSketchRepository metricSketchRepository;
+    private final MetricPointRepository metricPointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // CloudWatch datapoints can land after their hour has closed; buckets this recent are rebuilt every run
+    @Value("${scheduler.aggregation.late-data-window:2h}")
+    private Duration lateDataWindow;
+
+    public MetricRollupService(MetricRollupRepository metricRollupRepository,
+                               MetricSketchRepository metricSketchRepository,
+                               MetricPointRepository metricPointRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.metricRollupRepository = metricRollupRepository;
+        this.metricSketchRepository = metricSketchRepository;
+        this.metricPointRepository = metricPointRepository;
+        // The scheduler holds its advisory lock in an outer transaction, so chunks still commit on their own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public int rollUpHours() {
+        LocalDateTime until = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime from = metricRollupRepository.findWatermark(Rollup.HOURLY)
+                .map(watermark -> watermark.minus(lateDataWindow))
+                .or(metricRollupRepository::findEarliestPoint)
+                .orElse(until)
+                .truncatedTo(ChronoUnit.HOURS);
+
+        int rows = advance(Rollup.HOURLY, from, until, HOURLY_CHUNK, this::rollUpHourChunk);
+        log.info("Hourly rollup refreshed {} buckets up to {}", rows, until);
+        return rows;
+    }
+
+    // Only days whose hours are all rolled up are built
+    public int rollUpDays() {
+        LocalDateTime hourlyWatermark = metricRollupRepository.findWatermark(Rollup.HOURLY).orElse(null);
+        if (hourlyWatermark == null) {
+            return 0;
+        }
+
+        LocalDateTime until = hourlyWatermark.truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime from = metricRollupRepository.findWatermark(Rollup.DAILY)
+                .map(watermark -> watermark.minus(lateDataWindow))
+                .or(metricRollupRepository::findEarliestPoint)
+                .orElse(until)
+                .truncatedTo(ChronoUnit.DAYS);
+
+        int rows = advance(Rollup.DAILY, from, until, DAILY_CHUNK, this::rollUpDayChunk);
+        log.info("Daily rollup refreshed {} buckets up to {}", rows, until);
+        return rows;
+    }
+
+    // Rebuilds the trailing window below the watermarks, for points that arrived after the late-data window
+    public int reconcile(Duration window) {
+        LocalDateTime from = LocalDateTime.now(ZoneOffset.UTC).minus(window).truncatedTo(ChronoUnit.DAYS);
+        int rows = 0;
+
+        LocalDateTime hourlyWatermark = metricRollupRepository.findWatermark(Rollup.HOURLY).orElse(null);
+        if (hourlyWatermark != null) {
+            rows += rebuild(from, hourlyWatermark, HOURLY_CHUNK, this::rollUpHourChunk);
+        }
+        LocalDateTime dailyWatermark = metricRollupRepository.findWatermark(Rollup.DAILY).orElse(null);
+        if (dailyWatermark != null) {
+            rows += rebuild(from, dailyWatermark, DAILY_CHUNK, this::rollUpDayChunk);
+        }
+
+        log.info("Rollup reconciliation since {} refreshed {} buckets", from, rows);
+        return rows;
+    }
+
+    // Hourly buckets never use the daily rollup; everything past the watermarks comes from raw points
+    public List<MetricPoint> findBucketMeans(MetricType type, TimeGranularity granularity,
+                                             LocalDateTime start, LocalDateTime end) {
+        LocalDateTime hourlyUntil = clamp(metricRollupRepository.findWatermark(Rollup.HOURLY).orElse(start), start, end);
+        LocalDateTime dailyUntil = granularity == TimeGranularity.HOURLY
+                ? start
+                : clamp(metricRollupRepository.findWatermark(Rollup.DAILY).orElse(start), start, hourlyUntil);
+
+        return metricRollupRepository.findBucketMeans(type, granularity.truncUnit(), start, end, dailyUntil, hourlyUntil);
+    }
+
+    // Sketches are built by the rollups, so the hours past the hourly watermark come from raw points
+    public QuantileSketch summarize(MetricType type, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime hourlyUntil = clamp(metricRollupRepository.findWatermark(Rollup.HOURLY).orElse(start), start, end);
+        LocalDateTime dailyUntil = clamp(metricRollupRepository.findWatermark(Rollup.DAILY).orElse(start), start, hourlyUntil);
+
+        QuantileSketch sketch = new QuantileSketch();
+        metricSketchRepository.mergeInto(sketch, type, Rollup.DAILY, start, dailyUntil);
+        metricSketchRepository.mergeInto(sketch, type, Rollup.HOURLY, dailyUntil, hourlyUntil);
+        metricPointRepository.forEachValue(type, hourlyUntil, end, sketch::add);
+        metricPointRepository.forEachLegacyValue(type, start, end, sketch::add);
+        return sketch;
+    }
+
+    private int rollUpHourChunk(LocalDateTime from, LocalDateTime to) {
+        int rows = metricRollupRepository.rollUpHours(from, to);
+        metricSketchRepository.rebuildHours(from, to);
+        return rows;
+    }
+
+    private int rollUpDayChunk(LocalDateTime from, LocalDateTime to) {
+        int rows = metricRollupRepository.rollUpDays(from, to);
+        metricSketchRepository.rollUpDays(from, to);
+        return rows;
+    }
+
+    private int advance(Rollup rollup, LocalDateTime from, LocalDateTime until, Duration chunk,
+                        BiFunction<LocalDateTime, LocalDateTime, Integer> step) {
+        int rows = 0;
+        for (LocalDateTime chunkStart = from; chunkStart.isBefore(until); ) {
+            LocalDateTime chunkEnd = min(chunkStart.plus(chunk), until);
+            LocalDateTime start = chunkStart;
+            Integer written = transactionTemplate.execute(status -> {
+                int count = step.apply(start, chunkEnd);
+                metricRollupRepository.saveWatermark(rollup, chunkEnd);
+                return count;
+            });
+            rows += written != null ? written : 0;
+            chunkStart = chunkEnd;
+        }
+        return rows;
+    }
+
+    private int rebuild(LocalDateTime from, LocalDateTime until, Duration chunk,
+                        BiFunction<LocalDateTime, LocalDateTime, Integer> step) {
+        int rows = 0;
+        for (LocalDateTime chunkStart = from; chunkStart.isBefore(until); ) {
+            LocalDateTime chunkEnd = min(chunkStart.plus(chunk), until);
+            LocalDateTime start = chunkStart;
+            Integer written = transactionTemplate.execute(status -> step.apply(start, chunkEnd));
+            rows += written != null ? written : 0;
+            chunkStart = chunkEnd;
+        }
+        return rows;
+    }
+
+    private LocalDateTime clamp(LocalDateTime value, LocalDateTime lower, LocalDateTime upper) {
+        return value.isBefore(lower) ? lower : min(value, upper);
+    }
+
+    private LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -3,14 +3,21 @@ package com.grouplead.service.processor;
 import com.grouplead.domain.entity.Metric;
 import com.grouplead.domain.enums.MetricType;
 import com.grouplead.domain.enums.PeriodType;
+import com.grouplead.domain.enums.TicketStatus;
+import com.grouplead.domain.enums.TimeGranularity;
 import com.grouplead.domain.vo.DateRange;
+import com.grouplead.domain.vo.MetricPoint;
 import com.grouplead.dto.response.CodeQualityResponse;
 import com.grouplead.dto.response.TimeSeriesResponse;
 import com.grouplead.dto.response.VelocityResponse;
 import com.grouplead.repository.CommitRepository;
-import com.grouplead.repository.MetricRepository;
-import com.grouplead.repository.SprintRepository;
-import com.grouplead.repository.TicketRepository;
+import com.grouplead.repository.MetricPointRepository;
+import com.grouplead.repository.SprintStatsRepository;
+import com.grouplead.service.collector.MetricWriter;
+import com.grouplead.util.Downsampler;
+import com.grouplead.util.QuantileSketch;
+import com.grouplead.util.SeriesBuffer;
+import com.grouplead.util.StatsKernel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -18,6 +25,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -28,34 +36,26 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MetricsProcessorService {
 
-    private final MetricRepository metricRepository;
-    private final TicketRepository ticketRepository;
-    private final SprintRepository sprintRepository;
+    private final MetricWriter metricWriter;
+    private final MetricPointRepository metricPointRepository;
+    private final MetricRollupService metricRollupService;
+    private final SprintStatsRepository sprintStatsRepository;
     private final CommitRepository commitRepository;
 
     @Cacheable(value = "team-velocity", key = "#teamId + '-' + #sprintCount")
     public VelocityResponse getTeamVelocity(Long teamId, int sprintCount) {
-        var sprints = sprintRepository.findLastSprintsByTeamId(teamId, sprintCount);
-
-        List<VelocityResponse.SprintVelocity> sprintVelocities = sprints.stream()
+        // Planned and completed points per sprint come back from one grouped query
+        List<VelocityResponse.SprintVelocity> sprintVelocities = sprintStatsRepository.findLastByTeam(teamId, sprintCount)
+                .stream()
                 .map(sprint -> {
-                    var tickets = ticketRepository.findBySprintId(sprint.getId());
-
-                    int planned = tickets.stream()
-                            .filter(t -> t.getStoryPoints() != null)
-                            .mapToInt(t -> t.getStoryPoints())
-                            .sum();
-
-                    int completed = tickets.stream()
-                            .filter(t -> t.isCompleted() && t.getStoryPoints() != null)
-                            .mapToInt(t -> t.getStoryPoints())
-                            .sum();
+                    int planned = sprint.totalPoints();
+                    int completed = sprint.points(TicketStatus.DONE, TicketStatus.CLOSED);
 
                     double completionRate = planned > 0 ? (double) completed / planned * 100 : 0;
 
                     return new VelocityResponse.SprintVelocity(
-                            sprint.getExternalId(),
-                            sprint.getName(),
+                            sprint.externalId(),
+                            sprint.name(),
                             planned,
                             completed,
                             completionRate
@@ -81,19 +81,45 @@ public class MetricsProcessorService {
         );
     }
 
+    // Anything coarser than RAW is served from the rollups, so long ranges read one row per bucket.
+    // maxPoints bounds the returned series with LTTB; statistics always cover every point.
     public TimeSeriesResponse getTimeSeries(MetricType metricType, LocalDate startDate,
-                                            LocalDate endDate, String granularity) {
-        DateRange range = DateRange.of(startDate, endDate);
-
-        var metrics = metricRepository.findByTypeAndPeriod(metricType, range.start(), range.end());
-
-        List<TimeSeriesResponse.DataPoint> dataPoints = metrics.stream()
-                .map(m -> new TimeSeriesResponse.DataPoint(m.getTimestamp(), m.getValue()))
-                .toList();
+                                            LocalDate endDate, String granularity, Integer maxPoints) {
+        TimeGranularity bucket = TimeGranularity.parse(granularity);
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+
+        SeriesBuffer series = new SeriesBuffer();
+        if (bucket == TimeGranularity.RAW) {
+            metricPointRepository.forEachPoint(metricType, start, end, series::add);
+        } else {
+            for (MetricPoint point : metricRollupService.findBucketMeans(metricType, bucket, start, end)) {
+                series.add(point.timestamp(), point.value());
+            }
+        }
 
-        TimeSeriesResponse.Statistics stats = calculateStatistics(metrics);
+        // Raw points are all in memory, so their statistics are exact; bucket means would flatten the tails,
+        // so coarser requests take percentiles from the stored sketches instead
+        TimeSeriesResponse.Statistics statistics = bucket == TimeGranularity.RAW
+                ? calculateStatistics(series.copyValues())
+                : calculateStatistics(metricRollupService.summarize(metricType, start, end));
+
+        List<TimeSeriesResponse.DataPoint> dataPoints;
+        if (maxPoints != null) {
+            int[] kept = Downsampler.largestTriangleThreeBuckets(
+                    series.timestamps(), series.values(), series.size(), maxPoints);
+            dataPoints = new ArrayList<>(kept.length);
+            for (int index : kept) {
+                dataPoints.add(new TimeSeriesResponse.DataPoint(series.timestampAt(index), series.valueAt(index)));
+            }
+        } else {
+            dataPoints = new ArrayList<>(series.size());
+            for (int index = 0; index < series.size(); index++) {
+                dataPoints.add(new TimeSeriesResponse.DataPoint(series.timestampAt(index), series.valueAt(index)));
+            }
+        }
 
-        return new TimeSeriesResponse(metricType, granularity, dataPoints, stats);
+        return new TimeSeriesResponse(metricType, bucket.name(), dataPoints, statistics);
     }
 
     public CodeQualityResponse getCodeQualityMetrics(DateRange range) {
@@ -115,10 +141,11 @@ public class MetricsProcessorService {
                 .value(value)
                 .unit(unit)
                 .source(source)
-                .timestamp(LocalDateTime.now())
+                // MetricWriter encodes timestamps as UTC
+                .timestamp(LocalDateTime.now(ZoneOffset.UTC))
                 .build();
 
-        metricRepository.save(metric);
+        metricWriter.append(metric);
     }
 
     private double calculateVelocityTrend(List<VelocityResponse.SprintVelocity> sprints) {
@@ -138,23 +165,33 @@ public class MetricsProcessorService {
         return ((recent - previous) / previous) * 100;
     }
 
-    private TimeSeriesResponse.Statistics calculateStatistics(List<Metric> metrics) {
-        if (metrics.isEmpty()) {
+    // Same rank convention as QuantileSketch.quantile, so RAW and rolled-up answers line up
+    private TimeSeriesResponse.Statistics calculateStatistics(double[] values) {
+        if (values.length == 0) {
             return new TimeSeriesResponse.Statistics(0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
         }
 
-        List<Double> values = metrics.stream()
-                .map(Metric::getValue)
-                .sorted()
-                .toList();
+        int last = values.length - 1;
+        double min = StatsKernel.min(values);
+        double max = StatsKernel.max(values);
+        double mean = StatsKernel.mean(values);
+        double[] ranked = StatsKernel.selectRanks(values, (int) (0.5 * last), (int) (0.95 * last), (int) (0.99 * last));
 
-        double min = values.getFirst();
-        double max = values.getLast();
-        double avg = values.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-        double median = values.get(values.size() / 2);
-        double p95 = values.get((int) (values.size() * 0.95));
-        double p99 = values.get((int) (values.size() * 0.99));
+        return new TimeSeriesResponse.Statistics(min, max, mean, ranked[0], ranked[1], ranked[2]);
+    }
 
-        return new TimeSeriesResponse.Statistics(min, max, avg, median, p95, p99);
+    private TimeSeriesResponse.Statistics calculateStatistics(QuantileSketch sketch) {
+        if (sketch.isEmpty()) {
+            return new TimeSeriesResponse.Statistics(0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+        }
+
+        return new TimeSeriesResponse.Statistics(
+                sketch.min(),
+                sketch.max(),
+                sketch.average(),
+                sketch.quantile(0.5),
+                sketch.quantile(0.95),
+                sketch.quantile(0.99)
+        );
     }
 }
@@ -0,0 +1,79 @@
+package com.grouplead.util;
+
+public final class Downsampler {
+
+    // First and last points are always kept; with two, nothing in between survives
+    public static final int MIN_POINTS = 2;
+
+    private Downsampler() {
+        // Utility class
+    }
+
+    // Largest-Triangle-Three-Buckets: one pass over the series, keeping from each bucket the point that spans the
+    // largest triangle with the previously kept point and the next bucket's average. Peaks and dips survive,
+    // unlike with bucket averaging. Returns the indexes to keep, in order.
+    public static int[] largestTriangleThreeBuckets(long[] x, double[] y, int size, int maxPoints) {
+        if (maxPoints < MIN_POINTS) {
+            throw new IllegalArgumentException("maxPoints must be at least " + MIN_POINTS);
+        }
+        if (size <= maxPoints) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[maxPoints];
+        int keptCount = 0;
+        kept[keptCount++] = 0;
+
+        // Points 1..size-2 are split over maxPoints-2 buckets; each has at least one point since size > maxPoints
+        int buckets = maxPoints - 2;
+        int previous = 0;
+
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int from = bucketStart(bucket, buckets, size);
+            int to = bucketStart(bucket + 1, buckets, size);
+
+            // Average of the next bucket; the last bucket looks ahead to the final point alone
+            int nextFrom = to;
+            int nextTo = bucket + 1 < buckets ? bucketStart(bucket + 2, buckets, size) : size;
+
+            // x is taken relative to the previous point so epoch millis do not cost precision in the products
+            long originX = x[previous];
+            double originY = y[previous];
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextFrom; i < nextTo; i++) {
+                averageX += x[i] - originX;
+                averageY += y[i];
+            }
+            int nextCount = nextTo - nextFrom;
+            averageX /= nextCount;
+            averageY = averageY / nextCount - originY;
+
+            int chosen = from;
+            double maxArea = -1;
+            for (int i = from; i < to; i++) {
+                // Twice the triangle area; the constant factor does not change which point wins
+                double area = Math.abs(averageX * (y[i] - originY) - (x[i] - originX) * averageY);
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+
+            kept[keptCount++] = chosen;
+            previous = chosen;
+        }
+
+        kept[keptCount] = size - 1;
+        return kept;
+    }
+
+    // Integer bounds: the last bucket always ends at size-1, so no interior point is skipped
+    private static int bucketStart(int bucket, int buckets, int size) {
+        return 1 + (int) ((long) bucket * (size - 2) / buckets);
+    }
+}
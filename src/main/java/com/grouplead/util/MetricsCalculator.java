@@ -1,8 +1,8 @@
 package com.grouplead.util;
 
-import java.util.Collections;
 import java.util.List;
 
+// List-based entry points kept for callers; the work is done on a primitive copy by StatsKernel
 public final class MetricsCalculator {
 
     private MetricsCalculator() {
@@ -13,7 +13,7 @@ public final class MetricsCalculator {
         if (values == null || values.isEmpty()) {
             return 0.0;
         }
-        return values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        return StatsKernel.mean(StatsKernel.toArray(values));
     }
 
     public static double calculateMedian(List<Double> values) {
@@ -21,13 +21,12 @@ public final class MetricsCalculator {
             return 0.0;
         }
 
-        List<Double> sorted = values.stream().sorted().toList();
-        int size = sorted.size();
-
+        int size = values.size();
         if (size % 2 == 0) {
-            return (sorted.get(size / 2 - 1) + sorted.get(size / 2)) / 2.0;
+            double[] middle = StatsKernel.selectRanks(StatsKernel.toArray(values), size / 2 - 1, size / 2);
+            return (middle[0] + middle[1]) / 2.0;
         }
-        return sorted.get(size / 2);
+        return StatsKernel.selectRanks(StatsKernel.toArray(values), size / 2)[0];
     }
 
     public static double calculatePercentile(List<Double> values, int percentile) {
@@ -35,11 +34,8 @@ public final class MetricsCalculator {
             return 0.0;
         }
 
-        List<Double> sorted = values.stream().sorted().toList();
-        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
-        index = Math.max(0, Math.min(index, sorted.size() - 1));
-
-        return sorted.get(index);
+        double[] array = StatsKernel.toArray(values);
+        return StatsKernel.selectRanks(array, StatsKernel.nearestRank(array.length, percentile))[0];
     }
 
     public static double calculateStandardDeviation(List<Double> values) {
@@ -47,17 +43,14 @@ public final class MetricsCalculator {
             return 0.0;
         }
 
-        double mean = calculateAverage(values);
-        double sumSquaredDiff = values.stream()
-                .mapToDouble(v -> Math.pow(v - mean, 2))
-                .sum();
-
-        return Math.sqrt(sumSquaredDiff / (values.size() - 1));
+        return StatsKernel.moments(StatsKernel.toArray(values)).sampleStandardDeviation();
     }
 
     public static double calculateVariance(List<Double> values) {
-        double stdDev = calculateStandardDeviation(values);
-        return stdDev * stdDev;
+        if (values == null || values.size() < 2) {
+            return 0.0;
+        }
+        return StatsKernel.moments(StatsKernel.toArray(values)).sampleVariance();
     }
 
     public static double calculatePercentageChange(double oldValue, double newValue) {
@@ -86,20 +79,20 @@ public final class MetricsCalculator {
         if (values == null || values.isEmpty()) {
             return 0.0;
         }
-        return Collections.min(values);
+        return StatsKernel.min(StatsKernel.toArray(values));
     }
 
     public static double calculateMax(List<Double> values) {
         if (values == null || values.isEmpty()) {
             return 0.0;
         }
-        return Collections.max(values);
+        return StatsKernel.max(StatsKernel.toArray(values));
     }
 
     public static double calculateSum(List<Double> values) {
         if (values == null || values.isEmpty()) {
             return 0.0;
         }
-        return values.stream().mapToDouble(Double::doubleValue).sum();
+        return StatsKernel.sum(StatsKernel.toArray(values));
     }
 }
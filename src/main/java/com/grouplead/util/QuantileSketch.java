@@ -0,0 +1,300 @@
+package com.grouplead.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+// DDSketch: values are counted in logarithmic buckets, so any quantile comes back within 1% of the true value
+// and two sketches merge exactly by adding bucket counts. Count, sum, min and max are kept exactly.
+public final class QuantileSketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    // Magnitudes below this are counted as zero
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    // Bounds the size of a sketch; the lowest buckets are folded together past this span
+    private static final int MAX_BUCKETS = 2048;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final Store positive = new Store();
+    private final Store negative = new Store();
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value > MIN_INDEXABLE) {
+            positive.add(index(value), 1);
+        } else if (value < -MIN_INDEXABLE) {
+            negative.add(index(-value), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // Lower quantile by rank, matching the nearest-rank convention used elsewhere in the service
+    public double quantile(double q) {
+        if (count == 0) {
+            return 0.0;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+
+        long rank = (long) (q * (count - 1));
+        double estimate;
+        if (rank < negative.total) {
+            // Most negative values sit in the highest negative buckets
+            estimate = -value(negative.indexAtReverseRank(rank));
+        } else if (rank < negative.total + zeroCount) {
+            estimate = 0.0;
+        } else {
+            estimate = value(positive.indexAtRank(rank - negative.total - zeroCount));
+        }
+        return Math.max(min, Math.min(max, estimate));
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double sum() {
+        return sum;
+    }
+
+    public double min() {
+        return count > 0 ? min : 0.0;
+    }
+
+    public double max() {
+        return count > 0 ? max : 0.0;
+    }
+
+    public double average() {
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    // Sparse varint encoding; a series-hour of 5-minute points serializes to a few dozen bytes
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(FORMAT_VERSION);
+        writeVarLong(out, count);
+        writeVarLong(out, zeroCount);
+        writeDouble(out, sum);
+        writeDouble(out, min);
+        writeDouble(out, max);
+        positive.write(out);
+        negative.write(out);
+        return out.toByteArray();
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        QuantileSketch sketch = new QuantileSketch();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        byte version = in.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported quantile sketch format: " + version);
+        }
+        sketch.count = readVarLong(in);
+        sketch.zeroCount = readVarLong(in);
+        sketch.sum = in.getDouble();
+        sketch.min = in.getDouble();
+        sketch.max = in.getDouble();
+        sketch.positive.read(in);
+        sketch.negative.read(in);
+        return sketch;
+    }
+
+    private static int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA);
+    }
+
+    // Midpoint of the bucket, which keeps the relative error within RELATIVE_ACCURACY on both sides
+    private static double value(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    private static void writeDouble(ByteArrayOutputStream out, double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (bits >>> shift));
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // Dense counts for a contiguous run of bucket indexes starting at offset
+    private static final class Store {
+
+        private long[] counts = new long[0];
+        private int offset;
+        private long total;
+
+        void add(int index, long increment) {
+            ensure(index);
+            int clamped = Math.max(index, offset);
+            counts[clamped - offset] += increment;
+            total += increment;
+        }
+
+        void merge(Store other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        int indexAtRank(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        int indexAtReverseRank(long rank) {
+            long seen = 0;
+            for (int i = counts.length - 1; i >= 0; i--) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset;
+        }
+
+        // Grows the window to cover index; past MAX_BUCKETS the lowest buckets are folded into the first one.
+        // The span is measured from the buckets in use, not the spare capacity around them.
+        private void ensure(int index) {
+            if (total == 0) {
+                counts = new long[8];
+                offset = index - counts.length / 2;
+                return;
+            }
+            if (index >= offset && index < offset + counts.length) {
+                return;
+            }
+
+            int usedMin = offset;
+            while (counts[usedMin - offset] == 0) {
+                usedMin++;
+            }
+            int usedMax = offset + counts.length - 1;
+            while (counts[usedMax - offset] == 0) {
+                usedMax--;
+            }
+
+            int newMin = Math.min(usedMin, index);
+            int newMax = Math.max(usedMax, index);
+            if (newMax - newMin + 1 > MAX_BUCKETS) {
+                newMin = newMax - MAX_BUCKETS + 1;
+            }
+
+            // Spare capacity goes on the side the window is growing towards
+            int length = Math.min(MAX_BUCKETS, Math.max(counts.length * 2, newMax - newMin + 1));
+            int newOffset = index > usedMax ? newMin : newMax - length + 1;
+            long[] resized = new long[length];
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    resized[Math.max(offset + i, newOffset) - newOffset] += counts[i];
+                }
+            }
+            counts = resized;
+            offset = newOffset;
+        }
+
+        void write(ByteArrayOutputStream out) {
+            int nonZero = 0;
+            for (long c : counts) {
+                if (c != 0) {
+                    nonZero++;
+                }
+            }
+            writeVarLong(out, nonZero);
+
+            int previous = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    int index = offset + i;
+                    writeVarLong(out, zigZag(index - previous));
+                    writeVarLong(out, counts[i]);
+                    previous = index;
+                }
+            }
+        }
+
+        void read(ByteBuffer in) {
+            long buckets = readVarLong(in);
+            int index = 0;
+            for (long i = 0; i < buckets; i++) {
+                index += (int) unZigZag(readVarLong(in));
+                add(index, readVarLong(in));
+            }
+        }
+    }
+}
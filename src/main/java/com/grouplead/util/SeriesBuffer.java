@@ -0,0 +1,62 @@
+package com.grouplead.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+// Growable (timestamp, value) columns; timestamps are UTC epoch millis so a series holds no objects per point
+public final class SeriesBuffer {
+
+    private long[] timestamps;
+    private double[] values;
+    private int size;
+
+    public SeriesBuffer() {
+        this(1024);
+    }
+
+    public SeriesBuffer(int initialCapacity) {
+        timestamps = new long[Math.max(initialCapacity, 16)];
+        values = new double[timestamps.length];
+    }
+
+    public void add(long epochMillis, double value) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        timestamps[size] = epochMillis;
+        values[size] = value;
+        size++;
+    }
+
+    public void add(LocalDateTime timestamp, double value) {
+        add(timestamp.toInstant(ZoneOffset.UTC).toEpochMilli(), value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Backing arrays; only the first size() entries are meaningful
+    public long[] timestamps() {
+        return timestamps;
+    }
+
+    public double[] values() {
+        return values;
+    }
+
+    public LocalDateTime timestampAt(int index) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamps[index]), ZoneOffset.UTC);
+    }
+
+    public double valueAt(int index) {
+        return values[index];
+    }
+
+    public double[] copyValues() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,247 @@
+package com.grouplead.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Statistics on primitive arrays: unrolled reductions, selection instead of sorting for ranks
+public final class StatsKernel {
+
+    // Below this size insertion sort beats further partitioning
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private StatsKernel() {
+        // Utility class
+    }
+
+    public static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    // Four independent accumulators break the add dependency chain so the loop pipelines
+    public static double sum(double[] values) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int limit = values.length - 3; i < limit; i += 4) {
+            s0 += values[i];
+            s1 += values[i + 1];
+            s2 += values[i + 2];
+            s3 += values[i + 3];
+        }
+        for (; i < values.length; i++) {
+            s0 += values[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    public static double min(double[] values) {
+        if (values.length == 0) {
+            return 0.0;
+        }
+        double m0 = values[0], m1 = values[0], m2 = values[0], m3 = values[0];
+        int i = 0;
+        for (int limit = values.length - 3; i < limit; i += 4) {
+            m0 = Math.min(m0, values[i]);
+            m1 = Math.min(m1, values[i + 1]);
+            m2 = Math.min(m2, values[i + 2]);
+            m3 = Math.min(m3, values[i + 3]);
+        }
+        for (; i < values.length; i++) {
+            m0 = Math.min(m0, values[i]);
+        }
+        return Math.min(Math.min(m0, m1), Math.min(m2, m3));
+    }
+
+    public static double max(double[] values) {
+        if (values.length == 0) {
+            return 0.0;
+        }
+        double m0 = values[0], m1 = values[0], m2 = values[0], m3 = values[0];
+        int i = 0;
+        for (int limit = values.length - 3; i < limit; i += 4) {
+            m0 = Math.max(m0, values[i]);
+            m1 = Math.max(m1, values[i + 1]);
+            m2 = Math.max(m2, values[i + 2]);
+            m3 = Math.max(m3, values[i + 3]);
+        }
+        for (; i < values.length; i++) {
+            m0 = Math.max(m0, values[i]);
+        }
+        return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+    }
+
+    public static double mean(double[] values) {
+        return values.length > 0 ? sum(values) / values.length : 0.0;
+    }
+
+    // Two passes over the array: as stable as Welford's update without its division per value
+    public static Moments moments(double[] values) {
+        double mean = mean(values);
+        double d0 = 0, d1 = 0, d2 = 0, d3 = 0;
+        int i = 0;
+        for (int limit = values.length - 3; i < limit; i += 4) {
+            double x0 = values[i] - mean;
+            double x1 = values[i + 1] - mean;
+            double x2 = values[i + 2] - mean;
+            double x3 = values[i + 3] - mean;
+            d0 += x0 * x0;
+            d1 += x1 * x1;
+            d2 += x2 * x2;
+            d3 += x3 * x3;
+        }
+        for (; i < values.length; i++) {
+            double x = values[i] - mean;
+            d0 += x * x;
+        }
+        return new Moments(values.length, mean, (d0 + d1) + (d2 + d3));
+    }
+
+    // Values at the given 0-based ranks of the sorted order; partially sorts values in place.
+    // NaN ranks last, as in Arrays.sort.
+    public static double[] selectRanks(double[] values, int... ranks) {
+        double[] result = new double[ranks.length];
+        if (values.length == 0 || ranks.length == 0) {
+            return result;
+        }
+
+        // NaN compares false against everything, so it is moved out of the way before partitioning
+        int numbers = values.length;
+        for (int i = numbers - 1; i >= 0; i--) {
+            if (Double.isNaN(values[i])) {
+                swap(values, i, --numbers);
+            }
+        }
+
+        int[] sorted = ranks.clone();
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = Math.max(0, Math.min(sorted[i], values.length - 1));
+        }
+        Arrays.sort(sorted);
+        int selected = 0;
+        while (selected < sorted.length && sorted[selected] < numbers) {
+            selected++;
+        }
+        multiSelect(values, 0, numbers - 1, sorted, 0, selected - 1);
+
+        for (int i = 0; i < ranks.length; i++) {
+            result[i] = values[Math.max(0, Math.min(ranks[i], values.length - 1))];
+        }
+        return result;
+    }
+
+    // Same convention as MetricsCalculator.calculatePercentile: ceil(p/100 * n) - 1
+    public static int nearestRank(int size, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return Math.max(0, Math.min(rank, size - 1));
+    }
+
+    // Quickselect that only recurses into partitions still holding a requested rank
+    private static void multiSelect(double[] a, int lo, int hi, int[] ranks, int rankLo, int rankHi) {
+        while (rankLo <= rankHi && lo < hi) {
+            if (hi - lo < INSERTION_SORT_THRESHOLD) {
+                insertionSort(a, lo, hi);
+                return;
+            }
+
+            // Three-way partition around a median-of-three pivot; runs of equal values never degrade to O(n^2)
+            double pivot = medianOfThree(a, lo, lo + (hi - lo) / 2, hi);
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                if (a[i] < pivot) {
+                    swap(a, lt++, i++);
+                } else if (a[i] > pivot) {
+                    swap(a, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // Ranks inside [lt, gt] are already in place
+            int leftEnd = rankLo;
+            while (leftEnd <= rankHi && ranks[leftEnd] < lt) {
+                leftEnd++;
+            }
+            int rightStart = leftEnd;
+            while (rightStart <= rankHi && ranks[rightStart] <= gt) {
+                rightStart++;
+            }
+
+            // Recurse into the smaller side, loop on the larger one
+            if (leftEnd - rankLo < rankHi - rightStart + 1) {
+                multiSelect(a, lo, lt - 1, ranks, rankLo, leftEnd - 1);
+                lo = gt + 1;
+                rankLo = rightStart;
+            } else {
+                multiSelect(a, gt + 1, hi, ranks, rightStart, rankHi);
+                hi = lt - 1;
+                rankHi = leftEnd - 1;
+            }
+        }
+    }
+
+    private static double medianOfThree(double[] a, int i, int j, int k) {
+        double x = a[i];
+        double y = a[j];
+        double z = a[k];
+        if (x < y) {
+            return y < z ? y : Math.max(x, z);
+        }
+        return x < z ? x : Math.max(y, z);
+    }
+
+    private static void insertionSort(double[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double value = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    public static final class Moments {
+
+        private final long count;
+        private final double mean;
+        private final double m2;
+
+        private Moments(long count, double mean, double m2) {
+            this.count = count;
+            this.mean = mean;
+            this.m2 = m2;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public double mean() {
+            return mean;
+        }
+
+        public double variance() {
+            return count > 0 ? m2 / count : 0.0;
+        }
+
+        public double sampleVariance() {
+            return count > 1 ? m2 / (count - 1) : 0.0;
+        }
+
+        public double sampleStandardDeviation() {
+            return Math.sqrt(sampleVariance());
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- V10: Range indexes for the aggregate DORA query; each metric is filtered by its own timestamp
+
+CREATE INDEX IF NOT EXISTS idx_merge_requests_merged_at ON merge_requests(merged_at);
+CREATE INDEX IF NOT EXISTS idx_incidents_resolved_at ON incidents(resolved_at);
+CREATE INDEX IF NOT EXISTS idx_deployments_merge_request_id ON deployments(merge_request_id);
+CREATE INDEX IF NOT EXISTS idx_deployments_project_id ON deployments(project_id);
@@ -0,0 +1,21 @@
+-- V11: Per-team, per-day DORA inputs, kept current as deployments, merge requests and incidents are written
+
+CREATE TABLE dora_daily (
+    -- 0 collects rows that cannot be attributed to any team
+    team_id BIGINT NOT NULL,
+    -- UTC day of deployed_at, merged_at or resolved_at respectively
+    day DATE NOT NULL,
+    deployments INTEGER NOT NULL DEFAULT 0,
+    failed_deployments INTEGER NOT NULL DEFAULT 0,
+    lead_time_count INTEGER NOT NULL DEFAULT 0,
+    lead_time_sum_hours DOUBLE PRECISION NOT NULL DEFAULT 0,
+    -- Serialized QuantileSketch of lead time hours, merged across days for the median and p90
+    lead_time_sketch BYTEA,
+    resolved_incidents INTEGER NOT NULL DEFAULT 0,
+    recovery_count INTEGER NOT NULL DEFAULT 0,
+    recovery_sum_minutes DOUBLE PRECISION NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (team_id, day)
+);
+
+CREATE INDEX idx_dora_daily_day ON dora_daily(day);
@@ -0,0 +1,21 @@
+-- V12: Per-sprint ticket counters, kept current by the ticket upsert so sprint metrics never scan tickets
+
+CREATE TABLE sprint_stats (
+    sprint_id BIGINT NOT NULL REFERENCES sprints(id) ON DELETE CASCADE,
+    status VARCHAR(50) NOT NULL,
+    tickets INTEGER NOT NULL DEFAULT 0,
+    story_points INTEGER NOT NULL DEFAULT 0,
+    -- Tickets with both started_at and completed_at, and their whole-hour cycle times (as Ticket.getCycleTimeHours)
+    cycle_time_count INTEGER NOT NULL DEFAULT 0,
+    cycle_time_sum_hours BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (sprint_id, status)
+);
+
+INSERT INTO sprint_stats (sprint_id, status, tickets, story_points, cycle_time_count, cycle_time_sum_hours)
+SELECT sprint_id, status, COUNT(*), COALESCE(SUM(story_points), 0),
+       COUNT(completed_at - started_at),
+       COALESCE(SUM(TRUNC(EXTRACT(EPOCH FROM (completed_at - started_at)) / 3600)), 0)
+FROM tickets
+WHERE sprint_id IS NOT NULL
+GROUP BY sprint_id, status;
@@ -0,0 +1,3 @@
+-- V13: Lets the dashboard count and sum completed tickets from the index alone
+
+CREATE INDEX IF NOT EXISTS idx_tickets_completed_at ON tickets(completed_at) INCLUDE (story_points);
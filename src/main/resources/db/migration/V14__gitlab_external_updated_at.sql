@@ -0,0 +1,4 @@
+-- V14: GitLab's own update time, so an older webhook delivery or sync page never overwrites a newer one
+
+ALTER TABLE merge_requests ADD COLUMN IF NOT EXISTS external_updated_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE deployments ADD COLUMN IF NOT EXISTS external_updated_at TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,26 @@
+-- V15: Creating a month's partition no longer fails when the default partition already holds rows for it.
+-- Those rows are moved into the new partition before it is attached, all in the caller's transaction.
+
+CREATE OR REPLACE FUNCTION create_metrics_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    suffix TEXT := to_char(month_start, 'YYYY_MM');
+    lower_bound TIMESTAMP WITH TIME ZONE := date_trunc('month', month_start::timestamp) AT TIME ZONE 'UTC';
+    upper_bound TIMESTAMP WITH TIME ZONE := (date_trunc('month', month_start::timestamp) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass('metrics_' || suffix) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I (LIKE metrics INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', 'metrics_' || suffix);
+        EXECUTE format('WITH moved AS (DELETE FROM metrics_default WHERE timestamp >= %L AND timestamp < %L RETURNING *) ' ||
+                       'INSERT INTO %I SELECT * FROM moved', lower_bound, upper_bound, 'metrics_' || suffix);
+        EXECUTE format('ALTER TABLE metrics ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       'metrics_' || suffix, lower_bound, upper_bound);
+    END IF;
+
+    IF to_regclass('metric_tags_' || suffix) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I (LIKE metric_tags INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', 'metric_tags_' || suffix);
+        EXECUTE format('WITH moved AS (DELETE FROM metric_tags_default WHERE metric_timestamp >= %L AND metric_timestamp < %L RETURNING *) ' ||
+                       'INSERT INTO %I SELECT * FROM moved', lower_bound, upper_bound, 'metric_tags_' || suffix);
+        EXECUTE format('ALTER TABLE metric_tags ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       'metric_tags_' || suffix, lower_bound, upper_bound);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
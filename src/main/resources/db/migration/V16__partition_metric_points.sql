@@ -0,0 +1,53 @@
+-- V16: Monthly range partitions for metric_points, which every CloudWatch run writes to.
+-- Same layout as metrics (V7/V15): <table>_YYYY_MM partitions with UTC month bounds and a default partition
+-- for rows outside them. The primary key already contains ts, so it carries over unchanged.
+
+ALTER TABLE metric_points RENAME TO metric_points_unpartitioned;
+ALTER TABLE metric_points_unpartitioned RENAME CONSTRAINT metric_points_pkey TO metric_points_unpartitioned_pkey;
+
+CREATE TABLE metric_points (
+    series_id BIGINT NOT NULL REFERENCES metric_series(id) ON DELETE CASCADE,
+    ts TIMESTAMP WITH TIME ZONE NOT NULL,
+    value DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (series_id, ts)
+) PARTITION BY RANGE (ts);
+
+CREATE TABLE metric_points_default PARTITION OF metric_points DEFAULT;
+
+-- Creates the month's partition, moving any rows the default partition caught for it;
+-- also called by the partition maintenance job
+CREATE OR REPLACE FUNCTION create_metric_points_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    partition_name TEXT := 'metric_points_' || to_char(month_start, 'YYYY_MM');
+    lower_bound TIMESTAMP WITH TIME ZONE := date_trunc('month', month_start::timestamp) AT TIME ZONE 'UTC';
+    upper_bound TIMESTAMP WITH TIME ZONE := (date_trunc('month', month_start::timestamp) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I (LIKE metric_points INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+        EXECUTE format('WITH moved AS (DELETE FROM metric_points_default WHERE ts >= %L AND ts < %L RETURNING *) ' ||
+                       'INSERT INTO %I SELECT * FROM moved', lower_bound, upper_bound, partition_name);
+        EXECUTE format('ALTER TABLE metric_points ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, lower_bound, upper_bound);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every month that already has points, through three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE(
+            (SELECT MIN(ts) FROM metric_points_unpartitioned) AT TIME ZONE 'UTC',
+            now() AT TIME ZONE 'UTC'))::date;
+    last_month DATE := (date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        PERFORM create_metric_points_partition(month_start);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO metric_points (series_id, ts, value)
+SELECT series_id, ts, value FROM metric_points_unpartitioned;
+
+DROP TABLE metric_points_unpartitioned;
@@ -0,0 +1,4 @@
+-- V17: Rollups and sketch rebuilds select raw points by time range alone, across all series.
+-- Created on the partitioned parent, so every existing and future monthly partition gets it too.
+
+CREATE INDEX IF NOT EXISTS idx_metric_points_ts ON metric_points (ts);
@@ -0,0 +1,16 @@
+-- V18: Series types are assigned by exact CloudWatch metric name, so every type holds a single unit.
+-- Series created under the old namespace fallback (disk bytes, throttles, free storage, ...) become CUSTOM;
+-- their rollups and sketches follow, since those are keyed by series.
+
+UPDATE metric_series SET metric_type = CASE metric_name
+    WHEN 'CPUUtilization' THEN 'CPU_UTILIZATION'
+    WHEN 'MemoryUtilization' THEN 'MEMORY_UTILIZATION'
+    WHEN 'NetworkIn' THEN 'NETWORK_THROUGHPUT'
+    WHEN 'NetworkOut' THEN 'NETWORK_THROUGHPUT'
+    WHEN 'Errors' THEN 'ERROR_RATE'
+    WHEN 'Duration' THEN 'LATENCY'
+    WHEN 'Invocations' THEN 'REQUEST_COUNT'
+    WHEN 'RequestCount' THEN 'REQUEST_COUNT'
+    WHEN 'DatabaseConnections' THEN 'DATABASE_CONNECTIONS'
+    ELSE 'CUSTOM'
+END;
@@ -0,0 +1,5 @@
+-- V19: Deployments with a merge request now count only for its author's team (see DoraDailyRepository).
+-- Emptying the snapshot makes DoraSnapshotJob rebuild every day under that rule on the next startup,
+-- instead of only the days the daily reconcile window reaches.
+
+TRUNCATE dora_daily;
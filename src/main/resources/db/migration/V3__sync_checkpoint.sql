@@ -0,0 +1,10 @@
+-- V3: Per-source sync watermarks for the collectors
+
+CREATE TABLE sync_checkpoint (
+    id BIGSERIAL PRIMARY KEY,
+    source VARCHAR(50) NOT NULL,
+    scope_key VARCHAR(255) NOT NULL,
+    high_water_mark TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE(source, scope_key)
+);
@@ -0,0 +1,7 @@
+-- V4: Identify deployments received from GitLab so webhook redeliveries update in place
+
+ALTER TABLE deployments ADD COLUMN IF NOT EXISTS external_id VARCHAR(255);
+ALTER TABLE deployments ADD COLUMN IF NOT EXISTS project_id VARCHAR(255);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_deployments_external_id_project_id
+    ON deployments(external_id, project_id) WHERE external_id IS NOT NULL;
@@ -0,0 +1,25 @@
+-- V5: Raw datapoint store keyed by a series dictionary
+
+CREATE TABLE metric_series (
+    id BIGSERIAL PRIMARY KEY,
+    series_key VARCHAR(512) NOT NULL UNIQUE,
+    team_id BIGINT REFERENCES teams(id) ON DELETE SET NULL,
+    metric_type VARCHAR(100) NOT NULL,
+    namespace VARCHAR(255) NOT NULL,
+    metric_name VARCHAR(255) NOT NULL,
+    dimension_name VARCHAR(255),
+    dimension_value VARCHAR(255),
+    resource_id VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_metric_series_metric_type ON metric_series(metric_type);
+CREATE INDEX idx_metric_series_team_id ON metric_series(team_id);
+
+-- One narrow row per datapoint; the primary key doubles as the range-scan index
+CREATE TABLE metric_points (
+    series_id BIGINT NOT NULL REFERENCES metric_series(id) ON DELETE CASCADE,
+    ts TIMESTAMP WITH TIME ZONE NOT NULL,
+    value DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (series_id, ts)
+);
@@ -0,0 +1,22 @@
+-- V6: Local daily cost cube filled from Cost Explorer
+
+CREATE TABLE cost_daily (
+    day DATE NOT NULL,
+    service VARCHAR(255) NOT NULL,
+    tag_key VARCHAR(128) NOT NULL,
+    tag_value VARCHAR(255) NOT NULL DEFAULT '',
+    amount DOUBLE PRECISION NOT NULL,
+    currency VARCHAR(10) NOT NULL DEFAULT 'USD',
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (day, service, tag_key, tag_value)
+);
+
+CREATE INDEX idx_cost_daily_tag ON cost_daily(tag_key, tag_value, day);
+
+-- Days already fetched, so days without any spend are not fetched again
+CREATE TABLE cost_daily_loaded (
+    tag_key VARCHAR(128) NOT NULL,
+    day DATE NOT NULL,
+    loaded_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (tag_key, day)
+);
@@ -0,0 +1,87 @@
+-- V7: Monthly range partitions for metrics and metric_tags
+-- Partitioned tables need the partition key in every unique constraint, so the primary key
+-- becomes (id, timestamp) and metric_tags carries the metric's timestamp instead of a foreign key.
+-- Both tables share the same monthly bounds and are created and dropped together.
+
+ALTER TABLE metric_tags RENAME TO metric_tags_unpartitioned;
+ALTER TABLE metrics RENAME TO metrics_unpartitioned;
+ALTER SEQUENCE metrics_id_seq OWNED BY NONE;
+
+DROP INDEX IF EXISTS idx_metrics_type_timestamp;
+DROP INDEX IF EXISTS idx_metrics_source;
+DROP INDEX IF EXISTS idx_metrics_timestamp;
+DROP INDEX IF EXISTS idx_metrics_team_id;
+
+CREATE TABLE metrics (
+    id BIGINT NOT NULL DEFAULT nextval('metrics_id_seq'),
+    team_id BIGINT REFERENCES teams(id),
+    type VARCHAR(100) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    value DOUBLE PRECISION NOT NULL,
+    unit VARCHAR(50),
+    source VARCHAR(100) NOT NULL,
+    timestamp TIMESTAMP WITH TIME ZONE NOT NULL,
+    metadata JSONB DEFAULT '{}',
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE metric_tags (
+    metric_id BIGINT NOT NULL,
+    metric_timestamp TIMESTAMP WITH TIME ZONE NOT NULL,
+    tag_key VARCHAR(100) NOT NULL,
+    tag_value VARCHAR(255) NOT NULL,
+    PRIMARY KEY (metric_id, metric_timestamp, tag_key)
+) PARTITION BY RANGE (metric_timestamp);
+
+ALTER SEQUENCE metrics_id_seq OWNED BY metrics.id;
+
+-- Creates the month's partition of both tables; also called by the partition maintenance job
+CREATE OR REPLACE FUNCTION create_metrics_partition(month_start DATE) RETURNS VOID AS $$
+DECLARE
+    suffix TEXT := to_char(month_start, 'YYYY_MM');
+    lower_bound TIMESTAMP WITH TIME ZONE := date_trunc('month', month_start::timestamp) AT TIME ZONE 'UTC';
+    upper_bound TIMESTAMP WITH TIME ZONE := (date_trunc('month', month_start::timestamp) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF metrics FOR VALUES FROM (%L) TO (%L)',
+                   'metrics_' || suffix, lower_bound, upper_bound);
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF metric_tags FOR VALUES FROM (%L) TO (%L)',
+                   'metric_tags_' || suffix, lower_bound, upper_bound);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every month that already has data, through three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE(
+            (SELECT MIN(timestamp) FROM metrics_unpartitioned) AT TIME ZONE 'UTC',
+            now() AT TIME ZONE 'UTC'))::date;
+    last_month DATE := (date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        PERFORM create_metrics_partition(month_start);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+-- Catches rows outside the pre-created months until maintenance catches up
+CREATE TABLE metrics_default PARTITION OF metrics DEFAULT;
+CREATE TABLE metric_tags_default PARTITION OF metric_tags DEFAULT;
+
+INSERT INTO metrics (id, team_id, type, name, value, unit, source, timestamp, metadata, created_at)
+SELECT id, team_id, type, name, value, unit, source, timestamp, metadata, created_at
+FROM metrics_unpartitioned;
+
+INSERT INTO metric_tags (metric_id, metric_timestamp, tag_key, tag_value)
+SELECT t.metric_id, m.timestamp, t.tag_key, t.tag_value
+FROM metric_tags_unpartitioned t
+JOIN metrics_unpartitioned m ON m.id = t.metric_id;
+
+DROP TABLE metric_tags_unpartitioned;
+DROP TABLE metrics_unpartitioned;
+
+-- Defined on the parents, so every partition gets them
+CREATE INDEX idx_metrics_type_timestamp ON metrics(type, timestamp);
+CREATE INDEX idx_metrics_source ON metrics(source);
+CREATE INDEX idx_metrics_team_id ON metrics(team_id);
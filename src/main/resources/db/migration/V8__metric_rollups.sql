@@ -0,0 +1,36 @@
+-- V8: Hourly and daily rollups of metric_points, maintained by the aggregation crons
+
+CREATE TABLE metric_rollup_1h (
+    series_id BIGINT NOT NULL REFERENCES metric_series(id) ON DELETE CASCADE,
+    bucket TIMESTAMP WITH TIME ZONE NOT NULL,
+    sample_count BIGINT NOT NULL,
+    sum_value DOUBLE PRECISION NOT NULL,
+    min_value DOUBLE PRECISION NOT NULL,
+    max_value DOUBLE PRECISION NOT NULL,
+    last_value DOUBLE PRECISION NOT NULL,
+    -- Lets coarser rollups pick the latest "last" across their finer buckets
+    last_ts TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (series_id, bucket)
+);
+
+CREATE TABLE metric_rollup_1d (
+    series_id BIGINT NOT NULL REFERENCES metric_series(id) ON DELETE CASCADE,
+    bucket TIMESTAMP WITH TIME ZONE NOT NULL,
+    sample_count BIGINT NOT NULL,
+    sum_value DOUBLE PRECISION NOT NULL,
+    min_value DOUBLE PRECISION NOT NULL,
+    max_value DOUBLE PRECISION NOT NULL,
+    last_value DOUBLE PRECISION NOT NULL,
+    last_ts TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (series_id, bucket)
+);
+
+CREATE INDEX idx_metric_rollup_1h_bucket ON metric_rollup_1h(bucket);
+CREATE INDEX idx_metric_rollup_1d_bucket ON metric_rollup_1d(bucket);
+
+-- Each rollup is complete for every bucket that starts before its watermark
+CREATE TABLE metric_rollup_watermark (
+    rollup VARCHAR(10) PRIMARY KEY,
+    watermark TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
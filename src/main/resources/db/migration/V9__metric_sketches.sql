@@ -0,0 +1,23 @@
+-- V9: Serialized quantile sketches (see QuantileSketch) per series and bucket, alongside the rollups
+-- Hourly sketches are built from raw points by the hourly rollup only; daily sketches are merged from
+-- hourly ones by the daily rollup.
+
+CREATE TABLE metric_sketch_1h (
+    series_id BIGINT NOT NULL REFERENCES metric_series(id) ON DELETE CASCADE,
+    bucket TIMESTAMP WITH TIME ZONE NOT NULL,
+    sketch BYTEA NOT NULL,
+    PRIMARY KEY (series_id, bucket)
+);
+
+CREATE TABLE metric_sketch_1d (
+    series_id BIGINT NOT NULL REFERENCES metric_series(id) ON DELETE CASCADE,
+    bucket TIMESTAMP WITH TIME ZONE NOT NULL,
+    sketch BYTEA NOT NULL,
+    PRIMARY KEY (series_id, bucket)
+);
+
+CREATE INDEX idx_metric_sketch_1h_bucket ON metric_sketch_1h(bucket);
+CREATE INDEX idx_metric_sketch_1d_bucket ON metric_sketch_1d(bucket);
+
+-- Makes the next rollup runs start from the earliest point, so history gets sketches too
+DELETE FROM metric_rollup_watermark;
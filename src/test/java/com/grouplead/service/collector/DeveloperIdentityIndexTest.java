@@ -0,0 +1,68 @@
+package com.grouplead.service.collector;
+
+import com.grouplead.domain.entity.Developer;
+import com.grouplead.repository.DeveloperRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeveloperIdentityIndexTest {
+
+    private DeveloperRepository developerRepository;
+    private DeveloperIdentityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        developerRepository = mock(DeveloperRepository.class);
+        when(developerRepository.findAllWithExternalIds()).thenReturn(List.of(developer(1L, "ana@example.com", "a1")));
+
+        index = new DeveloperIdentityIndex(developerRepository);
+        ReflectionTestUtils.setField(index, "refreshInterval", Duration.ofMinutes(5));
+        index.refresh();
+    }
+
+    @Test
+    void developerCreatedElsewhereMatchesOnceTheIndexIsStale() {
+        when(developerRepository.findAllWithExternalIds()).thenReturn(List.of(
+                developer(1L, "ana@example.com", "a1"),
+                developer(2L, "bruno@example.com", "b2")));
+
+        // Within the interval the loaded index is served as is
+        assertEquals(Optional.empty(), index.findByEmail("bruno@example.com"));
+
+        expire();
+        assertEquals(Optional.of(2L), index.findByEmail(" Bruno@Example.com "));
+        assertEquals(Optional.of(2L), index.resolve(DeveloperIdentityIndex.SOURCE_JIRA, "b2", null));
+        assertEquals(Optional.of(1L), index.findByExternalId(DeveloperIdentityIndex.SOURCE_JIRA, "a1"));
+    }
+
+    @Test
+    void failedReloadKeepsServingThePreviousIndex() {
+        when(developerRepository.findAllWithExternalIds()).thenThrow(new IllegalStateException("database down"));
+
+        expire();
+        assertEquals(Optional.of(1L), index.findByEmail("ana@example.com"));
+        assertEquals(Optional.of(1L), index.findByExternalId(DeveloperIdentityIndex.SOURCE_JIRA, "a1"));
+    }
+
+    private void expire() {
+        ReflectionTestUtils.setField(index, "loadedAt", System.nanoTime() - Duration.ofMinutes(10).toNanos());
+    }
+
+    private static Developer developer(Long id, String email, String jiraId) {
+        return Developer.builder()
+                .id(id)
+                .email(email)
+                .externalIds(Map.of(DeveloperIdentityIndex.SOURCE_JIRA, jiraId))
+                .build();
+    }
+}
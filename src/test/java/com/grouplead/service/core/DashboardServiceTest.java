@@ -0,0 +1,136 @@
+package com.grouplead.service.core;
+
+import com.grouplead.domain.enums.MetricType;
+import com.grouplead.domain.enums.PeriodType;
+import com.grouplead.dto.response.InfrastructureMetricsResponse;
+import com.grouplead.repository.AlertRepository;
+import com.grouplead.repository.MetricPointRepository;
+import com.grouplead.service.collector.CloudWatchCollectorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceTest {
+
+    private final List<Series> collected = new ArrayList<>();
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        AlertRepository alertRepository = mock(AlertRepository.class);
+        when(alertRepository.countActiveAlerts()).thenReturn(2L);
+
+        dashboardService = new DashboardService(null, null, alertRepository, null, null,
+                new CollectedMetricPoints(), null, null, Runnable::run,
+                mock(PlatformTransactionManager.class), Duration.ofSeconds(2), 8);
+        ReflectionTestUtils.setField(dashboardService, "latencyThresholdMs", 500.0);
+        ReflectionTestUtils.setField(dashboardService, "errorRateThresholdPercent", 1.0);
+    }
+
+    @Test
+    void lambdaErrorsAreRatedAgainstInvocations() {
+        // 40 errors is far above the 1% threshold as a number, but only 0.04% of the invocations
+        collect("lambda:orders", "AWS/Lambda", "Errors", 4, 40);
+        collect("lambda:orders", "AWS/Lambda", "Invocations", 10_000, 100_000);
+        collect("lambda:orders", "AWS/Lambda", "Duration", 120, 1_200);
+        collect("lambda:orders", "AWS/Lambda", "ConcurrentExecutions", 35, 350);
+        collect("lambda:orders", "AWS/Lambda", "Throttles", 0, 0);
+
+        var orders = services().get("lambda:orders");
+
+        assertEquals("healthy", orders.status());
+        assertEquals(0.04, orders.errorRate(), 1e-9);
+        assertEquals(120.0, orders.latencyP99());
+        assertEquals(100_000, orders.requestCount());
+        // ConcurrentExecutions and Throttles are counts, not percentages
+        assertNull(orders.cpu());
+    }
+
+    @Test
+    void degradedWhenErrorRateOrDurationExceedThresholds() {
+        collect("lambda:failing", "AWS/Lambda", "Errors", 5, 50);
+        collect("lambda:failing", "AWS/Lambda", "Invocations", 100, 1_000);
+        collect("lambda:slow", "AWS/Lambda", "Duration", 900, 9_000);
+        collect("lambda:slow", "AWS/Lambda", "Invocations", 100, 1_000);
+
+        var services = services();
+
+        assertEquals("degraded", services.get("lambda:failing").status());
+        assertEquals(5.0, services.get("lambda:failing").errorRate(), 1e-9);
+        assertEquals("degraded", services.get("lambda:slow").status());
+
+        var response = dashboardService.getInfrastructureMetrics(PeriodType.DAILY);
+        assertEquals(900.0, response.overallLatencyP99());
+        assertEquals(5.0, response.overallErrorRate(), 1e-9);
+        assertEquals(2, response.activeAlerts());
+    }
+
+    @Test
+    void onlyPercentMetricsFillUtilizationColumns() {
+        collect("rds:orders-db", "AWS/RDS", "CPUUtilization", 42, 420);
+        collect("rds:orders-db", "AWS/RDS", "FreeableMemory", 2.0e9, 2.0e10);
+        collect("rds:orders-db", "AWS/RDS", "ReadIOPS", 300, 3_000);
+        collect("ecs:prod/api", "AWS/ECS", "CPUUtilization", 70, 700);
+        collect("ecs:prod/api", "AWS/ECS", "MemoryUtilization", 55, 550);
+        collect("ec2:i-0abc", "AWS/EC2", "CPUUtilization", 12, 120);
+        collect("ec2:i-0abc", "AWS/EC2", "DiskReadBytes", 1.0e6, 1.0e7);
+
+        var services = services();
+
+        assertEquals(42.0, services.get("rds:orders-db").cpu());
+        assertNull(services.get("rds:orders-db").memory());
+        assertEquals(70.0, services.get("ecs:prod/api").cpu());
+        assertEquals(55.0, services.get("ecs:prod/api").memory());
+        assertEquals(12.0, services.get("ec2:i-0abc").cpu());
+        services.values().forEach(service -> {
+            assertEquals("healthy", service.status());
+            assertNull(service.errorRate());
+            assertNull(service.disk());
+        });
+    }
+
+    private void collect(String resourceId, String namespace, String metricName, double average, double total) {
+        collected.add(new Series(resourceId, namespace, metricName, average, total));
+    }
+
+    private Map<String, InfrastructureMetricsResponse.ServiceMetrics> services() {
+        return dashboardService.getInfrastructureMetrics(PeriodType.DAILY).services().stream()
+                .collect(Collectors.toMap(InfrastructureMetricsResponse.ServiceMetrics::name, Function.identity()));
+    }
+
+    private record Series(String resourceId, String namespace, String metricName, double average, double total) {}
+
+    // Serves the series under the type the collector stores them as
+    private class CollectedMetricPoints extends MetricPointRepository {
+
+        CollectedMetricPoints() {
+            super(null);
+        }
+
+        @Override
+        public void forEachResourceSummary(Collection<MetricType> types, LocalDateTime start, LocalDateTime end,
+                                           ResourceSummaryConsumer consumer) {
+            for (Series series : collected) {
+                MetricType type = CloudWatchCollectorService.mapToMetricType(series.metricName());
+                if (types.contains(type)) {
+                    consumer.accept(series.resourceId(), type, series.metricName(), series.average(), series.total());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.grouplead.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownsamplerTest {
+
+    @Test
+    void seriesAtOrBelowMaxPointsIsKeptWhole() {
+        assertArrayEquals(new int[0], keep(0, 10));
+        assertArrayEquals(new int[]{0}, keep(1, 10));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, keep(5, 5));
+        assertArrayEquals(new int[]{0, 1, 2}, keep(3, 2_000));
+    }
+
+    @Test
+    void twoPointsKeepOnlyTheEndpoints() {
+        assertArrayEquals(new int[]{0, 999}, keep(1_000, 2));
+        assertArrayEquals(new int[]{0, 2}, keep(3, 2));
+    }
+
+    @Test
+    void threePointsKeepTheLargestTriangleBetweenTheEndpoints() {
+        long[] x = {0, 1, 2, 3, 4, 5, 6};
+        double[] y = {0, 1, 0, 9, 0, 1, 0};
+
+        assertArrayEquals(new int[]{0, 3, 6}, Downsampler.largestTriangleThreeBuckets(x, y, x.length, 3));
+    }
+
+    @Test
+    void endpointsAndOrderArePreservedForEverySize() {
+        Random random = new Random(42);
+        for (int size = 3; size <= 200; size++) {
+            long[] x = new long[size];
+            double[] y = new double[size];
+            for (int i = 0; i < size; i++) {
+                x[i] = 1_700_000_000_000L + i * 60_000L;
+                y[i] = random.nextGaussian();
+            }
+            for (int maxPoints = 2; maxPoints < size; maxPoints++) {
+                int[] kept = Downsampler.largestTriangleThreeBuckets(x, y, size, maxPoints);
+
+                assertEquals(maxPoints, kept.length);
+                assertEquals(0, kept[0]);
+                assertEquals(size - 1, kept[kept.length - 1]);
+                for (int i = 1; i < kept.length; i++) {
+                    assertTrue(kept[i] > kept[i - 1], "indexes must increase for size " + size);
+                }
+            }
+        }
+    }
+
+    // The last interior point is in the last bucket, so a spike there survives
+    @Test
+    void lastInteriorPointIsNeverSkipped() {
+        for (int size = 10; size <= 500; size++) {
+            for (int maxPoints : new int[]{3, 7, size / 3 + 2, size - 1}) {
+                long[] x = new long[size];
+                double[] y = new double[size];
+                for (int i = 0; i < size; i++) {
+                    x[i] = i;
+                }
+                y[size - 2] = 1_000;
+
+                int[] kept = Downsampler.largestTriangleThreeBuckets(x, y, size, maxPoints);
+
+                assertEquals(size - 2, kept[kept.length - 2], "size " + size + ", maxPoints " + maxPoints);
+            }
+        }
+    }
+
+    @Test
+    void peaksSurviveDownsampling() {
+        int size = 10_000;
+        long[] x = new long[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i / 100.0);
+        }
+        y[4_321] = 50;
+
+        int[] kept = Downsampler.largestTriangleThreeBuckets(x, y, size, 100);
+
+        boolean peakKept = false;
+        for (int index : kept) {
+            peakKept |= index == 4_321;
+        }
+        assertTrue(peakKept);
+    }
+
+    @Test
+    void fewerThanTwoPointsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> keep(10, 1));
+        assertThrows(IllegalArgumentException.class, () -> keep(10, 0));
+    }
+
+    private static int[] keep(int size, int maxPoints) {
+        long[] x = new long[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i;
+            y[i] = i % 2;
+        }
+        return Downsampler.largestTriangleThreeBuckets(x, y, size, maxPoints);
+    }
+}
@@ -0,0 +1,172 @@
+package com.grouplead.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double[] QUANTILES = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999};
+
+    @Test
+    void quantilesStayWithinRelativeAccuracy() {
+        Random random = new Random(42);
+        double[] values = new double[20_000];
+        for (int i = 0; i < values.length; i++) {
+            // Latency-like: log-normal over several orders of magnitude
+            values[i] = Math.exp(4 + 1.5 * random.nextGaussian());
+        }
+
+        assertWithinAccuracy(values, sketchOf(values));
+    }
+
+    @Test
+    void negativeAndZeroValuesKeepTheirOrder() {
+        Random random = new Random(7);
+        double[] values = new double[5_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 10 == 0 ? 0.0 : (random.nextDouble() - 0.5) * 1_000;
+        }
+
+        assertWithinAccuracy(values, sketchOf(values));
+    }
+
+    @Test
+    void widestRangesFoldOnlyTheLowestBuckets() {
+        double[] values = new double[4_000];
+        for (int i = 0; i < values.length; i++) {
+            // Far more buckets than a sketch keeps: 1e-6 up to 1e30, of which roughly 1e12 and up fit
+            values[i] = Math.pow(10, -6 + 36.0 * i / values.length);
+        }
+
+        QuantileSketch sketch = sketchOf(values);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : new double[]{0.75, 0.9, 0.99}) {
+            double expected = sorted[(int) (q * (sorted.length - 1))];
+            assertEquals(expected, sketch.quantile(q), RELATIVE_ACCURACY * expected);
+        }
+        assertEquals(1e-6, sketch.min());
+    }
+
+    @Test
+    void exactStatisticsAndExtremes() {
+        QuantileSketch sketch = sketchOf(new double[]{3, 1, 4, 1, 5, 9, 2, 6});
+
+        assertEquals(8, sketch.count());
+        assertEquals(31.0, sketch.sum(), 1e-12);
+        assertEquals(1.0, sketch.min());
+        assertEquals(9.0, sketch.max());
+        assertEquals(31.0 / 8, sketch.average(), 1e-12);
+        assertEquals(1.0, sketch.quantile(0));
+        assertEquals(9.0, sketch.quantile(1));
+    }
+
+    @Test
+    void nanIsIgnoredAndEmptySketchReturnsZero() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(Double.NaN);
+
+        assertTrue(sketch.isEmpty());
+        assertEquals(0.0, sketch.quantile(0.5));
+        assertEquals(0.0, sketch.min());
+        assertEquals(0.0, sketch.max());
+        assertEquals(0.0, sketch.average());
+    }
+
+    @Test
+    void mergingMatchesAddingEverythingToOneSketch() {
+        Random random = new Random(3);
+        double[] values = new double[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble() * 2_000;
+        }
+
+        QuantileSketch merged = new QuantileSketch();
+        for (int from = 0; from < values.length; from += 1_000) {
+            merged.merge(sketchOf(Arrays.copyOfRange(values, from, from + 1_000)));
+        }
+        merged.merge(new QuantileSketch());
+
+        QuantileSketch whole = sketchOf(values);
+        assertEquals(whole.count(), merged.count());
+        assertEquals(whole.sum(), merged.sum(), 1e-6);
+        for (double q : QUANTILES) {
+            assertEquals(whole.quantile(q), merged.quantile(q));
+        }
+    }
+
+    @Test
+    void serializedSketchRoundTrips() {
+        Random random = new Random(11);
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < 3_000; i++) {
+            sketch.add((random.nextDouble() - 0.2) * 1e6);
+        }
+        sketch.add(0.0);
+
+        byte[] bytes = sketch.toBytes();
+        QuantileSketch restored = QuantileSketch.fromBytes(bytes);
+
+        assertEquals(sketch.count(), restored.count());
+        assertEquals(sketch.sum(), restored.sum());
+        assertEquals(sketch.min(), restored.min());
+        assertEquals(sketch.max(), restored.max());
+        for (double q : QUANTILES) {
+            assertEquals(sketch.quantile(q), restored.quantile(q));
+        }
+        assertArrayEquals(bytes, restored.toBytes());
+    }
+
+    @Test
+    void seriesHourSerializesCompactly() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < 12; i++) {
+            sketch.add(40 + i * 3.5);
+        }
+
+        assertTrue(sketch.toBytes().length < 100, () -> sketch.toBytes().length + " bytes");
+    }
+
+    @Test
+    void emptyInputDeserializesToEmptySketch() {
+        assertTrue(QuantileSketch.fromBytes(null).isEmpty());
+        assertTrue(QuantileSketch.fromBytes(new byte[0]).isEmpty());
+        assertTrue(QuantileSketch.fromBytes(new QuantileSketch().toBytes()).isEmpty());
+    }
+
+    @Test
+    void unknownFormatVersionIsRejected() {
+        byte[] bytes = new QuantileSketch().toBytes();
+        bytes[0] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> QuantileSketch.fromBytes(bytes));
+    }
+
+    private static QuantileSketch sketchOf(double[] values) {
+        QuantileSketch sketch = new QuantileSketch();
+        for (double value : values) {
+            sketch.add(value);
+        }
+        return sketch;
+    }
+
+    // Compared against the same lower nearest-rank the sketch uses
+    private static void assertWithinAccuracy(double[] values, QuantileSketch sketch) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            double expected = sorted[(int) (q * (sorted.length - 1))];
+            double actual = sketch.quantile(q);
+            assertTrue(Math.abs(actual - expected) <= RELATIVE_ACCURACY * Math.abs(expected) + 1e-9,
+                    () -> "q" + q + ": expected " + expected + " within 1% but was " + actual);
+        }
+    }
+}
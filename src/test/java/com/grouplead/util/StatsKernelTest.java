@@ -0,0 +1,151 @@
+package com.grouplead.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatsKernelTest {
+
+    private static final double[] PERCENTILES = {0, 1, 10, 25, 50, 75, 90, 95, 99, 99.9, 100};
+
+    @Test
+    void percentilesMatchSortedArray() {
+        Random random = new Random(42);
+        for (int size = 1; size <= 300; size++) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = Math.exp(4 + 1.5 * random.nextGaussian());
+            }
+            assertMatchesSorted(values);
+        }
+    }
+
+    @Test
+    void duplicatesDoNotBreakSelection() {
+        Random random = new Random(7);
+        double[] values = new double[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(5);
+        }
+        assertMatchesSorted(values);
+
+        double[] constant = new double[1_000];
+        Arrays.fill(constant, 3.5);
+        assertMatchesSorted(constant);
+    }
+
+    @Test
+    void sortedAndReversedInput() {
+        double[] ascending = new double[5_000];
+        double[] descending = new double[5_000];
+        for (int i = 0; i < ascending.length; i++) {
+            ascending[i] = i;
+            descending[i] = ascending.length - i;
+        }
+        assertMatchesSorted(ascending);
+        assertMatchesSorted(descending);
+    }
+
+    @Test
+    void nanRanksLastAsInArraysSort() {
+        Random random = new Random(11);
+        double[] values = new double[2_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 7 == 0 ? Double.NaN : random.nextDouble() * 100 - 50;
+        }
+        assertMatchesSorted(values);
+
+        double[] allNaN = {Double.NaN, Double.NaN, Double.NaN};
+        assertTrue(Double.isNaN(StatsKernel.selectRanks(allNaN, 0)[0]));
+        assertEquals(1.0, StatsKernel.selectRanks(new double[]{Double.NaN, 2.0, 1.0}, 0)[0]);
+        assertTrue(Double.isNaN(StatsKernel.selectRanks(new double[]{Double.NaN, 2.0, 1.0}, 2)[0]));
+    }
+
+    @Test
+    void emptyInputAndOutOfRangeRanks() {
+        assertArrayEquals(new double[]{0.0, 0.0}, StatsKernel.selectRanks(new double[0], 0, 5));
+        assertArrayEquals(new double[0], StatsKernel.selectRanks(new double[]{1, 2, 3}));
+        assertArrayEquals(new double[]{1.0, 3.0}, StatsKernel.selectRanks(new double[]{3, 1, 2}, -1, 10));
+        assertEquals(0, StatsKernel.nearestRank(0, 50));
+        assertEquals(0.0, MetricsCalculator.calculatePercentile(List.of(), 95));
+        assertEquals(0.0, MetricsCalculator.calculateMedian(List.of()));
+    }
+
+    @Test
+    void medianAndPercentileKeepMetricsCalculatorConventions() {
+        List<Double> values = List.of(7.0, 1.0, 3.0, 5.0);
+
+        assertEquals(4.0, MetricsCalculator.calculateMedian(values));
+        assertEquals(3.0, MetricsCalculator.calculateMedian(List.of(5.0, 1.0, 3.0)));
+        assertEquals(7.0, MetricsCalculator.calculatePercentile(values, 95));
+        assertEquals(3.0, MetricsCalculator.calculatePercentile(values, 50));
+        // The caller's list is not reordered
+        assertEquals(List.of(7.0, 1.0, 3.0, 5.0), values);
+    }
+
+    @Test
+    void momentsMatchTextbookFormulas() {
+        double[] values = {2, 4, 4, 4, 5, 5, 7, 9};
+        StatsKernel.Moments moments = StatsKernel.moments(values);
+
+        assertEquals(8, moments.count());
+        assertEquals(5.0, moments.mean(), 1e-12);
+        assertEquals(4.0, moments.variance(), 1e-12);
+        assertEquals(32.0 / 7, moments.sampleVariance(), 1e-12);
+        assertEquals(Math.sqrt(32.0 / 7), moments.sampleStandardDeviation(), 1e-12);
+        assertEquals(0.0, StatsKernel.moments(new double[0]).variance());
+        assertEquals(0.0, StatsKernel.moments(new double[]{3}).sampleVariance());
+    }
+
+    @Test
+    void momentsStayStableFarFromZero() {
+        double[] values = new double[1_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1e9 + (i % 2 == 0 ? 1 : -1);
+        }
+
+        assertEquals(1.0, StatsKernel.moments(values).variance(), 1e-9);
+    }
+
+    @Test
+    void unrolledReductionsMatchStreams() {
+        Random random = new Random(3);
+        for (int size = 1; size <= 70; size++) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = random.nextDouble() * 1_000 - 500;
+            }
+            assertEquals(Arrays.stream(values).sum(), StatsKernel.sum(values), 1e-9);
+            assertEquals(Arrays.stream(values).min().orElseThrow(), StatsKernel.min(values));
+            assertEquals(Arrays.stream(values).max().orElseThrow(), StatsKernel.max(values));
+        }
+
+        double[] withNaN = {1, 2, Double.NaN, 4, 5, 6, 7, 8, 9};
+        assertTrue(Double.isNaN(StatsKernel.min(withNaN)));
+        assertTrue(Double.isNaN(StatsKernel.max(withNaN)));
+        assertEquals(0.0, StatsKernel.min(new double[0]));
+        assertEquals(0.0, StatsKernel.sum(new double[0]));
+    }
+
+    // Every percentile from one selection equals the nearest-rank element of a fully sorted copy
+    private static void assertMatchesSorted(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        int[] ranks = new int[PERCENTILES.length];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = StatsKernel.nearestRank(values.length, PERCENTILES[i]);
+        }
+        double[] selected = StatsKernel.selectRanks(values.clone(), ranks);
+
+        for (int i = 0; i < ranks.length; i++) {
+            assertEquals(sorted[ranks[i]], selected[i], "p" + PERCENTILES[i] + " of " + values.length);
+        }
+    }
+}